@@ -0,0 +1,97 @@
+package com.upgrad.quora.api.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.upgrad.quora.api.controller.ReactiveReadHandler;
+import com.upgrad.quora.api.exception.ErrorResponseBodies;
+import com.upgrad.quora.api.exception.ReactiveExceptionHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.server.reactive.HttpHandler;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RequestPredicates;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+/**
+ * This Configuration starts the reactive read API next to the servlet API, when quora.reactive.enabled is set.
+ * A Spring Boot application runs a single web server, so the reactive endpoints are served by their own Reactor Netty server
+ * on quora.reactive.port, under the same /api context path and with the same ObjectMapper as the servlet endpoints.
+ * Its event loop threads never block: the database is read through R2DBC and the access tokens are checked through the
+ * stateless verifier and the token cache.
+ * Responses carry a request-id like those of the servlet API; the event loop threads serve many requests at once, so it is
+ * not put in the logback MDC, and the per-operation timers of RequestMetricsFilter do not cover this server.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "quora.reactive", name = "enabled", havingValue = "true")
+public class ReactiveServerConfiguration implements SmartLifecycle {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ReactiveServerConfiguration.class);
+
+    private static final String CONTEXT_PATH = "/api";
+
+    @Autowired
+    private ReactiveReadHandler reactiveReadHandler;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ErrorResponseBodies errorResponseBodies;
+
+    @Value("${quora.reactive.port:8081}")
+    private int port;
+
+    private volatile DisposableServer server;
+
+    @Override
+    public void start() {
+        final RouterFunction<ServerResponse> routes = RouterFunctions.nest(RequestPredicates.path(CONTEXT_PATH),
+                RouterFunctions.route()
+                        .GET("/question/all", reactiveReadHandler::getAllQuestions)
+                        .GET("/question/all/{userId}", reactiveReadHandler::getAllQuestionsByUser)
+                        .GET("/answer/all/{questionId}", reactiveReadHandler::getAllAnswersToQuestion)
+                        .GET("/userprofile/{userId}", reactiveReadHandler::getUser)
+                        .build());
+        final HandlerStrategies strategies = HandlerStrategies.builder()
+                .codecs(codecs -> {
+                    codecs.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper, MediaType.APPLICATION_JSON));
+                    codecs.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(objectMapper, MediaType.APPLICATION_JSON));
+                })
+                .exceptionHandler(new ReactiveExceptionHandler(errorResponseBodies))
+                .webFilter((exchange, chain) -> {
+                    exchange.getResponse().getHeaders().set(RequestMetricsFilter.REQUEST_ID_HEADER,
+                            RequestMetricsFilter.requestId(exchange.getRequest().getHeaders().getFirst(RequestMetricsFilter.REQUEST_ID_HEADER)));
+                    return chain.filter(exchange);
+                })
+                .build();
+        final HttpHandler httpHandler = RouterFunctions.toHttpHandler(routes, strategies);
+        server = HttpServer.create().port(port).handle(new ReactorHttpHandlerAdapter(httpHandler)).bindNow();
+        LOG.info("Reactive read API started on port {}", server.port());
+    }
+
+    @Override
+    public void stop() {
+        final DisposableServer server = this.server;
+        if (server != null) {
+            server.disposeNow();
+            this.server = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return server != null;
+    }
+}
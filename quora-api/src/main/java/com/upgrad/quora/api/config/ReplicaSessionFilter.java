@@ -0,0 +1,30 @@
+package com.upgrad.quora.api.config;
+
+import com.upgrad.quora.service.dao.ReplicaSessionContext;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * This filter identifies the session of every request by its access token, so that the reads of a session which has just
+ * written are served by the primary database rather than a replica which may not have replayed the write yet.
+ */
+@Component
+public class ReplicaSessionFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(final HttpServletRequest request, final HttpServletResponse response, final FilterChain filterChain)
+            throws ServletException, IOException {
+        ReplicaSessionContext.set(request.getHeader("authorization"));
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ReplicaSessionContext.clear();
+        }
+    }
+}
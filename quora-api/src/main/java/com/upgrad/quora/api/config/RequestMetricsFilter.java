@@ -0,0 +1,115 @@
+package com.upgrad.quora.api.config;
+
+import com.upgrad.quora.service.common.RequestTimings;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * This filter gives every request a request-id and times it per swagger operationId.
+ * <ul>
+ * <li>The request-id header of the request is kept when the client sends a well-formed one and generated otherwise. It is
+ * returned in the request-id header the swagger specs declare on every response, and put in the logback MDC as "requestId"
+ * for the whole request.</li>
+ * <li>The latency of every request served by a swagger operation is recorded in the quora.request timer, tagged with the
+ * operationId and the phase: "auth" is the time spent checking the access token, "serialization" the time spent writing the
+ * JSON body, "service" the rest of the request and "total" the whole of it. Requests which no spec declares, such as the
+ * actuator endpoints, are only covered by http.server.requests.</li>
+ * </ul>
+ * The percentiles and histogram buckets of the timers are configured under management.metrics.distribution and published
+ * on /actuator/prometheus and /actuator/metrics/quora.request.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestMetricsFilter extends OncePerRequestFilter {
+
+    public static final String REQUEST_ID_HEADER = "request-id";
+
+    public static final String REQUEST_ID_MDC_KEY = "requestId";
+
+    private static final Pattern VALID_REQUEST_ID = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+
+    private static final String[] PHASES = {"auth", "service", "serialization", "total"};
+
+    private final SwaggerOperations swaggerOperations;
+
+    private final Map<String, Timer[]> timers = new HashMap<>();
+
+    @Autowired
+    public RequestMetricsFilter(final SwaggerOperations swaggerOperations, final MeterRegistry meterRegistry) {
+        this.swaggerOperations = swaggerOperations;
+        for (final String operationId : swaggerOperations.getOperationIds()) {
+            final Timer[] operationTimers = new Timer[PHASES.length];
+            for (int i = 0; i < PHASES.length; i++) {
+                operationTimers[i] = Timer.builder("quora.request")
+                        .description("Latency of the requests per swagger operation and phase")
+                        .tag("operation", operationId).tag("phase", PHASES[i])
+                        .register(meterRegistry);
+            }
+            timers.put(operationId, operationTimers);
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(final HttpServletRequest request, final HttpServletResponse response, final FilterChain filterChain)
+            throws ServletException, IOException {
+        final String requestId = requestId(request.getHeader(REQUEST_ID_HEADER));
+        response.setHeader(REQUEST_ID_HEADER, requestId);
+        MDC.put(REQUEST_ID_MDC_KEY, requestId);
+        final RequestTimings timings = RequestTimings.start();
+        final long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            final long totalNanos = System.nanoTime() - start;
+            RequestTimings.clear();
+            MDC.remove(REQUEST_ID_MDC_KEY);
+            record(request, timings, totalNanos);
+        }
+    }
+
+    /**
+     * @param header - request-id header received from the client, may be null
+     * @return - the received request-id if it is well-formed, a new random one otherwise
+     */
+    public static String requestId(final String header) {
+        if (header != null && VALID_REQUEST_ID.matcher(header).matches()) {
+            return header;
+        }
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        return new UUID(random.nextLong(), random.nextLong()).toString();
+    }
+
+    private void record(final HttpServletRequest request, final RequestTimings timings, final long totalNanos) {
+        final String operationId = swaggerOperations.getOperationId(request.getMethod(),
+                (String) request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE));
+        final Timer[] operationTimers = operationId == null ? null : timers.get(operationId);
+        if (operationTimers == null) {
+            return;
+        }
+        final long authNanos = timings.getAuthNanos();
+        final long serializationNanos = timings.getSerializationNanos();
+        operationTimers[0].record(authNanos, TimeUnit.NANOSECONDS);
+        operationTimers[1].record(Math.max(0L, totalNanos - authNanos - serializationNanos), TimeUnit.NANOSECONDS);
+        operationTimers[2].record(serializationNanos, TimeUnit.NANOSECONDS);
+        operationTimers[3].record(totalNanos, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,85 @@
+package com.upgrad.quora.api.config;
+
+import com.upgrad.quora.service.StatementInspectionProperties;
+import com.upgrad.quora.service.dao.RequestStatements;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This interceptor counts the SQL statements of every request served by a swagger operation against the statement budget
+ * of the operation, when quora.sql-inspection.enabled is set.
+ * A request over its budget is logged with the statement it ran most often, which is the lazy load of an N+1 listing;
+ * in fail mode the StatementInspectingDataSource has already failed it with GEN-003.
+ * The number of statements per request is recorded in the quora.request.statements summary of the operation.
+ */
+@Component
+@ConditionalOnProperty(prefix = "quora.sql-inspection", name = "enabled", havingValue = "true")
+public class StatementBudgetInterceptor implements HandlerInterceptor, WebMvcConfigurer {
+
+    private static final Logger LOG = LoggerFactory.getLogger(StatementBudgetInterceptor.class);
+
+    private final SwaggerOperations swaggerOperations;
+
+    private final StatementInspectionProperties properties;
+
+    private final Map<String, DistributionSummary> statementsPerRequest = new HashMap<>();
+
+    @Autowired
+    public StatementBudgetInterceptor(final SwaggerOperations swaggerOperations, final StatementInspectionProperties properties,
+                                      final MeterRegistry meterRegistry) {
+        this.swaggerOperations = swaggerOperations;
+        this.properties = properties;
+        for (final String operationId : swaggerOperations.getOperationIds()) {
+            statementsPerRequest.put(operationId, DistributionSummary.builder("quora.request.statements")
+                    .description("SQL statements run per request of the swagger operation")
+                    .tag("operation", operationId).register(meterRegistry));
+        }
+    }
+
+    @Override
+    public void addInterceptors(final InterceptorRegistry registry) {
+        registry.addInterceptor(this);
+    }
+
+    @Override
+    public boolean preHandle(final HttpServletRequest request, final HttpServletResponse response, final Object handler) {
+        final String operationId = swaggerOperations.getOperationId(request.getMethod(),
+                (String) request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE));
+        if (operationId != null) {
+            RequestStatements.start(operationId, properties.getBudget(operationId));
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(final HttpServletRequest request, final HttpServletResponse response, final Object handler,
+                                final Exception ex) {
+        final RequestStatements statements = RequestStatements.current();
+        if (statements == null) {
+            return;
+        }
+        RequestStatements.clear();
+        statementsPerRequest.get(statements.getOperation()).record(statements.getCount());
+        if (statements.getCount() > statements.getBudget()) {
+            final Map.Entry<String, Integer> mostRepeated = statements.getMostRepeated();
+            LOG.warn("{} ran {} SQL statements in {} ms, over its budget of {}; the most repeated one ran {} times: {}",
+                    statements.getOperation(), statements.getCount(), TimeUnit.NANOSECONDS.toMillis(statements.getNanos()),
+                    statements.getBudget(), mostRepeated.getValue(), mostRepeated.getKey());
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.upgrad.quora.api.config;
+
+import com.upgrad.quora.service.dao.RequestStatements;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * This advice returns the number of SQL statements the request ran in the sql-statements header, when
+ * quora.sql-inspection.count-header is set, so that the controller tests can assert the statements of every endpoint:
+ * mvc.perform(...).andExpect(header().string("sql-statements", "3")).
+ * The header is added right before the body is written, after the handler has run all its statements; the streamed
+ * exports write their body themselves and do not get it.
+ */
+@ControllerAdvice
+@ConditionalOnProperty(prefix = "quora.sql-inspection", name = {"enabled", "count-header"}, havingValue = "true")
+public class StatementCountResponseAdvice implements ResponseBodyAdvice<Object> {
+
+    public static final String SQL_STATEMENTS_HEADER = "sql-statements";
+
+    @Override
+    public boolean supports(final MethodParameter returnType, final Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(final Object body, final MethodParameter returnType, final MediaType selectedContentType,
+                                  final Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  final ServerHttpRequest request, final ServerHttpResponse response) {
+        final RequestStatements statements = RequestStatements.current();
+        if (statements != null) {
+            response.getHeaders().set(SQL_STATEMENTS_HEADER, String.valueOf(statements.getCount()));
+        }
+        return body;
+    }
+}
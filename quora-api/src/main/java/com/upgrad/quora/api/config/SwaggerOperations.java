@@ -0,0 +1,75 @@
+package com.upgrad.quora.api.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * SwaggerOperations reads the operationIds of the swagger specs in endpoints/*.json, so that the metrics of a request can be
+ * tagged with the operationId of the spec rather than the name of the controller method which happens to serve it.
+ * Operations are keyed by HTTP method and path; path variables are compared by position only, as the controllers may name
+ * them differently from the spec.
+ */
+@Component
+public class SwaggerOperations {
+
+    private static final String SPECS = "classpath*:endpoints/*.json";
+
+    private final Map<String, String> operationIds;
+
+    @Autowired
+    public SwaggerOperations(final ObjectMapper objectMapper) {
+        final Map<String, String> operationIds = new HashMap<>();
+        try {
+            for (final Resource spec : new PathMatchingResourcePatternResolver().getResources(SPECS)) {
+                final JsonNode paths;
+                try (InputStream in = spec.getInputStream()) {
+                    paths = objectMapper.readTree(in).path("paths");
+                }
+                for (final Iterator<Map.Entry<String, JsonNode>> pathIterator = paths.fields(); pathIterator.hasNext(); ) {
+                    final Map.Entry<String, JsonNode> path = pathIterator.next();
+                    for (final Iterator<Map.Entry<String, JsonNode>> operations = path.getValue().fields(); operations.hasNext(); ) {
+                        final Map.Entry<String, JsonNode> operation = operations.next();
+                        final JsonNode operationId = operation.getValue().get("operationId");
+                        if (operationId != null) {
+                            operationIds.put(key(operation.getKey(), path.getKey()), operationId.asText());
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read the swagger specs " + SPECS, e);
+        }
+        this.operationIds = Collections.unmodifiableMap(operationIds);
+    }
+
+    /**
+     * @param method  - HTTP method of the request
+     * @param pattern - path pattern of the request mapping which served the request, relative to the context path
+     * @return - operationId of the spec, or null if no spec declares the operation
+     */
+    public String getOperationId(final String method, final String pattern) {
+        return pattern == null ? null : operationIds.get(key(method, pattern));
+    }
+
+    public Collection<String> getOperationIds() {
+        return operationIds.values();
+    }
+
+    private static String key(final String method, final String path) {
+        return method.toUpperCase(Locale.ROOT) + " " + path.replaceAll("\\{[^}]*}", "{}");
+    }
+}
@@ -0,0 +1,37 @@
+package com.upgrad.quora.api.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.upgrad.quora.service.common.RequestTimings;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * This converter writes the JSON bodies like the one Spring Boot configures by default, with the same ObjectMapper, and adds
+ * the time spent writing them to the serialization phase of the RequestTimings of the request.
+ * Being a MappingJackson2HttpMessageConverter bean, it replaces the default converter rather than being added next to it.
+ */
+@Component
+public class TimedJacksonHttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+    @Autowired
+    public TimedJacksonHttpMessageConverter(final ObjectMapper objectMapper) {
+        super(objectMapper);
+    }
+
+    @Override
+    protected void writeInternal(final Object object, final Type type, final HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        final long start = System.nanoTime();
+        try {
+            super.writeInternal(object, type, outputMessage);
+        } finally {
+            RequestTimings.addSerialization(System.nanoTime() - start);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.upgrad.quora.api.config;
+
+import com.upgrad.quora.service.common.VirtualThreads;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * This Configuration runs the requests on virtual threads instead of the Tomcat worker pool, when quora.virtual-threads.enabled is set.
+ * Every request, from the filters through the controllers and services to the JDBC calls, gets its own virtual thread, so
+ * the number of requests in flight is no longer capped by server.tomcat.threads.max but by server.tomcat.max-connections;
+ * the JDBC work of those requests is capped by the JdbcConcurrencyLimitConfiguration of quora-service.
+ * The application must then run on Java 21 or later, and fails to start otherwise.
+ * The executor is deliberately not a bean, so that it does not replace the task executor of the Boot auto-configuration.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "quora.virtual-threads", name = "enabled", havingValue = "true")
+public class VirtualThreadConfiguration implements DisposableBean {
+
+    private final ExecutorService requestExecutor = VirtualThreads.newThreadPerTaskExecutor("quora-request-");
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+        return protocolHandler -> protocolHandler.setExecutor(requestExecutor);
+    }
+
+    @Override
+    public void destroy() {
+        requestExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,59 @@
+package com.upgrad.quora.api.controller;
+
+import com.upgrad.quora.api.model.UserDeleteResponse;
+import com.upgrad.quora.api.model.UserDeletionProgressResponse;
+import com.upgrad.quora.service.business.AdminBusinessService;
+import com.upgrad.quora.service.entity.UserDeletionEntity;
+import com.upgrad.quora.service.entity.UserDeletionPhase;
+import com.upgrad.quora.service.exception.AuthorizationFailedException;
+import com.upgrad.quora.service.exception.UserNotFoundException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+/**
+ * This controller serves the endpoints of admin.json.
+ */
+@RestController
+@RequestMapping("/")
+public class AdminController {
+
+    @Autowired
+    private AdminBusinessService adminBusinessService;
+
+    /**
+     * This method deletes the user and returns as soon as the user is signed out and hidden.
+     * The rows of the user are purged in the background; the Location header points to the progress of the purge.
+     */
+    @RequestMapping(method = RequestMethod.DELETE, path = "/admin/user/{userId}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<UserDeleteResponse> deleteUser(@RequestHeader("authorization") final String authorization,
+                                                         @PathVariable("userId") final String userId)
+            throws AuthorizationFailedException, UserNotFoundException {
+        final UserDeletionEntity deletion = adminBusinessService.deleteUser(authorization, userId);
+        final UserDeleteResponse userDeleteResponse = new UserDeleteResponse().id(deletion.getUserUuid()).status("USER SUCCESSFULLY DELETED");
+        final HttpHeaders headers = new HttpHeaders();
+        headers.setLocation(ServletUriComponentsBuilder.fromCurrentRequest().path("/deletion").build().toUri());
+        return new ResponseEntity<UserDeleteResponse>(userDeleteResponse, headers, HttpStatus.OK);
+    }
+
+    /**
+     * This method returns the progress of the purge of the rows of a deleted user.
+     */
+    @RequestMapping(method = RequestMethod.GET, path = "/admin/user/{userId}/deletion", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<UserDeletionProgressResponse> getUserDeletionProgress(@RequestHeader("authorization") final String authorization,
+                                                                                @PathVariable("userId") final String userId)
+            throws AuthorizationFailedException, UserNotFoundException {
+        final UserDeletionEntity deletion = adminBusinessService.getUserDeletion(authorization, userId);
+        final boolean completed = deletion.getPhase() == UserDeletionPhase.DONE;
+        final UserDeletionProgressResponse progressResponse = new UserDeletionProgressResponse().id(deletion.getUserUuid())
+                .status(completed ? "PURGE COMPLETED" : "PURGE IN PROGRESS").phase(deletion.getPhase().name())
+                .answersDeleted(deletion.getAnswersDeleted()).questionsDeleted(deletion.getQuestionsDeleted())
+                .sessionsDeleted(deletion.getSessionsDeleted()).requestedAt(deletion.getRequestedAt().toOffsetDateTime())
+                .completedAt(deletion.getCompletedAt() == null ? null : deletion.getCompletedAt().toOffsetDateTime());
+        return new ResponseEntity<UserDeletionProgressResponse>(progressResponse, HttpStatus.OK);
+    }
+}
@@ -0,0 +1,74 @@
+package com.upgrad.quora.api.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.upgrad.quora.api.model.AnswerDetailsResponse;
+import com.upgrad.quora.service.business.AnswerBusinessService;
+import com.upgrad.quora.service.entity.AnswerEntity;
+import com.upgrad.quora.service.exception.AuthorizationFailedException;
+import com.upgrad.quora.service.exception.InvalidQuestionException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This controller serves the answer endpoints of answer.json.
+ */
+@RestController
+@RequestMapping("/")
+public class AnswerController {
+
+    @Autowired
+    private AnswerBusinessService answerBusinessService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * This method returns all the answers posted to the question.
+     * A request whose If-None-Match matches the version of the question gets a 304 without the answers being loaded.
+     */
+    @RequestMapping(method = RequestMethod.GET, path = "/answer/all/{questionId}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<AnswerDetailsResponse>> getAllAnswersToQuestion(@RequestHeader("authorization") final String authorization,
+                                                                               @PathVariable("questionId") final String questionId,
+                                                                               final WebRequest webRequest)
+            throws AuthorizationFailedException, InvalidQuestionException {
+        final String eTag = EntityTags.of("answers", answerBusinessService.getAllAnswersToQuestionVersion(authorization, questionId), questionId);
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+        final List<AnswerEntity> answers = answerBusinessService.getAllAnswersToQuestion(authorization, questionId);
+        final List<AnswerDetailsResponse> answerDetailsResponses = new ArrayList<>(answers.size());
+        for (final AnswerEntity answer : answers) {
+            answerDetailsResponses.add(new AnswerDetailsResponse().id(answer.getUuid())
+                    .questionContent(answer.getQuestion().getContent()).answerContent(answer.getAns()));
+        }
+        final HttpHeaders headers = new HttpHeaders();
+        headers.setETag(eTag);
+        return new ResponseEntity<List<AnswerDetailsResponse>>(answerDetailsResponses, headers, HttpStatus.OK);
+    }
+
+    /**
+     * This method streams all the answers posted to the question in one response when "stream=true" is passed.
+     * Rows are read from a database cursor and serialized one by one, so memory use does not grow with the number of answers.
+     */
+    @RequestMapping(method = RequestMethod.GET, path = "/answer/all/{questionId}", params = "stream=true", produces = MediaType.APPLICATION_JSON_VALUE)
+    public void streamAllAnswersToQuestion(@RequestHeader("authorization") final String authorization,
+                                           @PathVariable("questionId") final String questionId, final HttpServletResponse response)
+            throws AuthorizationFailedException, InvalidQuestionException, IOException {
+        final JsonArrayStreamWriter writer = new JsonArrayStreamWriter(objectMapper, response);
+        final AnswerDetailsResponse answerDetailsResponse = new AnswerDetailsResponse();
+        answerBusinessService.streamAllAnswersToQuestion(authorization, questionId,
+                (uuid, questionContent, answerContent) -> writer.write(
+                        answerDetailsResponse.id(uuid).questionContent(questionContent).answerContent(answerContent)));
+        writer.finish();
+    }
+}
@@ -0,0 +1,46 @@
+package com.upgrad.quora.api.controller;
+
+import com.upgrad.quora.api.model.UserDetailsResponse;
+import com.upgrad.quora.service.business.CommonBusinessService;
+import com.upgrad.quora.service.entity.UserEntity;
+import com.upgrad.quora.service.exception.AuthorizationFailedException;
+import com.upgrad.quora.service.exception.UserNotFoundException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * This controller serves the endpoints of common.json.
+ */
+@RestController
+@RequestMapping("/")
+public class CommonController {
+
+    @Autowired
+    private CommonBusinessService commonBusinessService;
+
+    /**
+     * This method returns the details of the user.
+     * A request whose If-None-Match matches the version of the user gets a 304 without the user being loaded.
+     */
+    @RequestMapping(method = RequestMethod.GET, path = "/userprofile/{userId}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<UserDetailsResponse> getUser(@RequestHeader("authorization") final String authorization,
+                                                       @PathVariable("userId") final String userId, final WebRequest webRequest)
+            throws AuthorizationFailedException, UserNotFoundException {
+        final String eTag = EntityTags.of("user", commonBusinessService.getUserVersion(authorization, userId), userId);
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+        final UserEntity user = commonBusinessService.getUser(authorization, userId);
+        final UserDetailsResponse userDetailsResponse = new UserDetailsResponse().firstName(user.getFirstName())
+                .lastName(user.getLastName()).userName(user.getUserName()).emailAddress(user.getEmail())
+                .country(user.getCountry()).aboutMe(user.getAboutMe()).dob(user.getDob()).contactNumber(user.getContactNumber());
+        final HttpHeaders headers = new HttpHeaders();
+        headers.setETag(eTag);
+        return new ResponseEntity<UserDetailsResponse>(userDetailsResponse, headers, HttpStatus.OK);
+    }
+}
@@ -0,0 +1,29 @@
+package com.upgrad.quora.api.controller;
+
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+
+/**
+ * EntityTags builds the strong ETags of the read endpoints from the version of the resource, without looking at the body.
+ * The variant covers the request parameters which select a different body for the same version, such as the page cursor.
+ */
+final class EntityTags {
+
+    private EntityTags() {
+    }
+
+    /**
+     * @param resource - name of the resource, e.g. "questions"
+     * @param version  - version of the resource, read before the body is loaded
+     * @param variant  - request parameters which change the body, null for absent parameters
+     * @return - quoted strong entity tag
+     */
+    static String of(final String resource, final long version, final Object... variant) {
+        final CRC32 crc = new CRC32();
+        for (final Object part : variant) {
+            crc.update(String.valueOf(part).getBytes(StandardCharsets.UTF_8));
+            crc.update(0);
+        }
+        return "\"" + resource + "-" + version + "-" + Long.toHexString(crc.getValue()) + "\"";
+    }
+}
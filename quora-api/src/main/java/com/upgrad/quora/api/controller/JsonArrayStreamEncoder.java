@@ -0,0 +1,48 @@
+package com.upgrad.quora.api.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * This class is the reactive counterpart of JsonArrayStreamWriter: it encodes a Flux as a JSON array, one buffer per element,
+ * so that an element is only read from the database once the client has taken the previous ones.
+ * The opening bracket is written together with the first element, which leaves the response uncommitted for the
+ * exception handler if the request is rejected before any row has been read.
+ */
+final class JsonArrayStreamEncoder {
+
+    private static final byte[] EMPTY_ARRAY = "[]".getBytes(StandardCharsets.UTF_8);
+
+    private static final byte[] END_ARRAY = "]".getBytes(StandardCharsets.UTF_8);
+
+    private JsonArrayStreamEncoder() {
+    }
+
+    static Flux<DataBuffer> encode(final ObjectMapper objectMapper, final Flux<?> elements) {
+        return Flux.defer(() -> {
+            final AtomicBoolean started = new AtomicBoolean();
+            return elements.map(element -> toBuffer(objectMapper, started.getAndSet(true) ? ',' : '[', element))
+                    .concatWith(Mono.fromSupplier(() -> DefaultDataBufferFactory.sharedInstance.wrap(started.get() ? END_ARRAY : EMPTY_ARRAY)));
+        });
+    }
+
+    private static DataBuffer toBuffer(final ObjectMapper objectMapper, final char separator, final Object element) {
+        final byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(element);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize " + element.getClass().getSimpleName(), e);
+        }
+        final DataBuffer buffer = DefaultDataBufferFactory.sharedInstance.allocateBuffer(json.length + 1);
+        buffer.write((byte) separator);
+        buffer.write(json);
+        return buffer;
+    }
+}
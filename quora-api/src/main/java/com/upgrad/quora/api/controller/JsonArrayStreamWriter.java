@@ -0,0 +1,70 @@
+package com.upgrad.quora.api.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.upgrad.quora.service.common.RequestTimings;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * This class writes a JSON array to the servlet response one element at a time through Jackson's streaming generator,
+ * so that a bulk listing never has to be held in memory.
+ * Nothing is written before the first element, which leaves the response uncommitted for the exception handler
+ * if the request is rejected before any row has been read.
+ * The time spent writing the elements is added to the serialization phase of the request, the reads in between are not.
+ */
+class JsonArrayStreamWriter {
+
+    private static final int FLUSH_INTERVAL = 500;
+
+    private final ObjectMapper objectMapper;
+    private final HttpServletResponse response;
+    private JsonGenerator generator;
+    private int written;
+
+    JsonArrayStreamWriter(final ObjectMapper objectMapper, final HttpServletResponse response) {
+        this.objectMapper = objectMapper;
+        this.response = response;
+    }
+
+    /**
+     * This method serializes one element of the array. IO errors are rethrown unchecked, as they happen inside a row callback.
+     */
+    void write(final Object element) {
+        final long startNanos = System.nanoTime();
+        try {
+            start();
+            generator.writeObject(element);
+            if (++written % FLUSH_INTERVAL == 0) {
+                generator.flush();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            RequestTimings.addSerialization(System.nanoTime() - startNanos);
+        }
+    }
+
+    /**
+     * This method closes the array, writing an empty one if no element was written.
+     * It is only called after the listing completed, so that a rejected request does not turn into an empty 200 response.
+     */
+    void finish() throws IOException {
+        start();
+        generator.writeEndArray();
+        generator.close();
+    }
+
+    private void start() throws IOException {
+        if (generator == null) {
+            response.setStatus(HttpStatus.OK.value());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            generator = objectMapper.getFactory().createGenerator(response.getOutputStream());
+            generator.writeStartArray();
+        }
+    }
+}
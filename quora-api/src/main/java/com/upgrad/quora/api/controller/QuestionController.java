@@ -0,0 +1,130 @@
+package com.upgrad.quora.api.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.upgrad.quora.api.model.QuestionDetailsResponse;
+import com.upgrad.quora.service.business.Page;
+import com.upgrad.quora.service.business.QuestionBusinessService;
+import com.upgrad.quora.service.entity.QuestionEntity;
+import com.upgrad.quora.service.exception.AuthorizationFailedException;
+import com.upgrad.quora.service.exception.InvalidCursorException;
+import com.upgrad.quora.service.exception.UserNotFoundException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This controller serves the question endpoints of question.json.
+ */
+@RestController
+@RequestMapping("/")
+public class QuestionController {
+
+    static final String NEXT_CURSOR_HEADER = "next-cursor";
+
+    static final String SEARCH_TRUNCATED_HEADER = "search-truncated";
+
+    @Autowired
+    private QuestionBusinessService questionBusinessService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * This method returns one page of all the questions, newest first.
+     * The cursor of the next page is returned in the "next-cursor" header and is absent on the last page.
+     * A request whose If-None-Match matches the version of the questions gets a 304 without the page being loaded.
+     */
+    @RequestMapping(method = RequestMethod.GET, path = "/question/all", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<QuestionDetailsResponse>> getAllQuestions(@RequestHeader("authorization") final String authorization,
+                                                                         @RequestParam(value = "limit", required = false) final Integer limit,
+                                                                         @RequestParam(value = "cursor", required = false) final String cursor,
+                                                                         final WebRequest webRequest)
+            throws AuthorizationFailedException, InvalidCursorException {
+        final String eTag = EntityTags.of("questions", questionBusinessService.getAllQuestionsVersion(authorization), limit, cursor);
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+        final Page<QuestionEntity> page = questionBusinessService.getAllQuestions(authorization, cursor, limit);
+        return toResponse(page, eTag);
+    }
+
+    /**
+     * This method streams all the questions in one response when "stream=true" is passed, for admin exports and internal consumers.
+     * Rows are read from a database cursor and serialized one by one, so memory use does not grow with the number of questions.
+     */
+    @RequestMapping(method = RequestMethod.GET, path = "/question/all", params = "stream=true", produces = MediaType.APPLICATION_JSON_VALUE)
+    public void streamAllQuestions(@RequestHeader("authorization") final String authorization, final HttpServletResponse response)
+            throws AuthorizationFailedException, IOException {
+        final JsonArrayStreamWriter writer = new JsonArrayStreamWriter(objectMapper, response);
+        final QuestionDetailsResponse questionDetailsResponse = new QuestionDetailsResponse();
+        questionBusinessService.streamAllQuestions(authorization,
+                (uuid, content, answerCount, lastAnswerAt) -> writer.write(questionDetailsResponse.id(uuid).content(content)
+                        .answerCount(answerCount).lastAnswerAt(lastAnswerAt == null ? null : lastAnswerAt.toOffsetDateTime())));
+        writer.finish();
+    }
+
+    /**
+     * This method returns one page of the questions posted by the user, newest first.
+     * The cursor of the next page is returned in the "next-cursor" header and is absent on the last page.
+     * A request whose If-None-Match matches the version of the questions gets a 304 without the page being loaded.
+     */
+    @RequestMapping(method = RequestMethod.GET, path = "/question/all/{userId}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<QuestionDetailsResponse>> getAllQuestionsByUser(@RequestHeader("authorization") final String authorization,
+                                                                               @PathVariable("userId") final String userId,
+                                                                               @RequestParam(value = "limit", required = false) final Integer limit,
+                                                                               @RequestParam(value = "cursor", required = false) final String cursor,
+                                                                               final WebRequest webRequest)
+            throws AuthorizationFailedException, UserNotFoundException, InvalidCursorException {
+        final String eTag = EntityTags.of("user-questions", questionBusinessService.getAllQuestionsByUserVersion(authorization, userId),
+                userId, limit, cursor);
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+        final Page<QuestionEntity> page = questionBusinessService.getAllQuestionsByUser(authorization, userId, cursor, limit);
+        return toResponse(page, eTag);
+    }
+
+    /**
+     * This method returns one page of the questions whose content matches the search text, best match first.
+     * The cursor of the next page is returned in the "next-cursor" header and is absent on the last page.
+     * The "search-truncated" header is set when the search text has more matches than are ranked, so some of them are missing.
+     */
+    @RequestMapping(method = RequestMethod.GET, path = "/question/search", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<QuestionDetailsResponse>> searchQuestions(@RequestHeader("authorization") final String authorization,
+                                                                         @RequestParam("q") final String q,
+                                                                         @RequestParam(value = "limit", required = false) final Integer limit,
+                                                                         @RequestParam(value = "cursor", required = false) final String cursor)
+            throws AuthorizationFailedException, InvalidCursorException {
+        final Page<QuestionEntity> page = questionBusinessService.searchQuestions(authorization, q, cursor, limit);
+        return toResponse(page, null);
+    }
+
+    private static ResponseEntity<List<QuestionDetailsResponse>> toResponse(final Page<QuestionEntity> page, final String eTag) {
+        final List<QuestionDetailsResponse> questionDetailsResponses = new ArrayList<>(page.getItems().size());
+        for (final QuestionEntity question : page.getItems()) {
+            questionDetailsResponses.add(new QuestionDetailsResponse().id(question.getUuid()).content(question.getContent())
+                    .answerCount(question.getAnswerCount())
+                    .lastAnswerAt(question.getLastAnswerAt() == null ? null : question.getLastAnswerAt().toOffsetDateTime()));
+        }
+        final HttpHeaders headers = new HttpHeaders();
+        if (page.getNext() != null) {
+            headers.add(NEXT_CURSOR_HEADER, page.getNext());
+        }
+        if (page.isTruncated()) {
+            headers.add(SEARCH_TRUNCATED_HEADER, Boolean.TRUE.toString());
+        }
+        if (eTag != null) {
+            headers.setETag(eTag);
+        }
+        return new ResponseEntity<List<QuestionDetailsResponse>>(questionDetailsResponses, headers, HttpStatus.OK);
+    }
+}
@@ -0,0 +1,176 @@
+package com.upgrad.quora.api.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.upgrad.quora.api.model.AnswerDetailsResponse;
+import com.upgrad.quora.api.model.QuestionDetailsResponse;
+import com.upgrad.quora.api.model.UserDetailsResponse;
+import com.upgrad.quora.service.business.Page;
+import com.upgrad.quora.service.business.ReactiveReadService;
+import com.upgrad.quora.service.entity.QuestionEntity;
+import com.upgrad.quora.service.entity.UserEntity;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This handler serves the read endpoints of question.json, answer.json and common.json on the reactive server, with the
+ * same paths, parameters, headers and swagger models as QuestionController, AnswerController and CommonController.
+ * Answers and the stream=true export of the questions are written as a JSON array one element at a time, and the next rows
+ * are only fetched from the database as the client reads the response.
+ */
+@Component
+@ConditionalOnProperty(prefix = "quora.reactive", name = "enabled", havingValue = "true")
+public class ReactiveReadHandler {
+
+    private static final String AUTHORIZATION_HEADER = "authorization";
+
+    @Autowired
+    private ReactiveReadService reactiveReadService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * This method returns one page of all the questions, or streams all of them when "stream=true" is passed.
+     */
+    public Mono<ServerResponse> getAllQuestions(final ServerRequest request) {
+        final String authorization = authorization(request);
+        if ("true".equals(request.queryParam("stream").orElse(null))) {
+            final Flux<QuestionDetailsResponse> questions = reactiveReadService.streamAllQuestions(authorization)
+                    .map(ReactiveReadHandler::toQuestionDetailsResponse);
+            return ServerResponse.ok().contentType(MediaType.APPLICATION_JSON)
+                    .body(BodyInserters.fromDataBuffers(JsonArrayStreamEncoder.encode(objectMapper, questions)));
+        }
+        final Integer limit = limit(request);
+        final String cursor = request.queryParam("cursor").orElse(null);
+        return reactiveReadService.getAllQuestionsVersion(authorization)
+                .map(version -> EntityTags.of("questions", version, limit, cursor))
+                .flatMap(eTag -> isNotModified(request, eTag) ? notModified(eTag)
+                        : reactiveReadService.getAllQuestions(authorization, cursor, limit).flatMap(page -> toResponse(page, eTag)));
+    }
+
+    /**
+     * This method returns one page of the questions posted by the user, newest first.
+     */
+    public Mono<ServerResponse> getAllQuestionsByUser(final ServerRequest request) {
+        final String authorization = authorization(request);
+        final String userId = request.pathVariable("userId");
+        final Integer limit = limit(request);
+        final String cursor = request.queryParam("cursor").orElse(null);
+        return reactiveReadService.getAllQuestionsByUserVersion(authorization, userId)
+                .map(version -> EntityTags.of("user-questions", version, userId, limit, cursor))
+                .flatMap(eTag -> isNotModified(request, eTag) ? notModified(eTag)
+                        : reactiveReadService.getAllQuestionsByUser(authorization, userId, cursor, limit).flatMap(page -> toResponse(page, eTag)));
+    }
+
+    /**
+     * This method streams all the answers posted to the question. The stream=true parameter of the servlet endpoint is
+     * accepted but makes no difference, as the answers are always streamed here.
+     */
+    public Mono<ServerResponse> getAllAnswersToQuestion(final ServerRequest request) {
+        final String authorization = authorization(request);
+        final String questionId = request.pathVariable("questionId");
+        return reactiveReadService.getAllAnswersToQuestionVersion(authorization, questionId)
+                .map(version -> EntityTags.of("answers", version, questionId))
+                .flatMap(eTag -> {
+                    if (isNotModified(request, eTag)) {
+                        return notModified(eTag);
+                    }
+                    final Flux<AnswerDetailsResponse> answers = reactiveReadService.getAllAnswersToQuestion(authorization, questionId)
+                            .map(answer -> new AnswerDetailsResponse().id(answer.getUuid())
+                                    .questionContent(answer.getQuestion().getContent()).answerContent(answer.getAns()));
+                    return ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).eTag(eTag)
+                            .body(BodyInserters.fromDataBuffers(JsonArrayStreamEncoder.encode(objectMapper, answers)));
+                });
+    }
+
+    /**
+     * This method returns the details of the user.
+     */
+    public Mono<ServerResponse> getUser(final ServerRequest request) {
+        final String authorization = authorization(request);
+        final String userId = request.pathVariable("userId");
+        return reactiveReadService.getUserVersion(authorization, userId)
+                .map(version -> EntityTags.of("user", version, userId))
+                .flatMap(eTag -> isNotModified(request, eTag) ? notModified(eTag)
+                        : reactiveReadService.getUser(authorization, userId).flatMap(user ->
+                        ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).eTag(eTag).bodyValue(toUserDetailsResponse(user))));
+    }
+
+    private static Mono<ServerResponse> toResponse(final Page<QuestionEntity> page, final String eTag) {
+        final List<QuestionDetailsResponse> questionDetailsResponses = new ArrayList<>(page.getItems().size());
+        for (final QuestionEntity question : page.getItems()) {
+            questionDetailsResponses.add(toQuestionDetailsResponse(question));
+        }
+        return ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).eTag(eTag)
+                .headers(headers -> {
+                    if (page.getNext() != null) {
+                        headers.add(QuestionController.NEXT_CURSOR_HEADER, page.getNext());
+                    }
+                })
+                .bodyValue(questionDetailsResponses);
+    }
+
+    private static QuestionDetailsResponse toQuestionDetailsResponse(final QuestionEntity question) {
+        return new QuestionDetailsResponse().id(question.getUuid()).content(question.getContent())
+                .answerCount(question.getAnswerCount())
+                .lastAnswerAt(question.getLastAnswerAt() == null ? null : question.getLastAnswerAt().toOffsetDateTime());
+    }
+
+    private static UserDetailsResponse toUserDetailsResponse(final UserEntity user) {
+        return new UserDetailsResponse().firstName(user.getFirstName())
+                .lastName(user.getLastName()).userName(user.getUserName()).emailAddress(user.getEmail())
+                .country(user.getCountry()).aboutMe(user.getAboutMe()).dob(user.getDob()).contactNumber(user.getContactNumber());
+    }
+
+    /**
+     * The authorization header is required like @RequestHeader("authorization") of the servlet controllers; a missing one
+     * is treated as an unknown access token.
+     */
+    private static String authorization(final ServerRequest request) {
+        final String authorization = request.headers().firstHeader(AUTHORIZATION_HEADER);
+        return authorization == null ? "" : authorization;
+    }
+
+    private static Integer limit(final ServerRequest request) {
+        final String limit = request.queryParam("limit").orElse(null);
+        if (limit == null) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(limit);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * This method compares the If-None-Match header with the entity tag like WebRequest.checkNotModified() of the servlet controllers.
+     */
+    private static boolean isNotModified(final ServerRequest request, final String eTag) {
+        for (final String ifNoneMatch : request.headers().header(HttpHeaders.IF_NONE_MATCH)) {
+            for (final String candidate : ifNoneMatch.split(",")) {
+                final String tag = candidate.trim();
+                if (tag.equals("*") || tag.equals(eTag) || tag.equals("W/" + eTag)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static Mono<ServerResponse> notModified(final String eTag) {
+        return ServerResponse.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+    }
+}
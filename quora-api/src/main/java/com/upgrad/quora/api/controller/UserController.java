@@ -0,0 +1,112 @@
+package com.upgrad.quora.api.controller;
+
+import com.upgrad.quora.api.model.SigninResponse;
+import com.upgrad.quora.api.model.SignoutResponse;
+import com.upgrad.quora.api.model.SignupUserRequest;
+import com.upgrad.quora.api.model.SignupUserResponse;
+import com.upgrad.quora.service.business.UserAuthBusinessService;
+import com.upgrad.quora.service.business.UserBusinessService;
+import com.upgrad.quora.service.entity.UserAuthEntity;
+import com.upgrad.quora.service.entity.UserEntity;
+import com.upgrad.quora.service.exception.AuthenticationFailedException;
+import com.upgrad.quora.service.exception.ServiceUnavailableException;
+import com.upgrad.quora.service.exception.SignOutRestrictedException;
+import com.upgrad.quora.service.exception.SignUpRestrictedException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * This controller serves the endpoints of user.json.
+ */
+@RestController
+@RequestMapping("/")
+public class UserController {
+
+    private static final String BASIC_PREFIX = "Basic ";
+
+    private static final String ACCESS_TOKEN_HEADER = "access-token";
+
+    @Autowired
+    private UserBusinessService userBusinessService;
+
+    @Autowired
+    private UserAuthBusinessService userAuthBusinessService;
+
+    /**
+     * This method registers a new user. The Location header points to the profile of the user.
+     */
+    @RequestMapping(method = RequestMethod.POST, path = "/user/signup", consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<SignupUserResponse> signup(@RequestBody final SignupUserRequest signupUserRequest)
+            throws SignUpRestrictedException, ServiceUnavailableException {
+        final UserEntity userEntity = new UserEntity();
+        userEntity.setFirstName(signupUserRequest.getFirstName());
+        userEntity.setLastName(signupUserRequest.getLastName());
+        userEntity.setUserName(signupUserRequest.getUserName());
+        userEntity.setEmail(signupUserRequest.getEmailAddress());
+        userEntity.setPassword(signupUserRequest.getPassword());
+        userEntity.setCountry(signupUserRequest.getCountry());
+        userEntity.setAboutMe(signupUserRequest.getAboutMe());
+        userEntity.setDob(signupUserRequest.getDob());
+        userEntity.setContactNumber(signupUserRequest.getContactNumber());
+
+        final UserEntity user = userBusinessService.signup(userEntity);
+        final SignupUserResponse signupUserResponse = new SignupUserResponse().id(user.getUuid()).status("USER SUCCESSFULLY REGISTERED");
+        final HttpHeaders headers = new HttpHeaders();
+        headers.setLocation(ServletUriComponentsBuilder.fromCurrentContextPath().path("/userprofile/{userId}")
+                .buildAndExpand(user.getUuid()).toUri());
+        return new ResponseEntity<SignupUserResponse>(signupUserResponse, headers, HttpStatus.CREATED);
+    }
+
+    /**
+     * This method signs the user in with the username and password of the Basic authorization header.
+     * The access token of the new session is returned in the access-token header.
+     */
+    @RequestMapping(method = RequestMethod.POST, path = "/user/signin", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<SigninResponse> signin(@RequestHeader("authorization") final String authorization)
+            throws AuthenticationFailedException, ServiceUnavailableException {
+        final String[] credentials = decodeBasicAuthorization(authorization);
+        final UserAuthEntity userAuthEntity = userBusinessService.signin(credentials[0], credentials[1]);
+        final SigninResponse signinResponse = new SigninResponse().id(userAuthEntity.getUser().getUuid()).message("SIGNED IN SUCCESSFULLY");
+        final HttpHeaders headers = new HttpHeaders();
+        headers.add(ACCESS_TOKEN_HEADER, userAuthEntity.getAccessToken());
+        return new ResponseEntity<SigninResponse>(signinResponse, headers, HttpStatus.OK);
+    }
+
+    /**
+     * This method signs the user out of the session of the access token.
+     */
+    @RequestMapping(method = RequestMethod.POST, path = "/user/signout", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<SignoutResponse> signout(@RequestHeader("authorization") final String authorization)
+            throws SignOutRestrictedException {
+        final UserEntity user = userAuthBusinessService.signout(authorization);
+        final SignoutResponse signoutResponse = new SignoutResponse().id(user.getUuid()).message("SIGNED OUT SUCCESSFULLY");
+        return new ResponseEntity<SignoutResponse>(signoutResponse, HttpStatus.OK);
+    }
+
+    /**
+     * @return - [0] username [1] password of the Basic authorization header
+     * @throws AuthenticationFailedException - ATH-001 if the header cannot be decoded
+     */
+    private static String[] decodeBasicAuthorization(final String authorization) throws AuthenticationFailedException {
+        final String encoded = authorization.startsWith(BASIC_PREFIX) ? authorization.substring(BASIC_PREFIX.length()) : authorization;
+        try {
+            final String decoded = new String(Base64.getDecoder().decode(encoded.trim()), StandardCharsets.UTF_8);
+            final int separator = decoded.indexOf(':');
+            if (separator > 0) {
+                return new String[]{decoded.substring(0, separator), decoded.substring(separator + 1)};
+            }
+        } catch (IllegalArgumentException e) {
+            // not base64, rejected below like a missing username
+        }
+        throw new AuthenticationFailedException("ATH-001", "This username does not exist");
+    }
+}
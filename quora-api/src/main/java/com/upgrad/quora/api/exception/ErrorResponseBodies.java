@@ -0,0 +1,85 @@
+package com.upgrad.quora.api.exception;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.upgrad.quora.api.model.ErrorResponse;
+import com.upgrad.quora.service.common.GenericErrorCode;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ErrorResponseBodies holds the ErrorResponse of every error code and message serialized once, so that a rejected request
+ * is answered with a ready-made byte body instead of going through the ObjectMapper.
+ * The generic error codes are serialized on startup and the others the first time they are returned. The codes and
+ * messages of the service exceptions are a small fixed set; the cache stops growing after MAX_CACHED_BODIES bodies, which
+ * only messages with variable parts, such as those of GEN-004, can reach.
+ */
+@Component
+public class ErrorResponseBodies {
+
+    private static final int MAX_CACHED_BODIES = 1024;
+
+    private final ObjectMapper objectMapper;
+
+    private final ConcurrentMap<String, ConcurrentMap<String, byte[]>> bodiesByCode = new ConcurrentHashMap<>();
+
+    private final AtomicInteger cachedBodies = new AtomicInteger();
+
+    @Autowired
+    public ErrorResponseBodies(final ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        for (final GenericErrorCode errorCode : GenericErrorCode.values()) {
+            body(errorCode.getCode(), errorCode.getDefaultMessage());
+        }
+    }
+
+    /**
+     * @return - JSON of the ErrorResponse with the code and message
+     */
+    public byte[] body(final String code, final String message) {
+        Map<String, byte[]> bodies = bodiesByCode.get(code);
+        if (bodies == null) {
+            bodies = bodiesByCode.computeIfAbsent(code, c -> new ConcurrentHashMap<>());
+        }
+        final String key = message == null ? "" : message;
+        final byte[] body = bodies.get(key);
+        if (body != null) {
+            return body;
+        }
+        final byte[] serialized = serialize(code, message);
+        if (cachedBodies.get() < MAX_CACHED_BODIES && bodies.putIfAbsent(key, serialized) == null) {
+            cachedBodies.incrementAndGet();
+        }
+        return serialized;
+    }
+
+    /**
+     * @return - response with the ErrorResponse of the code and message as its JSON body
+     */
+    public ResponseEntity<byte[]> response(final HttpStatus status, final String code, final String message) {
+        return response(status, new HttpHeaders(), code, message);
+    }
+
+    public ResponseEntity<byte[]> response(final HttpStatus status, final HttpHeaders headers, final String code, final String message) {
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        return new ResponseEntity<byte[]>(body(code, message), headers, status);
+    }
+
+    private byte[] serialize(final String code, final String message) {
+        try {
+            return objectMapper.writeValueAsBytes(new ErrorResponse().code(code).message(message));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
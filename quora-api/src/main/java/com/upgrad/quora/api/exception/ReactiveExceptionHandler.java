@@ -0,0 +1,71 @@
+package com.upgrad.quora.api.exception;
+
+import com.upgrad.quora.service.common.GenericErrorCode;
+import com.upgrad.quora.service.exception.AuthorizationFailedException;
+import com.upgrad.quora.service.exception.InvalidCursorException;
+import com.upgrad.quora.service.exception.InvalidQuestionException;
+import com.upgrad.quora.service.exception.UserNotFoundException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebExceptionHandler;
+import reactor.core.publisher.Mono;
+
+/**
+ * This class maps the errors of the reactive read API to the ErrorResponse of the swagger specs, with the same status codes
+ * as RestExceptionHandler. Errors raised after the response has been committed, e.g. in the middle of a streamed array,
+ * can only abort the connection. The bodies are the pre-serialized ones of ErrorResponseBodies.
+ */
+public class ReactiveExceptionHandler implements WebExceptionHandler {
+
+    private static final String RETRY_AFTER_SECONDS = "1";
+
+    private final ErrorResponseBodies errorResponseBodies;
+
+    public ReactiveExceptionHandler(final ErrorResponseBodies errorResponseBodies) {
+        this.errorResponseBodies = errorResponseBodies;
+    }
+
+    @Override
+    public Mono<Void> handle(final ServerWebExchange exchange, final Throwable ex) {
+        final ServerHttpResponse response = exchange.getResponse();
+        if (response.isCommitted()) {
+            return Mono.error(ex);
+        }
+        if (ex instanceof AuthorizationFailedException) {
+            final AuthorizationFailedException exe = (AuthorizationFailedException) ex;
+            return write(response, HttpStatus.FORBIDDEN, exe.getCode(), exe.getErrorMessage());
+        }
+        if (ex instanceof UserNotFoundException) {
+            final UserNotFoundException exe = (UserNotFoundException) ex;
+            return write(response, HttpStatus.NOT_FOUND, exe.getCode(), exe.getErrorMessage());
+        }
+        if (ex instanceof InvalidQuestionException) {
+            final InvalidQuestionException exe = (InvalidQuestionException) ex;
+            return write(response, HttpStatus.NOT_FOUND, exe.getCode(), exe.getErrorMessage());
+        }
+        if (ex instanceof InvalidCursorException) {
+            final InvalidCursorException exe = (InvalidCursorException) ex;
+            return write(response, HttpStatus.BAD_REQUEST, exe.getCode(), exe.getErrorMessage());
+        }
+        // no R2DBC connection within the acquire timeout of the pool, or the database could not be reached
+        if (ex instanceof TransientDataAccessException || ex instanceof DataAccessResourceFailureException) {
+            response.getHeaders().add(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS);
+            return write(response, HttpStatus.SERVICE_UNAVAILABLE,
+                    GenericErrorCode.GEN_002.getCode(), GenericErrorCode.GEN_002.getDefaultMessage());
+        }
+        return Mono.error(ex);
+    }
+
+    private Mono<Void> write(final ServerHttpResponse response, final HttpStatus status, final String code, final String message) {
+        final byte[] body = errorResponseBodies.body(code, message);
+        response.setStatusCode(status);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        response.getHeaders().setContentLength(body.length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    }
+}
@@ -0,0 +1,122 @@
+package com.upgrad.quora.api.exception;
+
+import com.upgrad.quora.service.common.GenericErrorCode;
+import com.upgrad.quora.service.common.UnexpectedException;
+import com.upgrad.quora.service.exception.AuthenticationFailedException;
+import com.upgrad.quora.service.exception.AuthorizationFailedException;
+import com.upgrad.quora.service.exception.InvalidCursorException;
+import com.upgrad.quora.service.exception.InvalidQuestionException;
+import com.upgrad.quora.service.exception.ServiceUnavailableException;
+import com.upgrad.quora.service.exception.SignOutRestrictedException;
+import com.upgrad.quora.service.exception.SignUpRestrictedException;
+import com.upgrad.quora.service.exception.UserNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.context.request.WebRequest;
+
+import java.sql.SQLTransientConnectionException;
+
+/**
+ * This class maps the exceptions thrown by the service layer to the ErrorResponse of the swagger specs.
+ * The bodies are written from the pre-serialized ErrorResponseBodies, so that rejecting a request costs next to nothing.
+ */
+@ControllerAdvice
+public class RestExceptionHandler {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RestExceptionHandler.class);
+
+    private static final String RETRY_AFTER_SECONDS = "1";
+
+    @Autowired
+    private ErrorResponseBodies errorResponseBodies;
+
+    @ExceptionHandler(SignUpRestrictedException.class)
+    public ResponseEntity<byte[]> signUpRestrictedException(SignUpRestrictedException exe, WebRequest request) {
+        return errorResponseBodies.response(HttpStatus.CONFLICT, exe.getCode(), exe.getErrorMessage());
+    }
+
+    @ExceptionHandler(AuthenticationFailedException.class)
+    public ResponseEntity<byte[]> authenticationFailedException(AuthenticationFailedException exe, WebRequest request) {
+        return errorResponseBodies.response(HttpStatus.UNAUTHORIZED, exe.getCode(), exe.getErrorMessage());
+    }
+
+    @ExceptionHandler(SignOutRestrictedException.class)
+    public ResponseEntity<byte[]> signOutRestrictedException(SignOutRestrictedException exe, WebRequest request) {
+        return errorResponseBodies.response(HttpStatus.UNAUTHORIZED, exe.getCode(), exe.getErrorMessage());
+    }
+
+    @ExceptionHandler(AuthorizationFailedException.class)
+    public ResponseEntity<byte[]> authorizationFailedException(AuthorizationFailedException exe, WebRequest request) {
+        return errorResponseBodies.response(HttpStatus.FORBIDDEN, exe.getCode(), exe.getErrorMessage());
+    }
+
+    @ExceptionHandler(UserNotFoundException.class)
+    public ResponseEntity<byte[]> userNotFoundException(UserNotFoundException exe, WebRequest request) {
+        return errorResponseBodies.response(HttpStatus.NOT_FOUND, exe.getCode(), exe.getErrorMessage());
+    }
+
+    @ExceptionHandler(InvalidQuestionException.class)
+    public ResponseEntity<byte[]> invalidQuestionException(InvalidQuestionException exe, WebRequest request) {
+        return errorResponseBodies.response(HttpStatus.NOT_FOUND, exe.getCode(), exe.getErrorMessage());
+    }
+
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<byte[]> invalidCursorException(InvalidCursorException exe, WebRequest request) {
+        return errorResponseBodies.response(HttpStatus.BAD_REQUEST, exe.getCode(), exe.getErrorMessage());
+    }
+
+    /**
+     * This method returns 503 when a bounded worker pool of the service layer rejects the request, asking the client to retry.
+     */
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<byte[]> serviceUnavailableException(ServiceUnavailableException exe, WebRequest request) {
+        final HttpHeaders headers = new HttpHeaders();
+        headers.add(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS);
+        return errorResponseBodies.response(HttpStatus.SERVICE_UNAVAILABLE, headers, exe.getCode(), exe.getErrorMessage());
+    }
+
+    /**
+     * This method returns 503 when no database connection could be acquired within the connection timeout of the pool,
+     * instead of the 500 of an unexpected error, so that clients back off while the pool is saturated.
+     * The pool timeout is told apart by its SQLTransientConnectionException cause; any other failure to connect, such as a
+     * refused connection or wrong credentials, is not fixed by retrying and stays a 500.
+     */
+    @ExceptionHandler({CannotCreateTransactionException.class, CannotGetJdbcConnectionException.class})
+    public ResponseEntity<byte[]> connectionUnavailableException(RuntimeException exe, WebRequest request) {
+        if (!isPoolTimeout(exe)) {
+            LOG.error("Could not get a database connection", exe);
+            return errorResponseBodies.response(HttpStatus.INTERNAL_SERVER_ERROR,
+                    GenericErrorCode.GEN_001.getCode(), GenericErrorCode.GEN_001.getDefaultMessage());
+        }
+        final HttpHeaders headers = new HttpHeaders();
+        headers.add(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS);
+        return errorResponseBodies.response(HttpStatus.SERVICE_UNAVAILABLE, headers,
+                GenericErrorCode.GEN_002.getCode(), GenericErrorCode.GEN_002.getDefaultMessage());
+    }
+
+    /**
+     * This method returns the code and message of an UnexpectedException with a 500, such as GEN-003 and GEN-004 of the
+     * fail mode of the SQL statement inspection, so that the controller tests can tell them apart.
+     */
+    @ExceptionHandler(UnexpectedException.class)
+    public ResponseEntity<byte[]> unexpectedException(UnexpectedException exe, WebRequest request) {
+        return errorResponseBodies.response(HttpStatus.INTERNAL_SERVER_ERROR, exe.getErrorCode().getCode(), exe.getMessage());
+    }
+
+    private static boolean isPoolTimeout(final Throwable exe) {
+        for (Throwable cause = exe; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLTransientConnectionException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
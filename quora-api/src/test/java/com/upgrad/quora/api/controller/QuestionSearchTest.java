@@ -0,0 +1,76 @@
+package com.upgrad.quora.api.controller;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * These tests run the database search against the quora database set up by quora-db with quora_test.sql, with questions
+ * they add for a search term which no other question contains.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("sql-test")
+public class QuestionSearchTest {
+
+    private static final String ACCESS_TOKEN = "database_unexpired_accesstoken1";
+
+    private static final String OLDEST_MATCH_UUID = "search_test_oldest";
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${quora.search.max-ranked-matches}")
+    private int maxRankedMatches;
+
+    @After
+    public void tearDown() {
+        jdbcTemplate.update("delete from question where uuid like 'search_test_%'");
+    }
+
+    //This test case passes when the best match is found first although it is older than every other match, as long as all the matches are ranked.
+    @Test
+    public void oldestMatchIsFoundBehindNewerMatches() throws Exception {
+        jdbcTemplate.update("insert into question(uuid, content, date, user_id) values (?, 'zanzibar zanzibar zanzibar?', timestamp '2018-01-01', 1026)",
+                OLDEST_MATCH_UUID);
+        addNewerMatches(maxRankedMatches - 1);
+
+        mvc.perform(MockMvcRequestBuilders.get("/question/search?q=zanzibar").header("authorization", ACCESS_TOKEN))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].id").value(OLDEST_MATCH_UUID))
+                .andExpect(header().doesNotExist(QuestionController.SEARCH_TRUNCATED_HEADER));
+    }
+
+    //This test case passes when a search with more matches than are ranked says that its results are truncated.
+    @Test
+    public void searchWithMoreMatchesThanRankedIsTruncated() throws Exception {
+        addNewerMatches(maxRankedMatches + 1);
+
+        mvc.perform(MockMvcRequestBuilders.get("/question/search?q=zanzibar").header("authorization", ACCESS_TOKEN))
+                .andExpect(status().isOk())
+                .andExpect(header().string(QuestionController.SEARCH_TRUNCATED_HEADER, "true"))
+                .andExpect(header().exists(QuestionController.NEXT_CURSOR_HEADER));
+    }
+
+    private void addNewerMatches(final int count) {
+        jdbcTemplate.update("insert into question(uuid, content, date, user_id) select 'search_test_' || g, 'how long is a trip to zanzibar from here ' || g || '?'," +
+                " timestamp '2018-01-02' + g * interval '1 second', 1026 from generate_series(1, ?) g", count);
+    }
+}
@@ -0,0 +1,134 @@
+package com.upgrad.quora.api.controller;
+
+import com.upgrad.quora.service.business.UserAuthTokenCache;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * These tests pin the number of SQL statements of every read endpoint and of the user deletion, with the budgets of
+ * application-sql-test.yaml failing a request which goes over them. Every test starts from an empty token cache and
+ * second-level cache, which is the worst case the budgets are set for.
+ * They run against the quora database set up by quora-db with quora_test.sql, with its sessions which have not expired:
+ * an expired session is still accepted, but is never cached, so it is looked up again whenever a request checks it twice.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("sql-test")
+public class StatementBudgetTest {
+
+    private static final String SQL_STATEMENTS = "sql-statements";
+
+    private static final String UNEXPIRED_ADMIN_ACCESS_TOKEN = "database_unexpired_accesstoken";
+
+    private static final String UNEXPIRED_ACCESS_TOKEN = "database_unexpired_accesstoken1";
+
+    private static final String DELETED_USER_UUID = "sql_test_deleted_user";
+
+    private static final String USER_TO_DELETE_UUID = "sql_test_user_to_delete";
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private UserAuthTokenCache userAuthTokenCache;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Before
+    public void setUp() {
+        entityManagerFactory.getCache().evictAll();
+        userAuthTokenCache.invalidate(UNEXPIRED_ADMIN_ACCESS_TOKEN);
+        userAuthTokenCache.invalidate(UNEXPIRED_ACCESS_TOKEN);
+        jdbcTemplate.update("insert into user_deletion(user_id, user_uuid, phase) values (0, ?, 'DONE') on conflict do nothing", DELETED_USER_UUID);
+    }
+
+    @After
+    public void tearDown() throws InterruptedException {
+        jdbcTemplate.update("delete from user_deletion where user_uuid = ?", DELETED_USER_UUID);
+        // the purge of a user deleted by a test runs in the background and deletes the user row last
+        for (int i = 0; i < 50 && jdbcTemplate.queryForObject("select count(*) from users where uuid = ?", Integer.class, USER_TO_DELETE_UUID) > 0; i++) {
+            Thread.sleep(100);
+        }
+        jdbcTemplate.update("delete from user_deletion where user_uuid = ?", USER_TO_DELETE_UUID);
+    }
+
+    //This test case passes when a page of all the questions is read with the session lookup, the version of the questions and the page query.
+    @Test
+    public void getAllQuestions() throws Exception {
+        mvc.perform(MockMvcRequestBuilders.get("/question/all").header("authorization", UNEXPIRED_ACCESS_TOKEN))
+                .andExpect(status().isOk())
+                .andExpect(header().string(SQL_STATEMENTS, "3"));
+    }
+
+    //This test case passes when a page of the questions of a user is read with the session lookup, the version and the row of the user and the page query.
+    @Test
+    public void getAllQuestionsByUser() throws Exception {
+        mvc.perform(MockMvcRequestBuilders.get("/question/all/database_uuid1").header("authorization", UNEXPIRED_ACCESS_TOKEN))
+                .andExpect(status().isOk())
+                .andExpect(header().string(SQL_STATEMENTS, "4"));
+    }
+
+    //This test case passes when a page of search hits is read with the session lookup and the search query.
+    @Test
+    public void searchQuestions() throws Exception {
+        mvc.perform(MockMvcRequestBuilders.get("/question/search?q=database").header("authorization", UNEXPIRED_ACCESS_TOKEN))
+                .andExpect(status().isOk())
+                .andExpect(header().string(SQL_STATEMENTS, "2"));
+    }
+
+    //This test case passes when the answers of a question are read without loading the question or its users once per answer.
+    @Test
+    public void getAllAnswersToQuestion() throws Exception {
+        mvc.perform(MockMvcRequestBuilders.get("/answer/all/database_question_uuid").header("authorization", UNEXPIRED_ACCESS_TOKEN))
+                .andExpect(status().isOk())
+                .andExpect(header().string(SQL_STATEMENTS, "4"));
+    }
+
+    //This test case passes when the profile of a user is read with the session lookup, the version of the user and the user.
+    @Test
+    public void fetchUserDetails() throws Exception {
+        mvc.perform(MockMvcRequestBuilders.get("/userprofile/database_uuid1").header("authorization", UNEXPIRED_ACCESS_TOKEN))
+                .andExpect(status().isOk())
+                .andExpect(header().string(SQL_STATEMENTS, "3"));
+    }
+
+    //This test case passes when the progress of a user deletion is read with the admin session lookup and the deletion row.
+    @Test
+    public void getUserDeletionProgress() throws Exception {
+        mvc.perform(MockMvcRequestBuilders.get("/admin/user/" + DELETED_USER_UUID + "/deletion").header("authorization", UNEXPIRED_ADMIN_ACCESS_TOKEN))
+                .andExpect(status().isOk())
+                .andExpect(header().string(SQL_STATEMENTS, "2"));
+    }
+
+    //This test case passes when the deletion of a user hides the user, signs out its sessions and queues its purge in a fixed number of statements.
+    @Test
+    public void deleteUser() throws Exception {
+        jdbcTemplate.update("insert into users(uuid, firstname, lastname, username, email, password, salt, country, aboutme, dob, role, contactnumber)" +
+                " values (?, 'first', 'last', ?, ?, 'password', 'salt', 'India', 'about', '01-01-1990', 'nonadmin', '9999999999')",
+                USER_TO_DELETE_UUID, USER_TO_DELETE_UUID, USER_TO_DELETE_UUID + "@quora.io");
+
+        mvc.perform(MockMvcRequestBuilders.delete("/admin/user/" + USER_TO_DELETE_UUID).header("authorization", UNEXPIRED_ADMIN_ACCESS_TOKEN))
+                .andExpect(status().isOk())
+                .andExpect(header().string(SQL_STATEMENTS, "6"));
+    }
+}
@@ -0,0 +1,63 @@
+package com.upgrad.quora.api.exception;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.orm.jpa.JpaSystemException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.net.ConnectException;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class RestExceptionHandlerTest {
+
+    private final RestExceptionHandler restExceptionHandler = new RestExceptionHandler();
+
+    @Before
+    public void setUp() {
+        ReflectionTestUtils.setField(restExceptionHandler, "errorResponseBodies", new ErrorResponseBodies(new ObjectMapper()));
+    }
+
+    //This test case passes when a transaction which timed out waiting for a pooled connection is answered with 503 and Retry-After.
+    @Test
+    public void poolTimeoutOfTransactionIsServiceUnavailable() {
+        final SQLTransientConnectionException timeout = new SQLTransientConnectionException("HikariPool-1 - Connection is not available, request timed out after 2000ms.");
+        final ResponseEntity<byte[]> response = restExceptionHandler.connectionUnavailableException(
+                new CannotCreateTransactionException("Could not open JPA EntityManager for transaction", new JpaSystemException(new RuntimeException(timeout))), null);
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("1", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertTrue(new String(response.getBody(), StandardCharsets.UTF_8).contains("GEN-002"));
+    }
+
+    //This test case passes when a JDBC call which timed out waiting for a pooled connection is answered with 503.
+    @Test
+    public void poolTimeoutOfJdbcCallIsServiceUnavailable() {
+        final ResponseEntity<byte[]> response = restExceptionHandler.connectionUnavailableException(
+                new CannotGetJdbcConnectionException("Failed to obtain JDBC Connection", new SQLTransientConnectionException("timed out")), null);
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+    }
+
+    //This test case passes when a connection failure which retrying does not fix, such as a refused connection, stays a 500.
+    @Test
+    public void otherConnectionFailureIsInternalServerError() {
+        final ResponseEntity<byte[]> response = restExceptionHandler.connectionUnavailableException(
+                new CannotGetJdbcConnectionException("Failed to obtain JDBC Connection", new SQLException("Connection refused", new ConnectException())), null);
+
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+        assertNull(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertTrue(new String(response.getBody(), StandardCharsets.UTF_8).contains("GEN-001"));
+    }
+}
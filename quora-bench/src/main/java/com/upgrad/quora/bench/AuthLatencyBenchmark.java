@@ -0,0 +1,91 @@
+package com.upgrad.quora.bench;
+
+import com.upgrad.quora.service.business.AccessTokenVerifier;
+import com.upgrad.quora.service.business.JwtTokenProviderRegistry;
+import com.upgrad.quora.service.business.TokenRevocationList;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.ZonedDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This benchmark compares the per-request cost of checking an access token locally with AccessTokenVerifier
+ * against resolving it with the USER_AUTH lookup which every authorized endpoint does otherwise.
+ * The database benchmark needs the quora database created by the quora-db "setup" profile.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuthLatencyBenchmark {
+
+    private static final String USER_AUTH_QUERY =
+            "select ua.user_id, ua.expires_at, ua.logout_at, u.uuid, u.role from user_auth ua join users u on u.id = ua.user_id where ua.access_token = ?";
+
+    @State(Scope.Benchmark)
+    public static class Stateless {
+
+        private AccessTokenVerifier accessTokenVerifier;
+        private String accessToken;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            final String secret = "benchmark-server-secret";
+            final JwtTokenProviderRegistry registry = new JwtTokenProviderRegistry(secret);
+            accessTokenVerifier = new AccessTokenVerifier(registry, new TokenRevocationList());
+            final ZonedDateTime now = ZonedDateTime.now();
+            accessToken = registry.serverProvider().generateToken("database_uuid1", now, now.plusHours(8));
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Database {
+
+        @Param("jdbc:postgresql://localhost:5432/quora")
+        public String jdbcUrl;
+
+        @Param("postgres")
+        public String jdbcUser;
+
+        @Param("password")
+        public String jdbcPassword;
+
+        @Param("database_accesstoken1")
+        public String accessToken;
+
+        private Connection connection;
+        private PreparedStatement userAuthStatement;
+
+        @Setup(Level.Trial)
+        public void connect() throws SQLException {
+            connection = DriverManager.getConnection(jdbcUrl, jdbcUser, jdbcPassword);
+            userAuthStatement = connection.prepareStatement(USER_AUTH_QUERY);
+        }
+
+        @TearDown(Level.Trial)
+        public void disconnect() throws SQLException {
+            if (connection != null) {
+                connection.close();
+            }
+        }
+    }
+
+    @Benchmark
+    public String statelessVerify(final Stateless state) {
+        return state.accessTokenVerifier.verify(state.accessToken);
+    }
+
+    @Benchmark
+    public String databaseLookup(final Database state) throws SQLException {
+        state.userAuthStatement.setString(1, state.accessToken);
+        try (ResultSet rs = state.userAuthStatement.executeQuery()) {
+            return rs.next() ? rs.getString(4) : null;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.upgrad.quora.bench;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * This class compares two JMH result files written with "-rf json", typically the baseline of the previous release and
+ * the result of the current build, and prints the change of the score and of the allocation per operation of every
+ * benchmark found in both. It is run by the "compare" profile of quora-bench.
+ * A change is flagged when it is larger than the combined error margins of the two scores.
+ */
+public final class BaselineComparison {
+
+    private static final String ALLOCATION_METRIC = "gc.alloc.rate.norm";
+
+    private BaselineComparison() {
+    }
+
+    public static void main(final String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: BaselineComparison <baseline.json> <result.json>");
+            System.exit(2);
+        }
+        final Map<String, JsonNode> baseline = read(new File(args[0]));
+        final Map<String, JsonNode> result = read(new File(args[1]));
+
+        System.out.println(String.format("%-90s %14s %14s %9s %12s %12s", "Benchmark", "Baseline", "Result", "Change", "Alloc B/op", "Was B/op"));
+        for (final Map.Entry<String, JsonNode> entry : result.entrySet()) {
+            final JsonNode previous = baseline.get(entry.getKey());
+            if (previous == null) {
+                System.out.println(String.format("%-90s %14s %14.3f %9s", entry.getKey(), "-", score(entry.getValue()), "new"));
+                continue;
+            }
+            final double before = score(previous);
+            final double after = score(entry.getValue());
+            final double change = before == 0 ? 0 : (after - before) * 100 / before;
+            final double margin = error(previous) + error(entry.getValue());
+            final boolean significant = Math.abs(after - before) > margin;
+            System.out.println(String.format("%-90s %14.3f %14.3f %8.1f%%%s %12.0f %12.0f", entry.getKey(), before, after, change,
+                    significant ? "*" : " ", allocation(entry.getValue()), allocation(previous)));
+        }
+        for (final String key : baseline.keySet()) {
+            if (!result.containsKey(key)) {
+                System.out.println(String.format("%-90s %14.3f %14s %9s", key, score(baseline.get(key)), "-", "removed"));
+            }
+        }
+    }
+
+    /**
+     * This method reads a result file into a map keyed by benchmark, mode, thread count and parameters.
+     */
+    private static Map<String, JsonNode> read(final File file) throws IOException {
+        final Map<String, JsonNode> results = new LinkedHashMap<>();
+        for (final JsonNode run : new ObjectMapper().readTree(file)) {
+            final StringBuilder key = new StringBuilder(run.path("benchmark").asText().replace("com.upgrad.quora.bench.", ""))
+                    .append(' ').append(run.path("mode").asText())
+                    .append(" t=").append(run.path("threads").asInt());
+            final Iterator<Map.Entry<String, JsonNode>> params = run.path("params").fields();
+            while (params.hasNext()) {
+                final Map.Entry<String, JsonNode> param = params.next();
+                key.append(' ').append(param.getKey()).append('=').append(param.getValue().asText());
+            }
+            key.append(" (").append(run.path("primaryMetric").path("scoreUnit").asText()).append(')');
+            results.put(key.toString(), run);
+        }
+        return results;
+    }
+
+    private static double score(final JsonNode run) {
+        return run.path("primaryMetric").path("score").asDouble();
+    }
+
+    private static double error(final JsonNode run) {
+        final double error = run.path("primaryMetric").path("scoreError").asDouble();
+        return Double.isNaN(error) ? 0 : error;
+    }
+
+    /**
+     * @return - bytes allocated per operation as measured by "-prof gc", NaN if the run was not profiled
+     */
+    private static double allocation(final JsonNode run) {
+        final Iterator<Map.Entry<String, JsonNode>> metrics = run.path("secondaryMetrics").fields();
+        while (metrics.hasNext()) {
+            final Map.Entry<String, JsonNode> metric = metrics.next();
+            if (metric.getKey().endsWith(ALLOCATION_METRIC)) {
+                return metric.getValue().path("score").asDouble();
+            }
+        }
+        return Double.NaN;
+    }
+}
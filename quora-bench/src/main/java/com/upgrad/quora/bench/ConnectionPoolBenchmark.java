@@ -0,0 +1,93 @@
+package com.upgrad.quora.bench;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This load test shows how the throughput of a typical read scales with the size of the HikariCP pool, with many more
+ * request threads than connections, the way the servlet container drives the pool. The pool is configured like the
+ * spring.datasource.hikari section of quora-api; run it with e.g. "-p poolSize=4,8,16 -t 200" to match the deployment.
+ * The throughput levels off, and then drops, once the pool is larger than the database can serve in parallel; the
+ * sampled latency of the second benchmark includes the time a thread waits for a connection.
+ * The benchmark needs the quora database created by the quora-db "setup" profile.
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Threads(64)
+@Fork(1)
+public class ConnectionPoolBenchmark {
+
+    private static final String QUESTIONS_PAGE_QUERY =
+            "select id, uuid, content, date, answer_count, last_answer_at from question order by date desc, id desc limit 21";
+
+    @Param("jdbc:postgresql://localhost:5432/quora")
+    public String jdbcUrl;
+
+    @Param("postgres")
+    public String jdbcUser;
+
+    @Param("password")
+    public String jdbcPassword;
+
+    @Param({"2", "5", "10", "20", "40"})
+    public int poolSize;
+
+    private HikariDataSource dataSource;
+
+    @Setup(Level.Trial)
+    public void createPool() {
+        final HikariConfig config = new HikariConfig();
+        config.setJdbcUrl(jdbcUrl);
+        config.setUsername(jdbcUser);
+        config.setPassword(jdbcPassword);
+        config.setPoolName("bench-pool");
+        config.setMaximumPoolSize(poolSize);
+        config.setMinimumIdle(poolSize);
+        config.setConnectionTimeout(30000);
+        config.addDataSourceProperty("prepareThreshold", "5");
+        config.addDataSourceProperty("preparedStatementCacheQueries", "256");
+        config.addDataSourceProperty("preparedStatementCacheSizeMiB", "5");
+        dataSource = new HikariDataSource(config);
+    }
+
+    @TearDown(Level.Trial)
+    public void closePool() {
+        if (dataSource != null) {
+            dataSource.close();
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public int questionsPageThroughput() throws SQLException {
+        return questionsPage();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int questionsPageLatency() throws SQLException {
+        return questionsPage();
+    }
+
+    private int questionsPage() throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(QUESTIONS_PAGE_QUERY);
+             ResultSet rs = statement.executeQuery()) {
+            int rows = 0;
+            while (rs.next()) {
+                rows++;
+            }
+            return rows;
+        }
+    }
+}
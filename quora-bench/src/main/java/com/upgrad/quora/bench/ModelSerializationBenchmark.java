@@ -0,0 +1,121 @@
+package com.upgrad.quora.bench;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.upgrad.quora.api.model.AnswerDetailsResponse;
+import com.upgrad.quora.api.model.ErrorResponse;
+import com.upgrad.quora.api.model.QuestionDetailsResponse;
+import com.upgrad.quora.api.model.UserDetailsResponse;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This benchmark measures the Jackson serialization of the swagger generated response models of quora-api: a page of
+ * questions, the answers to a question, a user profile and an error body. The ObjectMapper is built by
+ * Jackson2ObjectMapperBuilder like the one of the Spring Boot auto-configuration, so dates are written as ISO-8601 strings.
+ * Run it with "-prof gc" to see the allocation per response.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ModelSerializationBenchmark {
+
+    @Param("20")
+    public int pageSize;
+
+    @Param("100")
+    public int answers;
+
+    private ObjectMapper objectMapper;
+    private ObjectWriter questionPageWriter;
+    private List<QuestionDetailsResponse> questionPage;
+    private List<AnswerDetailsResponse> answerList;
+    private UserDetailsResponse userDetails;
+    private ErrorResponse errorResponse;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        questionPageWriter = objectMapper.writerFor(objectMapper.getTypeFactory()
+                .constructCollectionType(List.class, QuestionDetailsResponse.class));
+
+        final OffsetDateTime now = OffsetDateTime.now();
+        questionPage = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            questionPage.add(new QuestionDetailsResponse().id(UUID.randomUUID().toString())
+                    .content("How do I tune the connection pool of a Spring Boot application for question " + i + "?")
+                    .answerCount(i % 7).lastAnswerAt(i % 7 == 0 ? null : now.minusMinutes(i)));
+        }
+        answerList = new ArrayList<>(answers);
+        for (int i = 0; i < answers; i++) {
+            answerList.add(new AnswerDetailsResponse().id(UUID.randomUUID().toString())
+                    .questionContent("How do I tune the connection pool of a Spring Boot application?")
+                    .answerContent("Start from twice the number of database cores and measure, answer " + i));
+        }
+        userDetails = new UserDetailsResponse().firstName("database_firstname1").lastName("database_lastname1")
+                .userName("database_username1").emailAddress("database_email1").country("database_country1")
+                .aboutMe("database_aboutme1").dob("database_dob1").contactNumber("database_contactnumber1");
+        errorResponse = new ErrorResponse().code("ATHR-001").message("User has not signed in");
+    }
+
+    @Benchmark
+    @Threads(1)
+    public byte[] questionPageSingleThread() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(questionPage);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public byte[] questionPageAllThreads() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(questionPage);
+    }
+
+    /**
+     * The writer is resolved once for the element type, like Spring MVC does for a typed List return value.
+     */
+    @Benchmark
+    @Threads(1)
+    public byte[] questionPageTypedWriterSingleThread() throws JsonProcessingException {
+        return questionPageWriter.writeValueAsBytes(questionPage);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public byte[] answerListSingleThread() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(answerList);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public byte[] answerListAllThreads() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(answerList);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public byte[] userDetailsSingleThread() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(userDetails);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public byte[] userDetailsAllThreads() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(userDetails);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public byte[] errorResponseSingleThread() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(errorResponse);
+    }
+}
@@ -0,0 +1,96 @@
+package com.upgrad.quora.bench;
+
+import com.upgrad.quora.service.business.PasswordCryptographyProvider;
+import com.upgrad.quora.service.business.PasswordVerification;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Base64;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This benchmark measures the password hashing of sign up and sign in with PasswordCryptographyProvider: the current
+ * PBKDF2 format at the given iteration counts, the legacy format still used by the accounts which have not signed in since,
+ * and the hex encoding of the derived key. Run it with "-prof gc" to see the allocation per hash.
+ */
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PasswordCryptographyBenchmark {
+
+    private static final String PASSWORD = "database_password";
+
+    @Param({"10000", "210000"})
+    public int iterations;
+
+    @Param("512")
+    public int keyLength;
+
+    private PasswordCryptographyProvider passwordCryptographyProvider;
+    private String legacySalt;
+    private String legacyPassword;
+    private byte[] derivedKey;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        passwordCryptographyProvider = new PasswordCryptographyProvider(iterations, keyLength, 0);
+        final Random random = new Random(42);
+        final byte[] salt = new byte[32];
+        random.nextBytes(salt);
+        legacySalt = Base64.getEncoder().encodeToString(salt);
+        final byte[] legacyHash = new byte[8];
+        random.nextBytes(legacyHash);
+        legacyPassword = PasswordCryptographyProvider.bytesToHex(legacyHash);
+        derivedKey = new byte[keyLength / 8];
+        random.nextBytes(derivedKey);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Threads(1)
+    public String[] encryptSingleThread() {
+        return passwordCryptographyProvider.encrypt(PASSWORD);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Threads(Threads.MAX)
+    public String[] encryptAllThreads() {
+        return passwordCryptographyProvider.encrypt(PASSWORD);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Threads(1)
+    public PasswordVerification legacyVerifySingleThread() {
+        return passwordCryptographyProvider.verify(PASSWORD, legacyPassword, legacySalt);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Threads(Threads.MAX)
+    public PasswordVerification legacyVerifyAllThreads() {
+        return passwordCryptographyProvider.verify(PASSWORD, legacyPassword, legacySalt);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @Threads(1)
+    public String bytesToHexSingleThread() {
+        return PasswordCryptographyProvider.bytesToHex(derivedKey);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @Threads(Threads.MAX)
+    public String bytesToHexAllThreads() {
+        return PasswordCryptographyProvider.bytesToHex(derivedKey);
+    }
+}
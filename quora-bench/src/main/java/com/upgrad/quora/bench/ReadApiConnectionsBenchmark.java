@@ -0,0 +1,116 @@
+package com.upgrad.quora.bench;
+
+import org.openjdk.jmh.annotations.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This load test compares the servlet read endpoints of quora-api with the reactive ones (quora.reactive.enabled) over HTTP.
+ * Every invocation keeps the given number of client connections busy with one request each, so the reported time is that
+ * of a burst and the requests counter is the throughput; requestsPerServerCore divides it by the cores available to the
+ * server, which should be pinned (e.g. with taskset or a container CPU limit) to serverCores while the benchmark runs.
+ * Start quora-api with quora.reactive.enabled=true against the quora database created by the quora-db "setup" profile,
+ * and run e.g. with "-p target=servlet,reactive -p connections=100,1000,5000". Raise the open file limit of both processes
+ * for the larger connection counts.
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 3, time = 20)
+@Fork(1)
+public class ReadApiConnectionsBenchmark {
+
+    @Param("localhost")
+    public String host;
+
+    @Param({"servlet", "reactive"})
+    public String target;
+
+    @Param("8080")
+    public int servletPort;
+
+    @Param("8081")
+    public int reactivePort;
+
+    @Param("/api/question/all?limit=20")
+    public String path;
+
+    @Param("database_accesstoken1")
+    public String accessToken;
+
+    @Param({"100", "1000"})
+    public int connections;
+
+    @Param("2")
+    public int serverCores;
+
+    private ConnectionProvider connectionProvider;
+    private HttpClient client;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        connectionProvider = ConnectionProvider.builder("bench-connections")
+                .maxConnections(connections)
+                .pendingAcquireMaxCount(-1)
+                .build();
+        final int port = "reactive".equals(target) ? reactivePort : servletPort;
+        client = HttpClient.create(connectionProvider)
+                .baseUrl("http://" + host + ":" + port)
+                .headers(headers -> headers.add("authorization", accessToken));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (connectionProvider != null) {
+            connectionProvider.disposeLater().block();
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int burst(final Counters counters) {
+        final List<Integer> statuses = Flux.range(0, connections)
+                .flatMap(i -> client.get().uri(path).responseSingle((response, body) -> {
+                    final int status = response.status().code();
+                    return body.asByteArray().map(bytes -> status).defaultIfEmpty(status);
+                }).onErrorResume(e -> Mono.just(-1)), connections)
+                .collectList()
+                .block();
+        int ok = 0;
+        for (final Integer status : statuses) {
+            if (status == 200) {
+                ok++;
+            }
+        }
+        counters.requests += ok;
+        counters.failures += statuses.size() - ok;
+        counters.requestsPerServerCore += (double) ok / serverCores;
+        return ok;
+    }
+
+    /**
+     * Counters reports the successful and failed requests as rates next to the time of the bursts.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Counters {
+
+        public long requests;
+
+        public long failures;
+
+        public double requestsPerServerCore;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            requests = 0;
+            failures = 0;
+            requestsPerServerCore = 0;
+        }
+    }
+}
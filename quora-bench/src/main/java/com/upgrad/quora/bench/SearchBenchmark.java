@@ -0,0 +1,84 @@
+package com.upgrad.quora.bench;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This benchmark measures the latency distribution of the first page of /question/search for common, medium, rare and
+ * unmatched search texts.
+ * It runs the same query as the searchQuestions named query of QuestionEntity, so the p99 of the sample reflects the GIN index plan.
+ * The benchmark needs the quora database migrated by quora-db and loaded by its "bench-dataset" profile.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class SearchBenchmark {
+
+    private static final String SEARCH_QUERY =
+            "select c.uuid, ts_rank(c.content_tsv, query) as rank, count(*) over () > ? as truncated" +
+                    " from (select q.* from question q where q.content_tsv @@ plainto_tsquery('english', ?) limit ? + 1) c," +
+                    " plainto_tsquery('english', ?) query order by rank desc, c.id desc limit ?";
+
+    @State(Scope.Thread)
+    public static class Database {
+
+        @Param("jdbc:postgresql://localhost:5432/quora")
+        public String jdbcUrl;
+
+        @Param("postgres")
+        public String jdbcUser;
+
+        @Param("password")
+        public String jdbcPassword;
+
+        @Param({"java", "garbage collector", "inverted", "inverted stemming", "zebra"})
+        public String text;
+
+        @Param("20")
+        public int limit;
+
+        // quora.search.max-ranked-matches
+        @Param("500")
+        public int maxRanked;
+
+        private Connection connection;
+        private PreparedStatement searchStatement;
+
+        @Setup(Level.Trial)
+        public void connect() throws SQLException {
+            connection = DriverManager.getConnection(jdbcUrl, jdbcUser, jdbcPassword);
+            searchStatement = connection.prepareStatement(SEARCH_QUERY);
+        }
+
+        @TearDown(Level.Trial)
+        public void disconnect() throws SQLException {
+            if (connection != null) {
+                connection.close();
+            }
+        }
+    }
+
+    @Benchmark
+    public int searchFirstPage(final Database state) throws SQLException {
+        state.searchStatement.setInt(1, state.maxRanked);
+        state.searchStatement.setString(2, state.text);
+        state.searchStatement.setInt(3, state.maxRanked);
+        state.searchStatement.setString(4, state.text);
+        state.searchStatement.setInt(5, state.limit + 1);
+        int hits = 0;
+        try (ResultSet rs = state.searchStatement.executeQuery()) {
+            while (rs.next()) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+}
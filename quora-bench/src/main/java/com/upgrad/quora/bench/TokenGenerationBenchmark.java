@@ -0,0 +1,59 @@
+package com.upgrad.quora.bench;
+
+import com.upgrad.quora.service.business.JwtTokenProvider;
+import com.upgrad.quora.service.business.JwtTokenProviderRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.ZonedDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This benchmark measures the throughput of JwtTokenProvider.generateToken on one thread and on all available threads,
+ * comparing the shared provider of the server-wide key with building a new provider per sign in, which is what
+ * JwtTokenProviderRegistry does when the tokens are signed with the password of the user.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TokenGenerationBenchmark {
+
+    private static final String SECRET = "507FF5FED1CAC746";
+
+    private JwtTokenProviderRegistry registry;
+    private ZonedDateTime issuedAt;
+    private ZonedDateTime expiresAt;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        registry = new JwtTokenProviderRegistry(SECRET);
+        issuedAt = ZonedDateTime.now();
+        expiresAt = issuedAt.plusHours(8);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public String serverProviderSingleThread() {
+        return registry.signingProvider(SECRET).generateToken("database_uuid1", issuedAt, expiresAt);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public String serverProviderAllThreads() {
+        return registry.signingProvider(SECRET).generateToken("database_uuid1", issuedAt, expiresAt);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public String providerPerSignInSingleThread() {
+        return new JwtTokenProvider(SECRET).generateToken("database_uuid1", issuedAt, expiresAt);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public String providerPerSignInAllThreads() {
+        return new JwtTokenProvider(SECRET).generateToken("database_uuid1", issuedAt, expiresAt);
+    }
+}
@@ -0,0 +1,220 @@
+package com.upgrad.quora.bench.load;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.upgrad.quora.api.model.AnswerRequest;
+import com.upgrad.quora.api.model.QuestionRequest;
+import com.upgrad.quora.api.model.SignupUserRequest;
+import org.HdrHistogram.Recorder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * LoadGenerator replays the weighted operation mix against the running application from a fixed number of client threads.
+ * Every thread sends its next request as soon as the previous response has been read (a closed loop), so the latencies are
+ * those seen by the clients at the throughput the server sustains, not at a fixed arrival rate.
+ * The users, questions and sessions of the requests are drawn with the same power law as the synthetic dataset, so the
+ * hot rows of the database are the hot rows of the workload.
+ */
+final class LoadGenerator {
+
+    private static final Logger LOG = LoggerFactory.getLogger(LoadGenerator.class);
+
+    private static final String[] SEARCH_TERMS = {"java", "postgres", "latency", "connection pool", "garbage heap", "kafka", "token", "search"};
+
+    private static final int TIMEOUT_MILLIS = 30000;
+
+    private final LoadTestSettings settings;
+    private final String baseUrl;
+    private final Map<LoadOperation, Integer> mix;
+    private final ObjectMapper objectMapper;
+
+    private final LoadOperation[] operations;
+    private final int[] cumulativeWeights;
+    private final Map<LoadOperation, Recorder> latencies = new EnumMap<>(LoadOperation.class);
+    private final Map<LoadOperation, LongAdder> errors = new EnumMap<>(LoadOperation.class);
+    private final AtomicLong signups = new AtomicLong();
+    private final long runId = System.currentTimeMillis();
+
+    private volatile boolean running = true;
+
+    /**
+     * @param settings     - settings of the load test
+     * @param baseUrl      - URL of the /api context path of the application
+     * @param mix          - weights of the operations to replay
+     * @param objectMapper - serializer of the request bodies
+     */
+    LoadGenerator(final LoadTestSettings settings, final String baseUrl, final Map<LoadOperation, Integer> mix, final ObjectMapper objectMapper) {
+        this.settings = settings;
+        this.baseUrl = baseUrl;
+        this.mix = mix;
+        this.objectMapper = objectMapper;
+        this.operations = mix.keySet().toArray(new LoadOperation[0]);
+        this.cumulativeWeights = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += mix.get(operations[i]);
+            cumulativeWeights[i] = total;
+            latencies.put(operations[i], new Recorder(3));
+            errors.put(operations[i], new LongAdder());
+        }
+    }
+
+    /**
+     * This method runs the warm-up and then the measurement, and returns the latencies recorded during the measurement.
+     */
+    LoadReport run() throws InterruptedException {
+        // HttpURLConnection keeps only http.maxConnections idle connections per host, so raise it to the number of clients
+        System.setProperty("http.maxConnections", String.valueOf(settings.threads));
+        final ExecutorService clients = Executors.newFixedThreadPool(settings.threads);
+        for (int i = 0; i < settings.threads; i++) {
+            clients.execute(this::loop);
+        }
+        LOG.info("Warming up {} clients for {} s with the mix {}", settings.threads, settings.warmupSeconds, mix);
+        TimeUnit.SECONDS.sleep(settings.warmupSeconds);
+        final Map<LoadOperation, Long> warmupErrors = new EnumMap<>(LoadOperation.class);
+        for (final LoadOperation operation : operations) {
+            latencies.get(operation).getIntervalHistogram();
+            warmupErrors.put(operation, errors.get(operation).sum());
+        }
+
+        LOG.info("Measuring for {} s", settings.durationSeconds);
+        final long start = System.nanoTime();
+        TimeUnit.SECONDS.sleep(settings.durationSeconds);
+        final LoadReport report = new LoadReport((System.nanoTime() - start) / 1e9);
+        for (final LoadOperation operation : operations) {
+            report.add(operation, latencies.get(operation).getIntervalHistogram(), errors.get(operation).sum() - warmupErrors.get(operation));
+        }
+
+        running = false;
+        clients.shutdown();
+        clients.awaitTermination(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        return report;
+    }
+
+    private void loop() {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (running) {
+            final LoadOperation operation = pick(random);
+            final long start = System.nanoTime();
+            boolean failed;
+            try {
+                failed = execute(operation, random) >= 400;
+            } catch (IOException | RuntimeException e) {
+                failed = true;
+            }
+            latencies.get(operation).recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+            if (failed) {
+                errors.get(operation).increment();
+            }
+        }
+    }
+
+    private LoadOperation pick(final ThreadLocalRandom random) {
+        final int value = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (value < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+
+    /**
+     * This method sends one request of the operation and returns its status code.
+     */
+    private int execute(final LoadOperation operation, final ThreadLocalRandom random) throws IOException {
+        final String accessToken = "load_token_" + skewed(random, settings.users);
+        switch (operation) {
+            case SIGNUP_USER:
+                final String userName = "load_signup_" + runId + "_" + signups.incrementAndGet();
+                return send("POST", "/user/signup", null, json(new SignupUserRequest().firstName("first").lastName("last")
+                        .userName(userName).emailAddress(userName + "@quora.io").password(SyntheticDataset.LOAD_PASSWORD)
+                        .country("India").aboutMe("load test user").dob("01-01-1990").contactNumber("9999999999")));
+            case SIGNIN:
+                final String credentials = "load_user_" + skewed(random, settings.users) + ":" + SyntheticDataset.LOAD_PASSWORD;
+                return send("POST", "/user/signin",
+                        "Basic " + Base64.getEncoder().encodeToString(credentials.getBytes(StandardCharsets.UTF_8)), null);
+            case CREATE_QUESTION:
+                return send("POST", "/question/create", accessToken,
+                        json(new QuestionRequest().content("Load test question asked at " + System.nanoTime() + "?")));
+            case GET_ALL_QUESTIONS:
+                return send("GET", "/question/all?limit=20", accessToken, null);
+            case GET_ALL_QUESTIONS_BY_USER:
+                return send("GET", "/question/all/load_user_" + skewed(random, settings.users) + "?limit=20", accessToken, null);
+            case SEARCH_QUESTIONS:
+                return send("GET", "/question/search?limit=20&q=" + SEARCH_TERMS[random.nextInt(SEARCH_TERMS.length)].replace(" ", "+"),
+                        accessToken, null);
+            case CREATE_ANSWER:
+                return send("POST", "/question/load_question_" + skewed(random, settings.questions()) + "/answer/create", accessToken,
+                        json(new AnswerRequest().answer("Load test answer posted at " + System.nanoTime())));
+            case GET_ALL_ANSWERS_TO_QUESTION:
+                return send("GET", "/answer/all/load_question_" + skewed(random, settings.questions()), accessToken, null);
+            case FETCH_USER_DETAILS:
+                return send("GET", "/userprofile/load_user_" + skewed(random, settings.users), accessToken, null);
+            default:
+                throw new IllegalStateException("Unsupported operation " + operation);
+        }
+    }
+
+    /**
+     * @return - number between 1 and bound, drawn with the power law of the synthetic dataset
+     */
+    private int skewed(final ThreadLocalRandom random, final int bound) {
+        return 1 + (int) (Math.pow(random.nextDouble(), settings.skew) * bound);
+    }
+
+    private byte[] json(final Object body) {
+        try {
+            return objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * This method sends the request and reads the whole response, so that the connection is kept alive for the next request.
+     */
+    private int send(final String method, final String path, final String authorization, final byte[] body) throws IOException {
+        final HttpURLConnection connection = (HttpURLConnection) new URL(baseUrl + path).openConnection();
+        connection.setRequestMethod(method);
+        connection.setConnectTimeout(TIMEOUT_MILLIS);
+        connection.setReadTimeout(TIMEOUT_MILLIS);
+        if (authorization != null) {
+            connection.setRequestProperty("authorization", authorization);
+        }
+        if (body != null) {
+            connection.setDoOutput(true);
+            connection.setRequestProperty("Content-Type", "application/json");
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(body);
+            }
+        }
+        final int status = connection.getResponseCode();
+        try (InputStream in = status >= 400 ? connection.getErrorStream() : connection.getInputStream()) {
+            if (in != null) {
+                final byte[] buffer = new byte[8192];
+                while (in.read(buffer) >= 0) {
+                    // discard
+                }
+            }
+        }
+        return status;
+    }
+}
@@ -0,0 +1,51 @@
+package com.upgrad.quora.bench.load;
+
+/**
+ * LoadOperation lists the operations of the swagger specs of quora-api which the load test can replay, by operationId.
+ */
+enum LoadOperation {
+
+    SIGNUP_USER("signupUser", "POST", "/user/signup"),
+    SIGNIN("signin", "POST", "/user/signin"),
+    CREATE_QUESTION("createQuestion", "POST", "/question/create"),
+    GET_ALL_QUESTIONS("getAllQuestions", "GET", "/question/all"),
+    GET_ALL_QUESTIONS_BY_USER("getAllQuestionsByUser", "GET", "/question/all/{userId}"),
+    SEARCH_QUESTIONS("searchQuestions", "GET", "/question/search"),
+    CREATE_ANSWER("createAnswer", "POST", "/question/{questionId}/answer/create"),
+    GET_ALL_ANSWERS_TO_QUESTION("getAllAnswersToQuestion", "GET", "/answer/all/{questionId}"),
+    FETCH_USER_DETAILS("fetchUserDetails", "GET", "/userprofile/{userId}");
+
+    private final String operationId;
+    private final String method;
+    private final String path;
+
+    LoadOperation(final String operationId, final String method, final String path) {
+        this.operationId = operationId;
+        this.method = method;
+        this.path = path;
+    }
+
+    String getOperationId() {
+        return operationId;
+    }
+
+    String getMethod() {
+        return method;
+    }
+
+    /**
+     * @return - path template of the operation in the swagger spec, relative to the /api context path
+     */
+    String getPath() {
+        return path;
+    }
+
+    static LoadOperation byOperationId(final String operationId) {
+        for (final LoadOperation operation : values()) {
+            if (operation.operationId.equals(operationId)) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Unknown operationId " + operationId);
+    }
+}
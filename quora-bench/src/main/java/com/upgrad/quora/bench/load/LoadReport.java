@@ -0,0 +1,80 @@
+package com.upgrad.quora.bench.load;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * LoadReport holds the latencies, in microseconds, and the errors of every operation measured by the load test, and prints
+ * the throughput and the p50, p99 and p99.9 latencies of each operationId as a table and as CSV.
+ */
+final class LoadReport {
+
+    private static final String HEADER = "operationId,requests,errors,throughputPerSecond,p50Millis,p99Millis,p999Millis,maxMillis";
+
+    private final double seconds;
+    private final Map<LoadOperation, Histogram> latencies = new EnumMap<>(LoadOperation.class);
+    private final Map<LoadOperation, Long> errors = new EnumMap<>(LoadOperation.class);
+
+    /**
+     * @param seconds - length of the measurement
+     */
+    LoadReport(final double seconds) {
+        this.seconds = seconds;
+    }
+
+    void add(final LoadOperation operation, final Histogram histogram, final long errorCount) {
+        latencies.put(operation, histogram);
+        errors.put(operation, errorCount);
+    }
+
+    void print(final PrintStream out) {
+        out.println(String.format(Locale.ROOT, "%-26s %10s %8s %10s %10s %10s %10s %10s",
+                "operationId", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms"));
+        final Histogram total = new Histogram(3);
+        long totalErrors = 0;
+        for (final Map.Entry<LoadOperation, Histogram> entry : latencies.entrySet()) {
+            print(out, entry.getKey().getOperationId(), entry.getValue(), errors.get(entry.getKey()));
+            total.add(entry.getValue());
+            totalErrors += errors.get(entry.getKey());
+        }
+        print(out, "total", total, totalErrors);
+    }
+
+    private void print(final PrintStream out, final String operationId, final Histogram histogram, final long errorCount) {
+        out.println(String.format(Locale.ROOT, "%-26s %10d %8d %10.1f %10.2f %10.2f %10.2f %10.2f",
+                operationId, histogram.getTotalCount(), errorCount, histogram.getTotalCount() / seconds,
+                millis(histogram, 50.0), millis(histogram, 99.0), millis(histogram, 99.9), histogram.getMaxValue() / 1000.0));
+    }
+
+    void writeCsv(final String file) throws IOException {
+        final Path path = Paths.get(file);
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            writer.write(HEADER);
+            writer.write('\n');
+            for (final Map.Entry<LoadOperation, Histogram> entry : latencies.entrySet()) {
+                final Histogram histogram = entry.getValue();
+                writer.write(String.format(Locale.ROOT, "%s,%d,%d,%.2f,%.3f,%.3f,%.3f,%.3f%n",
+                        entry.getKey().getOperationId(), histogram.getTotalCount(), errors.get(entry.getKey()),
+                        histogram.getTotalCount() / seconds, millis(histogram, 50.0), millis(histogram, 99.0),
+                        millis(histogram, 99.9), histogram.getMaxValue() / 1000.0));
+            }
+        }
+    }
+
+    private static double millis(final Histogram histogram, final double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+}
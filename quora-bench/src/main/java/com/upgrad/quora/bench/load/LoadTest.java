@@ -0,0 +1,121 @@
+package com.upgrad.quora.bench.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.upgrad.quora.api.QuoraApiApplication;
+import com.upgrad.quora.service.business.PasswordCryptographyProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import javax.sql.DataSource;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * LoadTest runs the end-to-end load test on one box: it boots QuoraApiApplication against the local Postgres of its
+ * application.yaml, fills the database with the synthetic dataset, replays the weighted operation mix over HTTP and prints
+ * the throughput and latency percentiles of every operationId.
+ * Run it through the "load-test" profile of quora-bench: mvn -pl quora-bench -am -P load-test verify
+ * <p>
+ * With -Dloadtest.thread-models=platform,virtual the application is booted once per request thread model, i.e. with Tomcat's
+ * worker pool and then with quora.virtual-threads.enabled, and the same mix is replayed against the same dataset, so that the
+ * two reports compare the thread models through the real server. The virtual thread run needs a Java 21 runtime.
+ * <p>
+ * Operations of the mix which the booted application does not map are left out with a warning, so that the same mix can be
+ * replayed against releases which implement a different subset of the swagger specs.
+ */
+public final class LoadTest {
+
+    private static final Logger LOG = LoggerFactory.getLogger(LoadTest.class);
+
+    private LoadTest() {
+    }
+
+    public static void main(final String[] args) throws Exception {
+        final LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+        final List<String> threadModels = settings.threadModels;
+        for (int i = 0; i < threadModels.size(); i++) {
+            final String threadModel = threadModels.get(i);
+            final String reportFile = threadModels.size() == 1 ? settings.reportFile : reportFile(settings.reportFile, threadModel);
+            run(settings, threadModel, settings.generate && i == 0, reportFile, args);
+        }
+    }
+
+    private static void run(final LoadTestSettings settings, final String threadModel, final boolean generate, final String reportFile,
+                            final String[] args) throws Exception {
+        // a command line argument, as the default properties of the builder would lose to application.yaml
+        final String[] runArgs = Arrays.copyOf(args, args.length + 1);
+        runArgs[args.length] = "--quora.virtual-threads.enabled=" + LoadTestSettings.VIRTUAL_THREADS.equals(threadModel);
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(QuoraApiApplication.class)
+                .properties("server.port=" + settings.port)
+                .run(runArgs)) {
+            if (generate) {
+                new SyntheticDataset(context.getBean(DataSource.class), settings, context.getBean(PasswordCryptographyProvider.class)).generate();
+            }
+
+            final Map<LoadOperation, Integer> mix = servedOperations(context, settings.mix);
+            if (mix.isEmpty()) {
+                throw new IllegalStateException("None of the operations of quora.loadtest.mix is served by the application");
+            }
+            final int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            final String contextPath = ((WebApplicationContext) context).getServletContext().getContextPath();
+            final LoadReport report = new LoadGenerator(settings, "http://localhost:" + port + contextPath, mix,
+                    context.getBean(ObjectMapper.class)).run();
+
+            System.out.println("Request thread model: " + threadModel);
+            report.print(System.out);
+            report.writeCsv(reportFile);
+            LOG.info("Wrote the load test report of the {} thread model to {}", threadModel, reportFile);
+        }
+    }
+
+    /**
+     * @return - the report file with the thread model inserted before its extension, e.g. load-test-report-virtual.csv
+     */
+    private static String reportFile(final String reportFile, final String threadModel) {
+        final int extension = reportFile.lastIndexOf('.');
+        return extension > reportFile.lastIndexOf('/') ? reportFile.substring(0, extension) + "-" + threadModel + reportFile.substring(extension)
+                : reportFile + "-" + threadModel;
+    }
+
+    /**
+     * This method keeps the operations of the mix whose path and method are mapped by a controller of the application.
+     */
+    private static Map<LoadOperation, Integer> servedOperations(final ConfigurableApplicationContext context, final Map<LoadOperation, Integer> mix) {
+        final Set<String> mappings = new HashSet<>();
+        final RequestMappingHandlerMapping handlerMapping = context.getBean("requestMappingHandlerMapping", RequestMappingHandlerMapping.class);
+        for (final RequestMappingInfo info : handlerMapping.getHandlerMethods().keySet()) {
+            final Set<RequestMethod> methods = info.getMethodsCondition().getMethods();
+            for (final String pattern : info.getPatternValues()) {
+                if (methods.isEmpty()) {
+                    mappings.add("GET " + pattern);
+                    mappings.add("POST " + pattern);
+                }
+                for (final RequestMethod method : methods) {
+                    mappings.add(method.name() + " " + pattern);
+                }
+            }
+        }
+
+        final Map<LoadOperation, Integer> served = new EnumMap<>(LoadOperation.class);
+        for (final Map.Entry<LoadOperation, Integer> entry : mix.entrySet()) {
+            final LoadOperation operation = entry.getKey();
+            if (mappings.contains(operation.getMethod() + " " + operation.getPath())) {
+                served.put(operation, entry.getValue());
+            } else {
+                LOG.warn("Skipping {}: {} {} is not mapped by the application", operation.getOperationId(), operation.getMethod(), operation.getPath());
+            }
+        }
+        return served;
+    }
+}
@@ -0,0 +1,116 @@
+package com.upgrad.quora.bench.load;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * LoadTestSettings holds the scale of the synthetic dataset and the shape of the workload, read from the quora.loadtest.*
+ * system properties which the "load-test" profile of quora-bench passes on.
+ */
+final class LoadTestSettings {
+
+    static final String PLATFORM_THREADS = "platform";
+
+    static final String VIRTUAL_THREADS = "virtual";
+
+    static final String DEFAULT_MIX = "getAllQuestions=30,getAllQuestionsByUser=12,getAllAnswersToQuestion=25,fetchUserDetails=10,"
+            + "searchQuestions=5,signin=5,signupUser=1,createQuestion=4,createAnswer=8";
+
+    final boolean generate;
+    final int users;
+    final int questionsPerUser;
+    final int answersPerQuestion;
+    final double skew;
+    final int threads;
+    final int warmupSeconds;
+    final int durationSeconds;
+    final int port;
+    final Map<LoadOperation, Integer> mix;
+    final String reportFile;
+    final List<String> threadModels;
+
+    private LoadTestSettings(final boolean generate, final int users, final int questionsPerUser, final int answersPerQuestion,
+                             final double skew, final int threads, final int warmupSeconds, final int durationSeconds, final int port,
+                             final Map<LoadOperation, Integer> mix, final String reportFile, final List<String> threadModels) {
+        this.generate = generate;
+        this.users = users;
+        this.questionsPerUser = questionsPerUser;
+        this.answersPerQuestion = answersPerQuestion;
+        this.skew = skew;
+        this.threads = threads;
+        this.warmupSeconds = warmupSeconds;
+        this.durationSeconds = durationSeconds;
+        this.port = port;
+        this.mix = mix;
+        this.reportFile = reportFile;
+        this.threadModels = threadModels;
+    }
+
+    static LoadTestSettings fromSystemProperties() {
+        return new LoadTestSettings(
+                Boolean.parseBoolean(System.getProperty("quora.loadtest.generate", "true")),
+                Integer.getInteger("quora.loadtest.users", 10000),
+                Integer.getInteger("quora.loadtest.questions-per-user", 10),
+                Integer.getInteger("quora.loadtest.answers-per-question", 5),
+                Double.parseDouble(System.getProperty("quora.loadtest.skew", "3")),
+                Integer.getInteger("quora.loadtest.threads", 64),
+                Integer.getInteger("quora.loadtest.warmup-seconds", 30),
+                Integer.getInteger("quora.loadtest.duration-seconds", 120),
+                Integer.getInteger("quora.loadtest.port", 0),
+                parseMix(System.getProperty("quora.loadtest.mix", DEFAULT_MIX)),
+                System.getProperty("quora.loadtest.report-file", "target/load-test-report.csv"),
+                parseThreadModels(System.getProperty("quora.loadtest.thread-models", PLATFORM_THREADS)));
+    }
+
+    int questions() {
+        return users * questionsPerUser;
+    }
+
+    int answers() {
+        return questions() * answersPerQuestion;
+    }
+
+    /**
+     * This method parses the weights of the operations, given as "operationId=weight" pairs separated by commas.
+     */
+    static Map<LoadOperation, Integer> parseMix(final String mix) {
+        final Map<LoadOperation, Integer> weights = new EnumMap<>(LoadOperation.class);
+        for (final String entry : mix.split(",")) {
+            if (entry.trim().isEmpty()) {
+                continue;
+            }
+            final String[] pair = entry.split("=");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Invalid entry '" + entry + "' of quora.loadtest.mix, expected operationId=weight");
+            }
+            final int weight = Integer.parseInt(pair[1].trim());
+            if (weight > 0) {
+                weights.put(LoadOperation.byOperationId(pair[0].trim()), weight);
+            }
+        }
+        return weights;
+    }
+
+    /**
+     * This method parses the request thread models of quora-api to run the load test with, separated by commas.
+     */
+    static List<String> parseThreadModels(final String threadModels) {
+        final List<String> models = new ArrayList<>();
+        for (final String model : threadModels.split(",")) {
+            final String trimmed = model.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            if (!PLATFORM_THREADS.equals(trimmed) && !VIRTUAL_THREADS.equals(trimmed)) {
+                throw new IllegalArgumentException("Invalid thread model '" + trimmed + "' of quora.loadtest.thread-models, expected platform or virtual");
+            }
+            models.add(trimmed);
+        }
+        if (models.isEmpty()) {
+            throw new IllegalArgumentException("quora.loadtest.thread-models names no thread model");
+        }
+        return models;
+    }
+}
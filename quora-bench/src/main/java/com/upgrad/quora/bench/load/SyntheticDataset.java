@@ -0,0 +1,125 @@
+package com.upgrad.quora.bench.load;
+
+import com.upgrad.quora.service.business.PasswordCryptographyProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * SyntheticDataset generates the users, sessions, questions and answers of the load test in the database of the booted
+ * application, with generate_series so that the rows never travel through the JVM.
+ * <ul>
+ * <li>Every user is "load_user_n" with the password LOAD_PASSWORD and one active session whose access token is "load_token_n".</li>
+ * <li>Questions "load_question_n" are spread over the users with a power law of exponent skew, so that a few users ask
+ * most of the questions; answers are spread over the questions the same way, so that a few questions get most of the answers.</li>
+ * </ul>
+ * Rows of a previous run are deleted first. The answer statistics and versions of the questions are maintained by the
+ * triggers of the migrations, as for answers posted through the API.
+ */
+final class SyntheticDataset {
+
+    static final String LOAD_PASSWORD = "load_password";
+
+    private static final Logger LOG = LoggerFactory.getLogger(SyntheticDataset.class);
+
+    private static final String DELETE_PREVIOUS_RUN = "delete from users where uuid like 'load\\_%'";
+
+    private static final String INSERT_USERS = "insert into users(uuid, firstname, lastname, username, email, password, salt, country, aboutme, dob, role, contactnumber)" +
+            " select 'load_user_' || g, 'first' || g, 'last' || g, 'load_user_' || g, 'load_user_' || g || '@quora.io', ?, ?," +
+            " 'India', 'load test user', '01-01-1990', 'nonadmin', '9999999999' from generate_series(1, ?) g";
+
+    private static final String INSERT_SESSIONS = "insert into user_auth(uuid, user_id, access_token, expires_at, login_at)" +
+            " select 'load_session_' || u.id, u.id, 'load_token_' || substr(u.uuid, 11), localtimestamp + interval '1 day', localtimestamp" +
+            " from users u where u.uuid like 'load\\_user\\_%'";
+
+    private static final String ID_RANGE = "select min(id) as first_id, max(id) as last_id, count(*) as rows from %s where uuid like '%s'";
+
+    private static final String VOCABULARY = "array['java', 'spring', 'postgres', 'index', 'query', 'thread', 'memory', 'cache', 'latency'," +
+            " 'transaction', 'lock', 'pool', 'connection', 'garbage', 'heap', 'jvm', 'hibernate', 'partition', 'replica', 'kubernetes'," +
+            " 'docker', 'http', 'json', 'jackson', 'stream', 'reactive', 'executor', 'kafka', 'token', 'password', 'hash', 'security'," +
+            " 'compiler', 'allocation', 'benchmark', 'profiler', 'histogram', 'percentile', 'throughput', 'search']";
+
+    private static final String INSERT_QUESTIONS = "insert into question(uuid, content, date, user_id)" +
+            " select 'load_question_' || g, 'Load test question ' || g || ': how does ' || w.a || ' affect ' || w.b || ' under load?'," +
+            " localtimestamp - random() * interval '365 days', ? + floor(power(random(), ?) * ?)::int" +
+            " from generate_series(1, ?) g," +
+            " lateral (select v[1 + floor(random() * array_length(v, 1))::int] as a, v[1 + floor(random() * array_length(v, 1))::int] as b" +
+            " from (select " + VOCABULARY + " as v) vocabulary where g > 0) w";
+
+    private static final String INSERT_ANSWERS = "insert into answer(uuid, ans, date, user_id, question_id)" +
+            " select 'load_answer_' || g, 'Load test answer ' || g || ': measure it before changing anything.'," +
+            " localtimestamp - random() * interval '365 days', ? + floor(random() * ?)::int, ? + floor(power(random(), ?) * ?)::int" +
+            " from generate_series(1, ?) g";
+
+    // the seed rows of quora_test.sql carry explicit ids, which the id sequences of their tables do not know about
+    private static final String SKIP_SEED_IDS = "select setval('%1$s_id_seq', greatest((select max(id) from %1$s), nextval('%1$s_id_seq')))";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final LoadTestSettings settings;
+    private final PasswordCryptographyProvider passwordCryptographyProvider;
+
+    SyntheticDataset(final DataSource dataSource, final LoadTestSettings settings, final PasswordCryptographyProvider passwordCryptographyProvider) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.settings = settings;
+        this.passwordCryptographyProvider = passwordCryptographyProvider;
+    }
+
+    void generate() {
+        long start = System.currentTimeMillis();
+        LOG.info("Deleting the load test rows of the previous run");
+        jdbcTemplate.update(DELETE_PREVIOUS_RUN);
+        for (final String table : new String[]{"users", "user_auth", "question", "answer"}) {
+            jdbcTemplate.queryForObject(String.format(SKIP_SEED_IDS, table), Long.class);
+        }
+
+        // every user shares one hash, computed by the provider of the application so that sign in costs what it does in production
+        final String[] saltAndHash = passwordCryptographyProvider.encrypt(LOAD_PASSWORD);
+        jdbcTemplate.update(INSERT_USERS, saltAndHash[1], saltAndHash[0], settings.users);
+        jdbcTemplate.update(INSERT_SESSIONS);
+        final IdRange users = idRange("users", "load\\_user\\_%");
+        LOG.info("Generated {} users with their sessions in {} ms", users.rows, System.currentTimeMillis() - start);
+
+        start = System.currentTimeMillis();
+        jdbcTemplate.update(INSERT_QUESTIONS, users.firstId, settings.skew, users.rows, settings.questions());
+        final IdRange questions = idRange("question", "load\\_question\\_%");
+        LOG.info("Generated {} questions in {} ms", questions.rows, System.currentTimeMillis() - start);
+
+        start = System.currentTimeMillis();
+        jdbcTemplate.update(INSERT_ANSWERS, users.firstId, users.rows, questions.firstId, settings.skew, questions.rows, settings.answers());
+        LOG.info("Generated {} answers in {} ms", settings.answers(), System.currentTimeMillis() - start);
+
+        for (final String table : new String[]{"users", "user_auth", "question", "answer"}) {
+            jdbcTemplate.execute("analyze " + table);
+        }
+    }
+
+    /**
+     * This method reads the id range of the generated rows, which the skewed picks of the next table are drawn from.
+     * Each table is filled by a single insert while the application is idle, so its ids are contiguous.
+     */
+    private IdRange idRange(final String table, final String uuidPattern) {
+        final Map<String, Object> range = jdbcTemplate.queryForMap(String.format(ID_RANGE, table, uuidPattern));
+        final IdRange idRange = new IdRange(((Number) range.get("first_id")).intValue(), ((Number) range.get("last_id")).intValue(),
+                ((Number) range.get("rows")).intValue());
+        if (idRange.lastId - idRange.firstId + 1 != idRange.rows) {
+            throw new IllegalStateException("The generated ids of " + table + " are not contiguous; run the load test against an idle database");
+        }
+        return idRange;
+    }
+
+    private static final class IdRange {
+
+        private final int firstId;
+        private final int lastId;
+        private final int rows;
+
+        private IdRange(final int firstId, final int lastId, final int rows) {
+            this.firstId = firstId;
+            this.lastId = lastId;
+            this.rows = rows;
+        }
+    }
+}
@@ -0,0 +1,3 @@
+--TokenRevocationList reads the sessions signed out since its previous refresh every few seconds on every node.
+--Only signed out sessions are indexed, so the index stays small while most sessions simply expire.
+CREATE INDEX IF NOT EXISTS USER_AUTH_LOGOUT_AT_IDX ON USER_AUTH(logout_at) WHERE logout_at IS NOT NULL;
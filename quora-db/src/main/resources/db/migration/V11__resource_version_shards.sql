@@ -0,0 +1,27 @@
+--The collection version of V8 was a single RESOURCE_VERSION row, which every statement on QUESTION updated, including the
+--answer statistics update of every answer created or deleted. Every write of the system thus waited for the row lock held by
+--the previous writer until its commit. The version is now the sum of 16 counters, and each bump only updates the counter of
+--the shard of its database session, so concurrent writers on different pooled connections rarely meet on the same row.
+--The sum grows with every bump, like the single counter did, so the ETags derived from it stay valid.
+CREATE TABLE IF NOT EXISTS RESOURCE_VERSION_SHARD(
+	name VARCHAR(50) NOT NULL,
+	shard SMALLINT NOT NULL,
+	version BIGINT NOT NULL DEFAULT 0,
+	PRIMARY KEY (name, shard)
+);
+
+--Shard 0 carries the version reached so far, so the sum and the ETags handed out before the migration are unchanged
+INSERT INTO RESOURCE_VERSION_SHARD(name, shard, version)
+    SELECT 'question', s, CASE WHEN s = 0 THEN coalesce((SELECT version FROM RESOURCE_VERSION WHERE name = 'question'), 0) ELSE 0 END
+    FROM generate_series(0, 15) s
+ON CONFLICT DO NOTHING;
+
+CREATE OR REPLACE FUNCTION bump_question_collection_version() RETURNS TRIGGER AS $$
+BEGIN
+    UPDATE RESOURCE_VERSION_SHARD SET version = version + 1 WHERE name = 'question' AND shard = pg_backend_pid() % 16;
+    RETURN NULL;
+END
+$$ LANGUAGE plpgsql;
+
+--Nodes still reading RESOURCE_VERSION would serve 304s for a version which no longer moves, so it is dropped rather than left behind
+DROP TABLE IF EXISTS RESOURCE_VERSION;
@@ -0,0 +1,4 @@
+--Indexes used by the keyset pagination of the question listings, which seek on (date, id) in descending order
+--Built concurrently, so that writes to QUESTION are not blocked on a populated database
+CREATE INDEX CONCURRENTLY IF NOT EXISTS QUESTION_DATE_ID_IDX ON QUESTION(date DESC, id DESC);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS QUESTION_USER_DATE_ID_IDX ON QUESTION(user_id, date DESC, id DESC);
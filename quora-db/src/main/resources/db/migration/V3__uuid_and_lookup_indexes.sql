@@ -0,0 +1,15 @@
+--Built concurrently, so that writes are not blocked on a populated database
+
+--Unique indexes on the uuid columns, as every endpoint addresses users, questions and answers by uuid
+CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS USERS_UUID_IDX ON USERS(uuid);
+CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS USER_AUTH_UUID_IDX ON USER_AUTH(uuid);
+CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS QUESTION_UUID_IDX ON QUESTION(uuid);
+CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS ANSWER_UUID_IDX ON ANSWER(uuid);
+
+--Lookup index on the access token, which every authorized endpoint resolves
+CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS USER_AUTH_ACCESS_TOKEN_IDX ON USER_AUTH(access_token);
+
+--Foreign key indexes, used by the lookups per user / per question and by the ON DELETE CASCADE of users and questions
+CREATE INDEX CONCURRENTLY IF NOT EXISTS USER_AUTH_USER_ID_IDX ON USER_AUTH(user_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ANSWER_QUESTION_ID_IDX ON ANSWER(question_id, date, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ANSWER_USER_ID_IDX ON ANSWER(user_id);
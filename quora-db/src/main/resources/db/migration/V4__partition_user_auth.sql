@@ -0,0 +1,50 @@
+--USER_AUTH is range partitioned by EXPIRES_AT (requires PostgreSQL 11 or later), one partition per day.
+--Partitions are created ahead of time and dropped or archived once all of their sessions have expired by the session reaper
+--of quora-service, so the number of partitions an access token lookup has to probe does not grow with the signin history.
+--The lookup of a JWT access token also matches the EXPIRES_AT of its "exp" claim, which prunes every other partition.
+--The existing table is not copied: it is attached as the partition of every expiry before the cutover day, and is reaped like any other.
+ALTER TABLE USER_AUTH RENAME TO USER_AUTH_LEGACY;
+ALTER TABLE USER_AUTH_LEGACY RENAME CONSTRAINT FK_USER_AUTH_USER_ID TO FK_USER_AUTH_LEGACY_USER_ID;
+ALTER SEQUENCE USER_AUTH_ID_SEQ OWNED BY NONE;
+
+--A partition must carry the key of its parent, which has to include the partition column
+ALTER TABLE USER_AUTH_LEGACY DROP CONSTRAINT USER_AUTH_PKEY;
+ALTER TABLE USER_AUTH_LEGACY ADD CONSTRAINT USER_AUTH_LEGACY_PKEY PRIMARY KEY (ID, EXPIRES_AT);
+
+CREATE TABLE USER_AUTH(
+	ID BIGINT NOT NULL DEFAULT nextval('user_auth_id_seq'),
+	uuid VARCHAR(200) NOT NULL,
+	USER_ID INTEGER NOT NULL,
+	ACCESS_TOKEN VARCHAR(500) NOT NULL,
+	EXPIRES_AT TIMESTAMP NOT NULL,
+	LOGIN_AT TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+	LOGOUT_AT TIMESTAMP NULL,
+	PRIMARY KEY (ID, EXPIRES_AT),
+	CONSTRAINT FK_USER_AUTH_USER_ID FOREIGN KEY(USER_ID) REFERENCES USERS(ID) ON DELETE CASCADE
+) PARTITION BY RANGE (EXPIRES_AT);
+
+--A unique index of a partitioned table must include the partition column; a token is still unique, as its expiry is fixed
+CREATE UNIQUE INDEX USER_AUTH_P_ACCESS_TOKEN_IDX ON USER_AUTH(access_token, expires_at);
+CREATE INDEX USER_AUTH_P_USER_ID_IDX ON USER_AUTH(user_id);
+CREATE INDEX USER_AUTH_P_UUID_IDX ON USER_AUTH(uuid);
+
+--There is no default partition: the reaper detaches partitions with DETACH PARTITION CONCURRENTLY, which PostgreSQL refuses
+--while a default partition exists. A sign in needs the partition of its expiry, which the reaper premakes days ahead.
+DO $$
+DECLARE
+    cutover TIMESTAMP;
+BEGIN
+    SELECT greatest(date_trunc('day', max(expires_at)), date_trunc('day', localtimestamp)) + interval '1 day'
+    INTO cutover FROM USER_AUTH_LEGACY;
+    EXECUTE format('ALTER TABLE USER_AUTH ATTACH PARTITION USER_AUTH_LEGACY FOR VALUES FROM (MINVALUE) TO (%L)', cutover);
+    FOR i IN 0..6 LOOP
+        EXECUTE format('CREATE TABLE USER_AUTH_P%s PARTITION OF USER_AUTH FOR VALUES FROM (%L) TO (%L)',
+                       to_char(cutover + i * interval '1 day', 'YYYYMMDD'),
+                       cutover + i * interval '1 day', cutover + (i + 1) * interval '1 day');
+    END LOOP;
+END
+$$;
+
+--Superseded by the (access_token, expires_at) and uuid indexes which the attach built on the legacy partition
+DROP INDEX USER_AUTH_ACCESS_TOKEN_IDX;
+DROP INDEX USER_AUTH_UUID_IDX;
@@ -0,0 +1,26 @@
+--Denormalized answer statistics of every question, so that listing or sorting questions never aggregates over ANSWER.
+--Adding a column with a constant default does not rewrite QUESTION (PostgreSQL 11 or later); existing rows are backfilled
+--in batches by the QuestionStatsRepairJob of quora-service.
+ALTER TABLE QUESTION ADD COLUMN IF NOT EXISTS answer_count INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE QUESTION ADD COLUMN IF NOT EXISTS last_answer_at TIMESTAMP NULL;
+
+--The statistics are maintained by a trigger in the same transaction as the change to ANSWER, which also covers the answers
+--removed by ON DELETE CASCADE when the admin deletes a user
+CREATE OR REPLACE FUNCTION question_answer_stats() RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        UPDATE QUESTION SET answer_count = answer_count + 1,
+                            last_answer_at = greatest(last_answer_at, NEW.date)
+        WHERE id = NEW.question_id;
+        RETURN NEW;
+    END IF;
+    UPDATE QUESTION SET answer_count = greatest(answer_count - 1, 0),
+                        last_answer_at = (SELECT max(a.date) FROM ANSWER a WHERE a.question_id = OLD.question_id)
+    WHERE id = OLD.question_id;
+    RETURN OLD;
+END
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS ANSWER_QUESTION_STATS_TRG ON ANSWER;
+CREATE TRIGGER ANSWER_QUESTION_STATS_TRG AFTER INSERT OR DELETE ON ANSWER
+    FOR EACH ROW EXECUTE PROCEDURE question_answer_stats();
@@ -0,0 +1,16 @@
+--Full-text search vector of the question content, kept up to date by a trigger on every insert and on every update of the content.
+--A nullable column without a default is added without rewriting QUESTION, unlike a generated column, which rewrites the table
+--under an ACCESS EXCLUSIVE lock. The vectors of the existing questions are backfilled in batches by the
+--QuestionSearchVectorBackfillJob of quora-service; until then the database search does not find those questions.
+ALTER TABLE QUESTION ADD COLUMN IF NOT EXISTS content_tsv tsvector NULL;
+
+CREATE OR REPLACE FUNCTION question_content_tsv() RETURNS TRIGGER AS $$
+BEGIN
+    NEW.content_tsv := to_tsvector('english', NEW.content);
+    RETURN NEW;
+END
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS QUESTION_CONTENT_TSV_TRG ON QUESTION;
+CREATE TRIGGER QUESTION_CONTENT_TSV_TRG BEFORE INSERT OR UPDATE OF content ON QUESTION
+    FOR EACH ROW EXECUTE PROCEDURE question_content_tsv();
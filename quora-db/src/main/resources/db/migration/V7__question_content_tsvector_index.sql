@@ -0,0 +1,6 @@
+--GIN index behind the /question/search endpoint, built concurrently so that writes to QUESTION are not blocked
+CREATE INDEX CONCURRENTLY IF NOT EXISTS QUESTION_CONTENT_TSV_IDX ON QUESTION USING GIN (content_tsv);
+
+--The questions whose search vector the backfill has yet to fill; the index is empty once it is done, so the backfill which
+--runs on every startup finds nothing left to do without scanning QUESTION
+CREATE INDEX CONCURRENTLY IF NOT EXISTS QUESTION_CONTENT_TSV_MISSING_IDX ON QUESTION(id) WHERE content_tsv IS NULL;
@@ -0,0 +1,50 @@
+--Versions behind the ETags of the read endpoints, so that a conditional GET is answered by a lookup on the uuid or primary key
+--index instead of loading and serializing the response. Every version only grows and is bumped in the transaction of the change.
+
+--Row versions of the single resources: /userprofile/{userId} by the user row, /answer/all/{questionId} by the question row
+ALTER TABLE USERS ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE QUESTION ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+CREATE OR REPLACE FUNCTION bump_row_version() RETURNS TRIGGER AS $$
+BEGIN
+    NEW.version = OLD.version + 1;
+    RETURN NEW;
+END
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS USERS_VERSION_TRG ON USERS;
+CREATE TRIGGER USERS_VERSION_TRG BEFORE UPDATE ON USERS
+    FOR EACH ROW EXECUTE PROCEDURE bump_row_version();
+
+--Also bumped by the answer statistics trigger, which updates the question whenever an answer is created or deleted
+DROP TRIGGER IF EXISTS QUESTION_VERSION_TRG ON QUESTION;
+CREATE TRIGGER QUESTION_VERSION_TRG BEFORE UPDATE ON QUESTION
+    FOR EACH ROW EXECUTE PROCEDURE bump_row_version();
+
+--An edited answer changes the answers of its question, so it bumps the version of the question row as well
+CREATE OR REPLACE FUNCTION answer_question_version() RETURNS TRIGGER AS $$
+BEGIN
+    UPDATE QUESTION SET version = version + 1 WHERE id = NEW.question_id;
+    RETURN NEW;
+END
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS ANSWER_QUESTION_VERSION_TRG ON ANSWER;
+CREATE TRIGGER ANSWER_QUESTION_VERSION_TRG AFTER UPDATE OF ans ON ANSWER
+    FOR EACH ROW WHEN (OLD.ans IS DISTINCT FROM NEW.ans) EXECUTE PROCEDURE answer_question_version();
+
+--Collection versions: /question/all and /question/all/{userId} change with any change to QUESTION. The counter is bumped once
+--per statement rather than per row, which keeps bulk changes such as the cascade of a deleted user to one update.
+CREATE TABLE IF NOT EXISTS RESOURCE_VERSION(name VARCHAR(50) PRIMARY KEY, version BIGINT NOT NULL DEFAULT 0);
+INSERT INTO RESOURCE_VERSION(name) VALUES ('question') ON CONFLICT DO NOTHING;
+
+CREATE OR REPLACE FUNCTION bump_question_collection_version() RETURNS TRIGGER AS $$
+BEGIN
+    UPDATE RESOURCE_VERSION SET version = version + 1 WHERE name = 'question';
+    RETURN NULL;
+END
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS QUESTION_COLLECTION_VERSION_TRG ON QUESTION;
+CREATE TRIGGER QUESTION_COLLECTION_VERSION_TRG AFTER INSERT OR UPDATE OR DELETE ON QUESTION
+    FOR EACH STATEMENT EXECUTE PROCEDURE bump_question_collection_version();
@@ -0,0 +1,22 @@
+--Users are deleted in two steps, so that a prolific user is no longer removed by one transaction cascading over all of their rows.
+--The admin request sets DELETED_AT, which hides the user, signs out their sessions and queues a USER_DELETION job; the job then
+--purges the answers, questions and sessions of the user in small batches, each in its own transaction, and deletes the user row last.
+ALTER TABLE USERS ADD COLUMN IF NOT EXISTS deleted_at TIMESTAMP NULL;
+
+--One row per deleted user. The row outlives the user row so that the progress stays readable once the purge has completed,
+--and the phase and counters are updated in the transaction of every batch, so an interrupted job resumes where it stopped.
+CREATE TABLE IF NOT EXISTS USER_DELETION(
+	ID SERIAL PRIMARY KEY,
+	USER_ID INTEGER NOT NULL,
+	USER_UUID VARCHAR(200) NOT NULL,
+	PHASE VARCHAR(30) NOT NULL,
+	ANSWERS_DELETED BIGINT NOT NULL DEFAULT 0,
+	QUESTIONS_DELETED BIGINT NOT NULL DEFAULT 0,
+	SESSIONS_DELETED BIGINT NOT NULL DEFAULT 0,
+	REQUESTED_AT TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+	UPDATED_AT TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+	COMPLETED_AT TIMESTAMP NULL
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS USER_DELETION_USER_UUID_IDX ON USER_DELETION(user_uuid);
+CREATE INDEX IF NOT EXISTS USER_DELETION_PENDING_IDX ON USER_DELETION(id) WHERE completed_at IS NULL;
@@ -0,0 +1,36 @@
+--Benchmark dataset for the question search: 50,000 users and 5,000,000 questions whose words follow a skewed distribution,
+--so that common terms match millions of rows and rare terms only a few, like real content.
+--Run against a migrated, disposable database with "mvn -P bench-dataset process-resources", then ANALYZE is run for fresh statistics.
+INSERT INTO users(uuid, firstname, lastname, username, email, password, salt, country, aboutme, dob, role, contactnumber)
+SELECT 'bench_user_' || g, 'first' || g, 'last' || g, 'bench_user_' || g, 'bench_user_' || g || '@quora.io',
+       'bench_password', 'bench_salt', 'India', 'benchmark user', '01-01-1990', 'nonadmin', '9999999999'
+FROM generate_series(1, 50000) g
+ON CONFLICT DO NOTHING;
+/
+INSERT INTO question(uuid, content, date, user_id)
+SELECT 'bench_question_' || g,
+       left(words.content, 500),
+       timestamp '2018-01-01' + (g * interval '5 seconds'),
+       (SELECT id FROM users WHERE username = 'bench_user_' || (1 + (g % 50000)))
+FROM generate_series(1, 5000000) g,
+LATERAL (
+    SELECT string_agg(vocabulary[1 + floor(power(random(), 3) * array_length(vocabulary, 1))::int], ' ') || '?' AS content
+    FROM generate_series(1, 6 + (g % 10)),
+         (SELECT ARRAY['java', 'spring', 'postgres', 'index', 'query', 'performance', 'thread', 'memory', 'cache', 'latency',
+                       'database', 'transaction', 'lock', 'pool', 'connection', 'garbage', 'collector', 'heap', 'stack', 'jvm',
+                       'hibernate', 'jpa', 'entity', 'lazy', 'fetch', 'join', 'table', 'column', 'vacuum', 'partition',
+                       'replica', 'primary', 'failover', 'backup', 'restore', 'kubernetes', 'docker', 'container', 'cloud', 'network',
+                       'socket', 'http', 'rest', 'json', 'xml', 'serialization', 'jackson', 'stream', 'reactive', 'async',
+                       'future', 'executor', 'scheduler', 'cron', 'batch', 'job', 'queue', 'kafka', 'message', 'event',
+                       'token', 'jwt', 'password', 'hash', 'salt', 'security', 'encryption', 'certificate', 'tls', 'oauth',
+                       'python', 'golang', 'rust', 'kotlin', 'scala', 'compiler', 'bytecode', 'inline', 'escape', 'allocation',
+                       'benchmark', 'profiler', 'flamegraph', 'histogram', 'percentile', 'throughput', 'capacity', 'scaling', 'shard', 'cluster',
+                       'algorithm', 'sorting', 'hashing', 'tree', 'graph', 'search', 'ranking', 'tokenizer', 'stemming', 'inverted']) v(vocabulary)
+    WHERE g > 0
+) words
+ON CONFLICT DO NOTHING;
+/
+ANALYZE users;
+/
+ANALYZE question;
+/
@@ -0,0 +1,4 @@
+--This record is stored in the database as the first admin user of the Quora Application
+INSERT INTO users(
+	id, uuid, firstname, lastname, username, email, password, salt, country, aboutme, dob, role, contactnumber)
+	VALUES (1024,'rdtrdtdyt','Abhi','Mahajan','abhi','a@gmail.com','507FF5FED1CAC746','8Xt6jxoCI3MWsVaKY/1ySAp2qzlb2Z7P89+vDrb1o6U=', 'India' ,'I am @ UpGrad' ,'22-10-1995' , 'admin' , '1222333333' );
@@ -18,6 +18,10 @@ insert into user_auth (id , uuid , user_id , access_token , expires_at , login_a
 insert into user_auth (id , uuid , user_id , access_token , expires_at , login_at , logout_at) values(1025 , 'database_uuid1' , 1026 , 'database_accesstoken1' , '2018-09-17 21:07:02.07' , '2018-09-17 13:07:02.07' , null );
 insert into user_auth (id , uuid , user_id , access_token , expires_at , login_at , logout_at) values(1026 , 'database_uuid2' , 1027 , 'database_accesstoken2' , '2018-09-17 21:07:02.07' , '2018-09-17 13:07:02.07' , null );
 insert into user_auth (id , uuid , user_id , access_token , expires_at , login_at , logout_at) values(1027 , 'database_uuid3' , 1028 , 'database_accesstoken3' , '2018-09-17 21:07:02.07' , '2018-09-17 13:07:02.07' , '2018-09-17 15:07:02.07' );
+--Sessions of the same users which have not expired, for the tests of a signed in user whose session is cached like any live one
+create table user_auth_p20990917 partition of user_auth for values from ('2099-09-17') to ('2099-09-18');
+insert into user_auth (id , uuid , user_id , access_token , expires_at , login_at , logout_at) values(1028 , 'database_uuid4' , 1025 , 'database_unexpired_accesstoken' , '2099-09-17 21:07:02.07' , '2018-09-17 13:07:02.07' , null );
+insert into user_auth (id , uuid , user_id , access_token , expires_at , login_at , logout_at) values(1029 , 'database_uuid5' , 1026 , 'database_unexpired_accesstoken1' , '2099-09-17 21:07:02.07' , '2018-09-17 13:07:02.07' , null );
 
 
 --Insert values in QUESTION table
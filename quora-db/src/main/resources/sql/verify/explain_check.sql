@@ -0,0 +1,46 @@
+--Runs EXPLAIN on the queries of every endpoint against the seeded local database and fails if any of them plans a sequential scan.
+--Sequential scans are disabled for the session, so that a "Seq Scan" node only shows up when no usable index exists,
+--however small the seeded tables are. Run with "mvn -P verify-plans process-resources".
+DO $$
+DECLARE
+    query TEXT;
+    plan_line TEXT;
+    failures TEXT := '';
+BEGIN
+    SET LOCAL enable_seqscan = off;
+    FOREACH query IN ARRAY ARRAY[
+        --authorization header of every authorized endpoint
+        'SELECT ua.*, u.* FROM user_auth ua JOIN users u ON u.id = ua.user_id WHERE ua.access_token = ''database_accesstoken1''',
+        --signin
+        'SELECT * FROM users WHERE username = ''database_username''',
+        --signup
+        'SELECT * FROM users WHERE email = ''database_email''',
+        --fetchUserDetails, deleteUser, getAllQuestionsByUser
+        'SELECT * FROM users WHERE uuid = ''database_uuid''',
+        --editQuestionContent, deleteQuestion, createAnswer, getAllAnswersToQuestion
+        'SELECT * FROM question WHERE uuid = ''database_question_uuid''',
+        --editAnswerContent, deleteAnswer
+        'SELECT * FROM answer WHERE uuid = ''database_answer_uuid''',
+        --getAllQuestions
+        'SELECT * FROM question ORDER BY date DESC, id DESC LIMIT 21',
+        'SELECT * FROM question WHERE (date, id) < (now(), 1024) ORDER BY date DESC, id DESC LIMIT 21',
+        --getAllQuestionsByUser
+        'SELECT * FROM question WHERE user_id = 1026 ORDER BY date DESC, id DESC LIMIT 21',
+        --getAllAnswersToQuestion
+        'SELECT * FROM answer WHERE question_id = 1024 ORDER BY date, id',
+        --cascade of deleteUser and deleteQuestion
+        'SELECT * FROM answer WHERE user_id = 1026',
+        'SELECT * FROM user_auth WHERE user_id = 1026'
+    ] LOOP
+        FOR plan_line IN EXECUTE 'EXPLAIN ' || query LOOP
+            IF plan_line LIKE '%Seq Scan%' THEN
+                failures := failures || E'\n' || query || E'\n    ' || plan_line;
+            END IF;
+        END LOOP;
+    END LOOP;
+    IF failures <> '' THEN
+        RAISE EXCEPTION 'Queries planned with a sequential scan:%', failures;
+    END IF;
+END
+$$
+/
@@ -0,0 +1,23 @@
+package com.upgrad.quora.service;
+
+import com.upgrad.quora.service.common.ExceptionStackTraces;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+import javax.annotation.PostConstruct;
+
+/**
+ * Configuration of the stack traces of the service exceptions, which are off unless quora.exceptions.stack-traces is set,
+ * e.g. to find out where an unexpected rejection comes from. See ExceptionStackTraces.
+ */
+@Configuration
+public class ExceptionStackTraceConfiguration {
+
+    @Value("${quora.exceptions.stack-traces:false}")
+    private boolean stackTraces;
+
+    @PostConstruct
+    public void applyStackTraces() {
+        ExceptionStackTraces.setEnabled(stackTraces);
+    }
+}
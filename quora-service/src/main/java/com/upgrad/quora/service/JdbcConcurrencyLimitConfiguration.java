@@ -0,0 +1,37 @@
+package com.upgrad.quora.service;
+
+import com.upgrad.quora.service.dao.ConcurrencyLimitingDataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+/**
+ * Configuration of the JDBC concurrency limiter, which comes with the virtual thread mode of quora-api (quora.virtual-threads.enabled).
+ * It wraps the dataSource bean, the pool of the Boot auto-configuration or the replica routing, in a ConcurrencyLimitingDataSource
+ * with quora.virtual-threads.jdbc-permits permits, which should not exceed the connections the pools can hand out.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "quora.virtual-threads", name = "enabled", havingValue = "true")
+public class JdbcConcurrencyLimitConfiguration {
+
+    private static final String DATA_SOURCE_BEAN = "dataSource";
+
+    @Bean
+    public static BeanPostProcessor jdbcConcurrencyLimitPostProcessor(final Environment environment) {
+        final int permits = environment.getProperty("quora.virtual-threads.jdbc-permits", Integer.class, 10);
+        final long acquireTimeoutMillis = environment.getProperty("quora.virtual-threads.jdbc-acquire-timeout-millis", Long.class, 5000L);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(final Object bean, final String beanName) {
+                if (DATA_SOURCE_BEAN.equals(beanName) && bean instanceof DataSource && !(bean instanceof ConcurrencyLimitingDataSource)) {
+                    return new ConcurrencyLimitingDataSource((DataSource) bean, permits, acquireTimeoutMillis);
+                }
+                return bean;
+            }
+        };
+    }
+}
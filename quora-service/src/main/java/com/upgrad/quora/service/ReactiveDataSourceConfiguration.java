@@ -0,0 +1,52 @@
+package com.upgrad.quora.service;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import java.time.Duration;
+
+/**
+ * Configuration of the R2DBC access of the reactive read API, enabled with quora.reactive.enabled.
+ * The connection pool is deliberately not a bean: the Boot auto-configuration backs off the JDBC DataSource as soon as an
+ * R2DBC ConnectionFactory bean exists, and the rest of the application still runs on JDBC. Only the DatabaseClient is exposed.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "quora.reactive", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(ReactiveDataSourceProperties.class)
+public class ReactiveDataSourceConfiguration implements DisposableBean {
+
+    private ConnectionPool connectionPool;
+
+    @Bean
+    public DatabaseClient reactiveDatabaseClient(final ReactiveDataSourceProperties properties) {
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(properties.getUrl());
+        if (properties.getUsername() != null) {
+            options = options.mutate()
+                    .option(ConnectionFactoryOptions.USER, properties.getUsername())
+                    .option(ConnectionFactoryOptions.PASSWORD, properties.getPassword())
+                    .build();
+        }
+        connectionPool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+                .name("quora-reactive-pool")
+                .initialSize(properties.getInitialSize())
+                .maxSize(properties.getMaxSize())
+                .maxAcquireTime(Duration.ofMillis(properties.getMaxAcquireMillis()))
+                .build());
+        return DatabaseClient.create(connectionPool);
+    }
+
+    @Override
+    public void destroy() {
+        if (connectionPool != null) {
+            connectionPool.dispose();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.upgrad.quora.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * R2DBC settings of the reactive read API, bound from quora.reactive.r2dbc in application.yaml.
+ * The connection pool is separate from the JDBC pool of spring.datasource, so the database must allow for both.
+ */
+@ConfigurationProperties(prefix = "quora.reactive.r2dbc")
+public class ReactiveDataSourceProperties {
+
+    private String url = "r2dbc:postgresql://localhost:5432/quora";
+
+    private String username;
+
+    private String password;
+
+    private int initialSize = 10;
+
+    private int maxSize = 10;
+
+    private long maxAcquireMillis = 2000;
+
+    private int fetchSize = 500;
+
+    public String getUrl() {
+        return url;
+    }
+
+    public void setUrl(final String url) {
+        this.url = url;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(final String username) {
+        this.username = username;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public void setPassword(final String password) {
+        this.password = password;
+    }
+
+    public int getInitialSize() {
+        return initialSize;
+    }
+
+    public void setInitialSize(final int initialSize) {
+        this.initialSize = initialSize;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(final int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public long getMaxAcquireMillis() {
+        return maxAcquireMillis;
+    }
+
+    public void setMaxAcquireMillis(final long maxAcquireMillis) {
+        this.maxAcquireMillis = maxAcquireMillis;
+    }
+
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    public void setFetchSize(final int fetchSize) {
+        this.fetchSize = fetchSize;
+    }
+}
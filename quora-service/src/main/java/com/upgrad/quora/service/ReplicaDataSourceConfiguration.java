@@ -0,0 +1,61 @@
+package com.upgrad.quora.service;
+
+import com.upgrad.quora.service.dao.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Configuration of the read replica routing, enabled with quora.datasource.replica.enabled.
+ * It replaces the DataSource of the Boot auto-configuration with a ReplicaRoutingDataSource behind a LazyConnectionDataSourceProxy,
+ * so that the @Transactional(readOnly = true) service methods read from the replicas. The primary pool is still configured
+ * by spring.datasource, and every replica pool is a copy of it with its own URL.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "quora.datasource.replica", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(ReplicaDataSourceProperties.class)
+public class ReplicaDataSourceConfiguration {
+
+    @Bean
+    @ConfigurationProperties(prefix = "spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(final DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(final HikariDataSource primaryDataSource,
+                                                             final ReplicaDataSourceProperties properties) {
+        final Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < properties.getUrls().size(); i++) {
+            final HikariConfig config = new HikariConfig();
+            primaryDataSource.copyStateTo(config);
+            config.setPoolName(primaryDataSource.getPoolName() + "-replica-" + i);
+            config.setJdbcUrl(properties.getUrls().get(i));
+            if (properties.getUsername() != null) {
+                config.setUsername(properties.getUsername());
+                config.setPassword(properties.getPassword());
+            }
+            config.setReadOnly(true);
+            replicas.put("replica-" + i, new HikariDataSource(config));
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, properties.getMaxLagMillis(),
+                Math.max(properties.getReadYourWritesMillis(), properties.getMaxLagMillis()));
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(final ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+}
@@ -0,0 +1,84 @@
+package com.upgrad.quora.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read replica settings of the ReplicaRoutingDataSource, bound from quora.datasource.replica in application.yaml.
+ * The replicas use the credentials and pool settings of spring.datasource unless a username is given here.
+ */
+@ConfigurationProperties(prefix = "quora.datasource.replica")
+public class ReplicaDataSourceProperties {
+
+    private boolean enabled;
+
+    private List<String> urls = new ArrayList<>();
+
+    private String username;
+
+    private String password;
+
+    private long maxLagMillis = 5000;
+
+    private long lagCheckIntervalMillis = 1000;
+
+    private long readYourWritesMillis = 5000;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(final boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public List<String> getUrls() {
+        return urls;
+    }
+
+    public void setUrls(final List<String> urls) {
+        this.urls = urls;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(final String username) {
+        this.username = username;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public void setPassword(final String password) {
+        this.password = password;
+    }
+
+    public long getMaxLagMillis() {
+        return maxLagMillis;
+    }
+
+    public void setMaxLagMillis(final long maxLagMillis) {
+        this.maxLagMillis = maxLagMillis;
+    }
+
+    public long getLagCheckIntervalMillis() {
+        return lagCheckIntervalMillis;
+    }
+
+    public void setLagCheckIntervalMillis(final long lagCheckIntervalMillis) {
+        this.lagCheckIntervalMillis = lagCheckIntervalMillis;
+    }
+
+    public long getReadYourWritesMillis() {
+        return readYourWritesMillis;
+    }
+
+    public void setReadYourWritesMillis(final long readYourWritesMillis) {
+        this.readYourWritesMillis = readYourWritesMillis;
+    }
+}
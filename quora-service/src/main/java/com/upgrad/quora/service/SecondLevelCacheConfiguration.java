@@ -0,0 +1,113 @@
+package com.upgrad.quora.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ExpiryPolicyBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.jsr107.Eh107Configuration;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.persistence.EntityManagerFactory;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Configuration of the Hibernate second-level cache, which runs on the in-process Ehcache JCache provider.
+ * The caches of all the regions are created here from SecondLevelCacheProperties before the EntityManagerFactory starts,
+ * as Hibernate would otherwise create the missing ones unbounded. Hibernate picks the same CacheManager up through
+ * hibernate.javax.cache.provider in application.yaml; any other JCache provider can be plugged in there.
+ */
+@Configuration
+@EnableConfigurationProperties(SecondLevelCacheProperties.class)
+public class SecondLevelCacheConfiguration {
+
+    /**
+     * Regions of the cached entities and named queries, as named in their @Cache and org.hibernate.cacheRegion hints.
+     */
+    public static final Set<String> REGIONS = new LinkedHashSet<>(Arrays.asList(
+            "user", "question", "answer", "user-by-uuid", "question-by-uuid", "answers-by-question",
+            "default-query-results-region"));
+
+    private static final String UPDATE_TIMESTAMPS_REGION = "default-update-timestamps-region";
+
+    @Bean
+    public CacheManager secondLevelCacheManager(final SecondLevelCacheProperties properties) {
+        final CacheManager cacheManager = Caching.getCachingProvider(EhcacheCachingProvider.class.getName()).getCacheManager();
+        for (final String region : REGIONS) {
+            if (cacheManager.getCache(region) == null) {
+                final SecondLevelCacheProperties.Region settings = properties.region(region);
+                cacheManager.createCache(region, Eh107Configuration.fromEhcacheCacheConfiguration(
+                        CacheConfigurationBuilder.newCacheConfigurationBuilder(Object.class, Object.class,
+                                ResourcePoolsBuilder.heap(settings.getMaxEntries()))
+                                .withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(Duration.ofSeconds(settings.getTtlSeconds())))));
+            }
+        }
+        // the last update time of every table must outlive the cached query results, so this region never expires
+        if (cacheManager.getCache(UPDATE_TIMESTAMPS_REGION) == null) {
+            cacheManager.createCache(UPDATE_TIMESTAMPS_REGION, Eh107Configuration.fromEhcacheCacheConfiguration(
+                    CacheConfigurationBuilder.newCacheConfigurationBuilder(Object.class, Object.class, ResourcePoolsBuilder.heap(1000))
+                            .withExpiry(ExpiryPolicyBuilder.noExpiration())));
+        }
+        return cacheManager;
+    }
+
+    @Bean
+    public static EntityManagerFactoryDependsOnPostProcessor secondLevelCacheDependsOnPostProcessor() {
+        return new EntityManagerFactoryDependsOnPostProcessor("secondLevelCacheManager");
+    }
+
+    /**
+     * This method exposes the hits, misses and puts of every region, and their hit ratio, from the Hibernate statistics.
+     */
+    @Bean
+    public MeterBinder secondLevelCacheMetrics(final EntityManagerFactory entityManagerFactory) {
+        final Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        return registry -> {
+            for (final String region : REGIONS) {
+                FunctionCounter.builder("quora.cache.hits", statistics, regionCount(region, CacheRegionStatistics::getHitCount))
+                        .tag("region", region).register(registry);
+                FunctionCounter.builder("quora.cache.misses", statistics, regionCount(region, CacheRegionStatistics::getMissCount))
+                        .tag("region", region).register(registry);
+                FunctionCounter.builder("quora.cache.puts", statistics, regionCount(region, CacheRegionStatistics::getPutCount))
+                        .tag("region", region).register(registry);
+                Gauge.builder("quora.cache.hit.ratio", statistics, regionHitRatio(region))
+                        .tag("region", region)
+                        .description("Hits over lookups of the second-level cache region since startup")
+                        .register(registry);
+            }
+        };
+    }
+
+    private static ToDoubleFunction<Statistics> regionCount(final String region, final ToDoubleFunction<CacheRegionStatistics> count) {
+        return statistics -> {
+            // the statistics of a region exist once Hibernate has built the region
+            final CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(region);
+            return regionStatistics == null ? 0 : count.applyAsDouble(regionStatistics);
+        };
+    }
+
+    private static ToDoubleFunction<Statistics> regionHitRatio(final String region) {
+        return statistics -> {
+            final CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(region);
+            if (regionStatistics == null) {
+                return 0;
+            }
+            final long lookups = regionStatistics.getHitCount() + regionStatistics.getMissCount();
+            return lookups == 0 ? 0 : (double) regionStatistics.getHitCount() / lookups;
+        };
+    }
+}
@@ -0,0 +1,67 @@
+package com.upgrad.quora.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Size and time to live of the Hibernate second-level cache regions, bound from quora.cache in application.yaml.
+ * Regions which are not listed under quora.cache.regions use quora.cache.defaults.
+ */
+@ConfigurationProperties(prefix = "quora.cache")
+public class SecondLevelCacheProperties {
+
+    private Region defaults = new Region();
+
+    private Map<String, Region> regions = new LinkedHashMap<>();
+
+    public Region getDefaults() {
+        return defaults;
+    }
+
+    public void setDefaults(final Region defaults) {
+        this.defaults = defaults;
+    }
+
+    public Map<String, Region> getRegions() {
+        return regions;
+    }
+
+    public void setRegions(final Map<String, Region> regions) {
+        this.regions = regions;
+    }
+
+    /**
+     * @return - settings of the region, or the defaults if the region is not configured
+     */
+    public Region region(final String name) {
+        return regions.getOrDefault(name, defaults);
+    }
+
+    /**
+     * Region holds the settings of one cache region.
+     */
+    public static class Region {
+
+        private long maxEntries = 10000;
+
+        private long ttlSeconds = 600;
+
+        public long getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(final long maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+
+        public long getTtlSeconds() {
+            return ttlSeconds;
+        }
+
+        public void setTtlSeconds(final long ttlSeconds) {
+            this.ttlSeconds = ttlSeconds;
+        }
+    }
+}
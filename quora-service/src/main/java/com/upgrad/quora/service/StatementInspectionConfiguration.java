@@ -0,0 +1,42 @@
+package com.upgrad.quora.service;
+
+import com.upgrad.quora.service.dao.StatementInspectingDataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+/**
+ * Configuration of the SQL statement inspection, enabled with quora.sql-inspection.enabled.
+ * It wraps the dataSource bean, whichever of the Boot pool, the replica routing or the JDBC concurrency limiter it is, in a
+ * StatementInspectingDataSource, so that every statement of Hibernate and JdbcTemplate is counted and timed.
+ * The statements are counted per request by quora-api, which knows the operation and so the budget of every request.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "quora.sql-inspection", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(StatementInspectionProperties.class)
+public class StatementInspectionConfiguration {
+
+    private static final String DATA_SOURCE_BEAN = "dataSource";
+
+    @Bean
+    public static BeanPostProcessor statementInspectionPostProcessor(final Environment environment) {
+        final StatementInspectionProperties properties = Binder.get(environment)
+                .bind("quora.sql-inspection", StatementInspectionProperties.class).orElseGet(StatementInspectionProperties::new);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(final Object bean, final String beanName) {
+                if (DATA_SOURCE_BEAN.equals(beanName) && bean instanceof DataSource && !(bean instanceof StatementInspectingDataSource)) {
+                    return new StatementInspectingDataSource((DataSource) bean, properties.getSlowStatementMillis(),
+                            properties.getMode() == StatementInspectionProperties.Mode.FAIL);
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,90 @@
+package com.upgrad.quora.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * SQL statement inspection settings of the StatementInspectingDataSource, bound from quora.sql-inspection in application.yaml.
+ * The statement budget of a request is the one of its swagger operationId under operations, or max-statements-per-request.
+ */
+@ConfigurationProperties(prefix = "quora.sql-inspection")
+public class StatementInspectionProperties {
+
+    /**
+     * LOG only logs the requests and statements over their budget, FAIL also fails them with GEN-003 and GEN-004.
+     */
+    public enum Mode {
+        LOG, FAIL
+    }
+
+    private boolean enabled;
+
+    private Mode mode = Mode.LOG;
+
+    private int maxStatementsPerRequest = 20;
+
+    private long slowStatementMillis = 500;
+
+    private boolean countHeader;
+
+    private Map<String, Integer> operations = new HashMap<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(final boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public void setMode(final Mode mode) {
+        this.mode = mode;
+    }
+
+    public int getMaxStatementsPerRequest() {
+        return maxStatementsPerRequest;
+    }
+
+    public void setMaxStatementsPerRequest(final int maxStatementsPerRequest) {
+        this.maxStatementsPerRequest = maxStatementsPerRequest;
+    }
+
+    public long getSlowStatementMillis() {
+        return slowStatementMillis;
+    }
+
+    public void setSlowStatementMillis(final long slowStatementMillis) {
+        this.slowStatementMillis = slowStatementMillis;
+    }
+
+    public boolean isCountHeader() {
+        return countHeader;
+    }
+
+    public void setCountHeader(final boolean countHeader) {
+        this.countHeader = countHeader;
+    }
+
+    public Map<String, Integer> getOperations() {
+        return operations;
+    }
+
+    public void setOperations(final Map<String, Integer> operations) {
+        this.operations = operations;
+    }
+
+    /**
+     * @param operationId - swagger operationId of the request
+     * @return - maximum number of SQL statements the request may run
+     */
+    public int getBudget(final String operationId) {
+        final Integer budget = operations.get(operationId);
+        return budget == null ? maxStatementsPerRequest : budget;
+    }
+}
@@ -0,0 +1,45 @@
+package com.upgrad.quora.service.business;
+
+import com.auth0.jwt.interfaces.DecodedJWT;
+import org.springframework.stereotype.Component;
+
+/**
+ * This class is the stateless fast path of the access token check.
+ * A token signed with the server-wide key (quora.jwt.secret) whose signature, issuer and expiry are valid, and which is not
+ * in the TokenRevocationList, is accepted without reading USER_AUTH.
+ * Any other token, including every token when no server-wide key is configured, has to be checked against the database.
+ */
+@Component
+public class AccessTokenVerifier {
+
+    private final JwtTokenProvider jwtTokenProvider;
+
+    private final TokenRevocationList tokenRevocationList;
+
+    public AccessTokenVerifier(final JwtTokenProviderRegistry jwtTokenProviderRegistry, final TokenRevocationList tokenRevocationList) {
+        this.jwtTokenProvider = jwtTokenProviderRegistry.serverProvider();
+        this.tokenRevocationList = tokenRevocationList;
+    }
+
+    /**
+     * This method verifies the access token without any database access.
+     *
+     * @param accessToken - access token received in the authorization header
+     * @return - uuid of the user the token was issued to, or null if the token has to be checked against USER_AUTH
+     */
+    public String verify(final String accessToken) {
+        if (jwtTokenProvider == null) {
+            return null;
+        }
+        final DecodedJWT decodedJWT = jwtTokenProvider.verifyToken(accessToken);
+        if (decodedJWT == null || decodedJWT.getAudience() == null || decodedJWT.getAudience().isEmpty()
+                || tokenRevocationList.isRevoked(decodedJWT)) {
+            return null;
+        }
+        return decodedJWT.getAudience().get(0);
+    }
+
+    public boolean isEnabled() {
+        return jwtTokenProvider != null;
+    }
+}
@@ -0,0 +1,123 @@
+package com.upgrad.quora.service.business;
+
+import com.upgrad.quora.service.common.ExceptionStackTraces;
+import com.upgrad.quora.service.dao.UserAuthDao;
+import com.upgrad.quora.service.dao.UserDao;
+import com.upgrad.quora.service.dao.UserDeletionDao;
+import com.upgrad.quora.service.entity.UserDeletionEntity;
+import com.upgrad.quora.service.entity.UserDeletionPhase;
+import com.upgrad.quora.service.entity.UserEntity;
+import com.upgrad.quora.service.exception.AuthorizationFailedException;
+import com.upgrad.quora.service.exception.UserNotFoundException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.ZonedDateTime;
+
+/**
+ * This class contains the business logic of the admin endpoints.
+ */
+@Service
+public class AdminBusinessService {
+
+    private static final AuthorizationFailedException NOT_ADMIN =
+            new AuthorizationFailedException("ATHR-003", "Unauthorized Access, Entered user is not an admin");
+
+    private static final String ADMIN_ROLE = "admin";
+
+    private static final String SIGNED_OUT_MESSAGE = "User is signed out";
+
+    @Autowired
+    private UserDao userDao;
+
+    @Autowired
+    private UserAuthDao userAuthDao;
+
+    @Autowired
+    private UserDeletionDao userDeletionDao;
+
+    @Autowired
+    private UserAuthBusinessService userAuthBusinessService;
+
+    @Autowired
+    private UserDeletionJob userDeletionJob;
+
+    /**
+     * This method deletes the user. The user is hidden and signed out right away, in one short transaction, and the answers,
+     * questions and sessions of the user are purged in the background by the UserDeletionJob once the transaction has committed.
+     * The cached sessions and the tokens of the user are revoked after the commit as well, so that no concurrent request caches a
+     * session read before the deletion; the other nodes pick the deletion up on the next refresh of their TokenRevocationList.
+     *
+     * @param accessToken - access token of the admin received in the authorization header
+     * @param userUuid    - uuid of the user to be deleted
+     * @return - UserDeletionEntity recording the progress of the purge
+     * @throws AuthorizationFailedException - ATHR-001 if the token does not exist, ATHR-002 if the admin has signed out,
+     *                                      ATHR-003 if the signed in user is not an admin
+     * @throws UserNotFoundException        - USR-001 if the user does not exist or has already been deleted
+     */
+    @Transactional(propagation = Propagation.REQUIRED)
+    public UserDeletionEntity deleteUser(final String accessToken, final String userUuid) throws AuthorizationFailedException, UserNotFoundException {
+        authorizeAdmin(accessToken);
+        final UserEntity user = userDao.getUserByUuid(userUuid);
+        if (user == null) {
+            throw userNotFound();
+        }
+
+        final ZonedDateTime now = ZonedDateTime.now();
+        user.setDeletedAt(now);
+        userAuthDao.signOutUser(user.getId(), now);
+
+        final UserDeletionEntity deletion = new UserDeletionEntity();
+        deletion.setUserId(user.getId());
+        deletion.setUserUuid(user.getUuid());
+        deletion.setPhase(UserDeletionPhase.ANSWERS);
+        deletion.setRequestedAt(now);
+        deletion.setUpdatedAt(now);
+        userDeletionDao.createUserDeletion(deletion);
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                userAuthBusinessService.invalidateUser(userUuid);
+                userDeletionJob.start();
+            }
+        });
+        return deletion;
+    }
+
+    /**
+     * This method returns the progress of the purge of a deleted user.
+     *
+     * @param accessToken - access token of the admin received in the authorization header
+     * @param userUuid    - uuid of the deleted user
+     * @return - UserDeletionEntity recording the progress of the purge
+     * @throws AuthorizationFailedException - ATHR-001 if the token does not exist, ATHR-002 if the admin has signed out,
+     *                                      ATHR-003 if the signed in user is not an admin
+     * @throws UserNotFoundException        - USR-001 if the user has not been deleted
+     */
+    @Transactional(readOnly = true)
+    public UserDeletionEntity getUserDeletion(final String accessToken, final String userUuid) throws AuthorizationFailedException, UserNotFoundException {
+        authorizeAdmin(accessToken);
+        final UserDeletionEntity deletion = userDeletionDao.getUserDeletionByUserUuid(userUuid);
+        if (deletion == null) {
+            throw userNotFound();
+        }
+        return deletion;
+    }
+
+    private void authorizeAdmin(final String accessToken) throws AuthorizationFailedException {
+        final UserAuthSession session = userAuthBusinessService.authorize(accessToken, SIGNED_OUT_MESSAGE);
+        if (!ADMIN_ROLE.equals(session.getRole())) {
+            throw ExceptionStackTraces.reuse(NOT_ADMIN,
+                    () -> new AuthorizationFailedException("ATHR-003", "Unauthorized Access, Entered user is not an admin"));
+        }
+    }
+
+    private static UserNotFoundException userNotFound() {
+        return new UserNotFoundException("USR-001", "User with entered uuid to be deleted does not exist");
+    }
+}
@@ -0,0 +1,107 @@
+package com.upgrad.quora.service.business;
+
+import com.upgrad.quora.service.dao.AnswerDao;
+import com.upgrad.quora.service.dao.QuestionDao;
+import com.upgrad.quora.service.dao.ResourceVersionDao;
+import com.upgrad.quora.service.dao.StreamingDao;
+import com.upgrad.quora.service.entity.AnswerEntity;
+import com.upgrad.quora.service.entity.QuestionEntity;
+import com.upgrad.quora.service.exception.AuthorizationFailedException;
+import com.upgrad.quora.service.exception.InvalidQuestionException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * This class contains the business logic of the answer endpoints.
+ */
+@Service
+public class AnswerBusinessService {
+
+    private static final String GET_ANSWERS_SIGNED_OUT_MESSAGE = "User is signed out.Sign in first to get the answers";
+
+    @Autowired
+    private AnswerDao answerDao;
+
+    @Autowired
+    private QuestionDao questionDao;
+
+    @Autowired
+    private StreamingDao streamingDao;
+
+    @Autowired
+    private ResourceVersionDao resourceVersionDao;
+
+    @Autowired
+    private UserAuthBusinessService userAuthBusinessService;
+
+    /**
+     * This method returns all the answers posted to the question.
+     *
+     * @param accessToken  - access token received in the authorization header
+     * @param questionUuid - uuid of the question
+     * @return - list of answers to the question
+     * @throws AuthorizationFailedException - ATHR-001 if the token does not exist, ATHR-002 if the user has signed out
+     * @throws InvalidQuestionException     - QUES-001 if the question does not exist
+     */
+    @Transactional(readOnly = true)
+    public List<AnswerEntity> getAllAnswersToQuestion(final String accessToken, final String questionUuid)
+            throws AuthorizationFailedException, InvalidQuestionException {
+        userAuthBusinessService.authorizeStateless(accessToken, GET_ANSWERS_SIGNED_OUT_MESSAGE);
+        final QuestionEntity question = getQuestion(questionUuid);
+        return answerDao.getAllAnswersToQuestion(question.getId());
+    }
+
+    /**
+     * This method returns the version of the answers to the question, which the ETag of /answer/all/{questionId} is derived from.
+     * The version of the question row changes with the question and with every answer created, edited or deleted.
+     *
+     * @param accessToken  - access token received in the authorization header
+     * @param questionUuid - uuid of the question
+     * @return - version of the question
+     * @throws AuthorizationFailedException - ATHR-001 if the token does not exist, ATHR-002 if the user has signed out
+     * @throws InvalidQuestionException     - QUES-001 if the question does not exist
+     */
+    @Transactional(readOnly = true)
+    public long getAllAnswersToQuestionVersion(final String accessToken, final String questionUuid)
+            throws AuthorizationFailedException, InvalidQuestionException {
+        userAuthBusinessService.authorizeStateless(accessToken, GET_ANSWERS_SIGNED_OUT_MESSAGE);
+        final Long version = resourceVersionDao.getQuestionVersion(questionUuid);
+        if (version == null) {
+            throw questionNotFound();
+        }
+        return version;
+    }
+
+    /**
+     * This method streams all the answers posted to the question to the handler straight from a database cursor,
+     * for the bulk export mode of /answer/all/{questionId}. The access token and the question are checked before the first row is read.
+     *
+     * @param accessToken  - access token received in the authorization header
+     * @param questionUuid - uuid of the question
+     * @param handler      - receives the uuid, question content and answer content of every answer
+     * @throws AuthorizationFailedException - ATHR-001 if the token does not exist, ATHR-002 if the user has signed out
+     * @throws InvalidQuestionException     - QUES-001 if the question does not exist
+     */
+    @Transactional(readOnly = true)
+    public void streamAllAnswersToQuestion(final String accessToken, final String questionUuid, final StreamingDao.AnswerRowHandler handler)
+            throws AuthorizationFailedException, InvalidQuestionException {
+        userAuthBusinessService.authorizeStateless(accessToken, GET_ANSWERS_SIGNED_OUT_MESSAGE);
+        final QuestionEntity question = getQuestion(questionUuid);
+        streamingDao.streamAllAnswersToQuestion(question.getId(), handler);
+    }
+
+    private QuestionEntity getQuestion(final String questionUuid) throws InvalidQuestionException {
+        final QuestionEntity question = questionDao.getQuestionByUuid(questionUuid);
+        if (question == null) {
+            throw questionNotFound();
+        }
+        return question;
+    }
+
+    private static InvalidQuestionException questionNotFound() {
+        return new InvalidQuestionException("QUES-001", "The question with entered uuid whose details are to be seen does not exist");
+    }
+}
@@ -0,0 +1,70 @@
+package com.upgrad.quora.service.business;
+
+import com.upgrad.quora.service.dao.ResourceVersionDao;
+import com.upgrad.quora.service.dao.UserDao;
+import com.upgrad.quora.service.entity.UserEntity;
+import com.upgrad.quora.service.exception.AuthorizationFailedException;
+import com.upgrad.quora.service.exception.UserNotFoundException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * This class contains the business logic of the common endpoints.
+ */
+@Service
+public class CommonBusinessService {
+
+    private static final String GET_USER_SIGNED_OUT_MESSAGE = "User is signed out.Sign in first to get user details";
+
+    @Autowired
+    private UserDao userDao;
+
+    @Autowired
+    private ResourceVersionDao resourceVersionDao;
+
+    @Autowired
+    private UserAuthBusinessService userAuthBusinessService;
+
+    /**
+     * This method returns the details of the user.
+     *
+     * @param accessToken - access token received in the authorization header
+     * @param userUuid    - uuid of the user whose details are to be fetched
+     * @return - UserEntity of the user
+     * @throws AuthorizationFailedException - ATHR-001 if the token does not exist, ATHR-002 if the user has signed out
+     * @throws UserNotFoundException        - USR-001 if the user does not exist
+     */
+    @Transactional(readOnly = true)
+    public UserEntity getUser(final String accessToken, final String userUuid) throws AuthorizationFailedException, UserNotFoundException {
+        userAuthBusinessService.authorizeStateless(accessToken, GET_USER_SIGNED_OUT_MESSAGE);
+        final UserEntity user = userDao.getUserByUuid(userUuid);
+        if (user == null) {
+            throw userNotFound();
+        }
+        return user;
+    }
+
+    /**
+     * This method returns the version of the user, which the ETag of /userprofile/{userId} is derived from.
+     *
+     * @param accessToken - access token received in the authorization header
+     * @param userUuid    - uuid of the user whose details are to be fetched
+     * @return - version of the user row
+     * @throws AuthorizationFailedException - ATHR-001 if the token does not exist, ATHR-002 if the user has signed out
+     * @throws UserNotFoundException        - USR-001 if the user does not exist
+     */
+    @Transactional(readOnly = true)
+    public long getUserVersion(final String accessToken, final String userUuid) throws AuthorizationFailedException, UserNotFoundException {
+        userAuthBusinessService.authorizeStateless(accessToken, GET_USER_SIGNED_OUT_MESSAGE);
+        final Long version = resourceVersionDao.getUserVersion(userUuid);
+        if (version == null) {
+            throw userNotFound();
+        }
+        return version;
+    }
+
+    private static UserNotFoundException userNotFound() {
+        return new UserNotFoundException("USR-001", "User with entered uuid does not exist");
+    }
+}
@@ -0,0 +1,289 @@
+package com.upgrad.quora.service.business;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * InvertedIndex maps every term of a text column to the sorted ids of the rows which contain it.
+ * Posting lists are primitive int arrays, and every document keeps the ids of its distinct terms so that it can be
+ * removed or replaced without scanning the postings. A document may carry an owner id, e.g. the question of an answer.
+ * Reads run concurrently; updates take the write lock.
+ */
+final class InvertedIndex {
+
+    private static final Set<String> STOP_WORDS = new HashSet<>(Arrays.asList(
+            "a", "an", "and", "are", "as", "at", "be", "by", "do", "does", "for", "from", "how", "i", "in", "is", "it",
+            "of", "on", "or", "that", "the", "this", "to", "was", "what", "when", "where", "which", "who", "why", "with"));
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, Integer> termIds = new HashMap<>();
+    private PostingList[] postings = new PostingList[1024];
+    private int termCount;
+
+    private final Map<Integer, Document> documents = new HashMap<>();
+
+    /**
+     * This method adds the document, replacing its previous text if it is already indexed.
+     *
+     * @param id      - row id of the document
+     * @param ownerId - id of the row which owns the document, the document id itself if it has no owner
+     * @param text    - text to index
+     */
+    void put(final int id, final int ownerId, final String text) {
+        final String[] terms = tokenize(text);
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+            final int[] documentTerms = new int[terms.length];
+            for (int i = 0; i < terms.length; i++) {
+                final int termId = termIdLocked(terms[i]);
+                postings[termId].add(id);
+                documentTerms[i] = termId;
+            }
+            documents.put(id, new Document(ownerId, documentTerms));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * This method removes the document from the index, if it is indexed.
+     */
+    void remove(final int id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return - true if the document is indexed
+     */
+    boolean contains(final int id) {
+        lock.readLock().lock();
+        try {
+            return documents.containsKey(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * This method finds the documents which contain every term of the query, like plainto_tsquery does.
+     * The rank of a hit is the sum of the inverse document frequencies of the query terms, normalized by the number of
+     * distinct terms of the document, so that rare terms and short documents rank first.
+     *
+     * @param queryTerms - terms of the query, as returned by tokenize()
+     * @param collector  - receives the owner id and rank of every hit
+     */
+    void search(final String[] queryTerms, final HitCollector collector) {
+        if (queryTerms.length == 0) {
+            return;
+        }
+        lock.readLock().lock();
+        try {
+            final PostingList[] lists = new PostingList[queryTerms.length];
+            float idf = 0;
+            for (int i = 0; i < queryTerms.length; i++) {
+                final Integer termId = termIds.get(queryTerms[i]);
+                if (termId == null || postings[termId].size == 0) {
+                    return;
+                }
+                lists[i] = postings[termId];
+                idf += (float) Math.log(1 + (double) documents.size() / lists[i].size);
+            }
+            Arrays.sort(lists, (left, right) -> Integer.compare(left.size, right.size));
+
+            final PostingList shortest = lists[0];
+            final int[] positions = new int[lists.length];
+            candidates:
+            for (int i = 0; i < shortest.size; i++) {
+                final int id = shortest.ids[i];
+                for (int l = 1; l < lists.length; l++) {
+                    positions[l] = lists[l].seek(id, positions[l]);
+                    if (positions[l] == lists[l].size) {
+                        return;
+                    }
+                    if (lists[l].ids[positions[l]] != id) {
+                        continue candidates;
+                    }
+                }
+                final Document document = documents.get(id);
+                collector.collect(document.ownerId, idf / (float) Math.sqrt(document.terms.length));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * This method estimates the heap used by the index, assuming compressed object pointers.
+     *
+     * @return - approximate size of the index in bytes
+     */
+    long estimateBytes() {
+        lock.readLock().lock();
+        try {
+            long bytes = 16 + 4L * postings.length;
+            for (final Map.Entry<String, Integer> term : termIds.entrySet()) {
+                // hash map node, string, its byte array and the boxed term id
+                bytes += 32 + 24 + 16 + term.getKey().length() + 16;
+                final PostingList postingList = postings[term.getValue()];
+                bytes += 16 + 16 + 4L * postingList.ids.length;
+            }
+            for (final Document document : documents.values()) {
+                // hash map node, boxed document id, document and its term array
+                bytes += 32 + 16 + 16 + 16 + 4L * document.terms.length;
+            }
+            // hash map tables
+            bytes += 4L * (termIds.size() + documents.size()) * 2;
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * This method splits the text into its distinct, lower cased terms, dropping stop words and single characters.
+     * Words are not stemmed, so "index" and "indexes" are different terms.
+     *
+     * @param text - text of a document or a search query
+     * @return - distinct terms of the text
+     */
+    static String[] tokenize(final String text) {
+        if (text == null) {
+            return new String[0];
+        }
+        final Set<String> terms = new HashSet<>();
+        final String lowerCase = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lowerCase.length(); i++) {
+            final boolean wordCharacter = i < lowerCase.length() && Character.isLetterOrDigit(lowerCase.charAt(i));
+            if (wordCharacter && start < 0) {
+                start = i;
+            } else if (!wordCharacter && start >= 0) {
+                final String term = lowerCase.substring(start, i);
+                if (term.length() > 1 && !STOP_WORDS.contains(term)) {
+                    terms.add(term);
+                }
+                start = -1;
+            }
+        }
+        return terms.toArray(new String[0]);
+    }
+
+    private void removeLocked(final int id) {
+        final Document document = documents.remove(id);
+        if (document == null) {
+            return;
+        }
+        for (final int termId : document.terms) {
+            postings[termId].remove(id);
+        }
+    }
+
+    private int termIdLocked(final String term) {
+        final Integer termId = termIds.get(term);
+        if (termId != null) {
+            return termId;
+        }
+        if (termCount == postings.length) {
+            postings = Arrays.copyOf(postings, postings.length * 2);
+        }
+        postings[termCount] = new PostingList();
+        termIds.put(term, termCount);
+        return termCount++;
+    }
+
+    /**
+     * HitCollector receives the hits of a search, in ascending document id order.
+     */
+    @FunctionalInterface
+    interface HitCollector {
+        void collect(int ownerId, float rank);
+    }
+
+    private static final class Document {
+
+        private final int ownerId;
+        private final int[] terms;
+
+        private Document(final int ownerId, final int[] terms) {
+            this.ownerId = ownerId;
+            this.terms = terms;
+        }
+    }
+
+    /**
+     * PostingList is a growable, sorted array of document ids. Ids mostly arrive in ascending order, which appends.
+     */
+    private static final class PostingList {
+
+        private int[] ids = new int[4];
+        private int size;
+
+        private void add(final int id) {
+            if (size == 0 || ids[size - 1] < id) {
+                ensureCapacity();
+                ids[size++] = id;
+                return;
+            }
+            final int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0) {
+                return;
+            }
+            final int insertion = -position - 1;
+            ensureCapacity();
+            System.arraycopy(ids, insertion, ids, insertion + 1, size - insertion);
+            ids[insertion] = id;
+            size++;
+        }
+
+        private void remove(final int id) {
+            final int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position < 0) {
+                return;
+            }
+            System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+            size--;
+            if (size > 16 && size < ids.length / 4) {
+                ids = Arrays.copyOf(ids, ids.length / 2);
+            }
+        }
+
+        /**
+         * @return - position of the first id which is not less than the given id, starting the search at from
+         */
+        private int seek(final int id, final int from) {
+            if (from < size && ids[from] >= id) {
+                return from;
+            }
+            final int position = Arrays.binarySearch(ids, from, size, id);
+            return position >= 0 ? position : -position - 1;
+        }
+
+        private void ensureCapacity() {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, ids.length + (ids.length >> 1) + 1);
+            }
+        }
+    }
+}
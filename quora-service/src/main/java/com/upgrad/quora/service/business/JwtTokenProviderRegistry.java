@@ -0,0 +1,39 @@
+package com.upgrad.quora.service.business;
+
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * This class hands out the JwtTokenProvider which signs the access tokens.
+ * When the server-wide key (quora.jwt.secret) is configured, its provider is set up once and shared by every sign in;
+ * JwtTokenProvider is immutable and safe to share between threads.
+ * Otherwise the token is signed with the password of the user, and a provider is built per sign in and never kept:
+ * a provider holds its secret, so caching providers per user would keep plaintext passwords in the heap.
+ */
+@Component
+public class JwtTokenProviderRegistry {
+
+    private final JwtTokenProvider serverProvider;
+
+    public JwtTokenProviderRegistry(@Value("${quora.jwt.secret:}") final String serverSecret) {
+        this.serverProvider = StringUtils.isEmpty(serverSecret) ? null : new JwtTokenProvider(serverSecret);
+    }
+
+    /**
+     * This method returns the provider which signs the access token on sign in.
+     *
+     * @param secret - secret of the user, used only when no server-wide key is configured
+     * @return - the server-wide provider if configured, else a new provider of the secret
+     */
+    public JwtTokenProvider signingProvider(final String secret) {
+        return serverProvider != null ? serverProvider : new JwtTokenProvider(secret);
+    }
+
+    /**
+     * @return - the provider of the server-wide key, or null if quora.jwt.secret is not configured
+     */
+    public JwtTokenProvider serverProvider() {
+        return serverProvider;
+    }
+}
@@ -0,0 +1,42 @@
+package com.upgrad.quora.service.business;
+
+import java.util.List;
+
+/**
+ * Page holds one page of a keyset paginated list together with the cursor of the next page.
+ * A page of a list which was cut short, such as the hits of a search with too many matches to rank, is flagged as truncated.
+ */
+public final class Page<T> {
+
+    private final List<T> items;
+    private final String next;
+    private final boolean truncated;
+
+    public Page(final List<T> items, final String next) {
+        this(items, next, false);
+    }
+
+    public Page(final List<T> items, final String next, final boolean truncated) {
+        this.items = items;
+        this.next = next;
+        this.truncated = truncated;
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    /**
+     * @return - opaque cursor of the next page, or null if this is the last page
+     */
+    public String getNext() {
+        return next;
+    }
+
+    /**
+     * @return - true if the list the page was taken from misses some of the items it should hold
+     */
+    public boolean isTruncated() {
+        return truncated;
+    }
+}
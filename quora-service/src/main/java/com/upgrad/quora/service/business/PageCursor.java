@@ -0,0 +1,77 @@
+package com.upgrad.quora.service.business;
+
+import com.upgrad.quora.service.common.ExceptionStackTraces;
+import com.upgrad.quora.service.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Base64;
+
+/**
+ * PageCursor is the position of the last row of a page in a list ordered by (date, id) descending.
+ * It is handed to the client as an opaque url-safe string and decoded again when the client asks for the next page.
+ */
+public final class PageCursor {
+
+    private static final String SEPARATOR = ":";
+
+    private static final InvalidCursorException INVALID_CURSOR = new InvalidCursorException("CUR-001", "Invalid pagination cursor");
+
+    private final ZonedDateTime date;
+    private final Integer id;
+
+    public PageCursor(final ZonedDateTime date, final Integer id) {
+        this.date = date;
+        this.id = id;
+    }
+
+    public ZonedDateTime getDate() {
+        return date;
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    /**
+     * @return - opaque string form of the cursor
+     */
+    public String encode() {
+        final Instant instant = date.toInstant();
+        final String raw = instant.getEpochSecond() + SEPARATOR + instant.getNano() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * This method decodes the cursor received from the client.
+     *
+     * @param cursor - opaque string form of the cursor, null or empty for the first page
+     * @return - decoded cursor, or null for the first page
+     * @throws InvalidCursorException - CUR-001 if the cursor was not produced by encode()
+     */
+    public static PageCursor decode(final String cursor) throws InvalidCursorException {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        try {
+            final String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII).split(SEPARATOR);
+            if (parts.length != 3) {
+                throw invalidCursor();
+            }
+            final Instant instant = Instant.ofEpochSecond(Long.parseLong(parts[0]), Long.parseLong(parts[1]));
+            return new PageCursor(ZonedDateTime.ofInstant(instant, ZoneId.systemDefault()), Integer.valueOf(parts[2]));
+        } catch (IllegalArgumentException | DateTimeException e) {
+            throw invalidCursor();
+        }
+    }
+
+    /**
+     * @return - the CUR-001 rejection of a cursor which cannot be decoded, preallocated as it carries no detail
+     */
+    static InvalidCursorException invalidCursor() {
+        return ExceptionStackTraces.reuse(INVALID_CURSOR, () -> new InvalidCursorException("CUR-001", "Invalid pagination cursor"));
+    }
+}
@@ -1,48 +1,160 @@
 package com.upgrad.quora.service.business;
 
 
+import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
 import java.security.spec.InvalidKeySpecException;
+import java.nio.charset.StandardCharsets;
 import java.util.Base64;
 import java.util.Random;
+import javax.annotation.PostConstruct;
 import javax.crypto.SecretKey;
 import javax.crypto.SecretKeyFactory;
 import javax.crypto.spec.PBEKeySpec;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 
+/**
+ * This class hashes the passwords of the users.
+ * New hashes are stored in a self-describing format "$pbkdf2-sha512$iterations$keyLengthInBits$base64Salt$hexHash",
+ * so that the work factor can be raised without breaking the existing accounts.
+ * Legacy rows which only hold hex(hash) in USERS.PASSWORD are still verified with the original 1000 iterations and 64 bit key.
+ * verify() is the only way to compare a password: it also reports the stored passwords which signin should store again in the
+ * current format, i.e. the legacy ones and those hashed with fewer iterations than the current work factor.
+ */
 @Component
 public class PasswordCryptographyProvider {
 
+    private static final Logger LOG = LoggerFactory.getLogger(PasswordCryptographyProvider.class);
+
     private static String SECRET_KEY_ALGORITHM = "PBKDF2WithHmacSHA512";
-    private static int HASHING_ITERATIONS = 1000;
-    private static int HASHING_KEY_LENGTH = 64;
+    private static final String HASH_FORMAT_ID = "pbkdf2-sha512";
+    private static final String HASH_FORMAT_SEPARATOR = "$";
+    private static final int LEGACY_HASHING_ITERATIONS = 1000;
+    private static final int LEGACY_HASHING_KEY_LENGTH = 64;
+    private static final int MIN_HASHING_ITERATIONS = 10000;
+    private static final int CALIBRATION_ITERATIONS = 10000;
+    private static final int CALIBRATION_ROUNDS = 5;
     private final static char[] hexArray = "0123456789ABCDEF".toCharArray();
 
+    private static final ThreadLocal<SecretKeyFactory> SECRET_KEY_FACTORY = ThreadLocal.withInitial(() -> {
+        try {
+            return SecretKeyFactory.getInstance(SECRET_KEY_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    });
+
+    private static final ThreadLocal<Random> SECURE_RANDOM = ThreadLocal.withInitial(SecureRandom::new);
+
+    private volatile int hashingIterations;
+
+    private final int hashingKeyLength;
+
+    private final long calibrationTargetMillis;
+
+    public PasswordCryptographyProvider(@Value("${quora.password.hashing.iterations:210000}") final int hashingIterations,
+                                        @Value("${quora.password.hashing.key-length:512}") final int hashingKeyLength,
+                                        @Value("${quora.password.hashing.calibrate-target-millis:0}") final long calibrationTargetMillis) {
+        this.hashingIterations = Math.max(MIN_HASHING_ITERATIONS, hashingIterations);
+        this.hashingKeyLength = hashingKeyLength;
+        this.calibrationTargetMillis = calibrationTargetMillis;
+    }
+
+    /**
+     * This method picks the iteration count on startup when calibration is enabled, so that one hash takes about
+     * quora.password.hashing.calibrate-target-millis on the current hardware.
+     */
+    @PostConstruct
+    public void calibrate() {
+        if (calibrationTargetMillis <= 0) {
+            return;
+        }
+        final byte[] salt = generateSaltBytes();
+        final char[] password = "calibration".toCharArray();
+        hashPassword(password, salt, CALIBRATION_ITERATIONS, hashingKeyLength);
+
+        long fastestNanos = Long.MAX_VALUE;
+        for (int round = 0; round < CALIBRATION_ROUNDS; round++) {
+            final long start = System.nanoTime();
+            hashPassword(password, salt, CALIBRATION_ITERATIONS, hashingKeyLength);
+            fastestNanos = Math.min(fastestNanos, System.nanoTime() - start);
+        }
+
+        final long iterations = calibrationTargetMillis * 1_000_000L * CALIBRATION_ITERATIONS / Math.max(1L, fastestNanos);
+        hashingIterations = (int) Math.max(MIN_HASHING_ITERATIONS, Math.min(Integer.MAX_VALUE, iterations));
+        LOG.info("Calibrated password hashing to {} iterations for a target of {} ms per hash", hashingIterations, calibrationTargetMillis);
+    }
+
     /**
      * This method generates Salt and hashed Password
      *
      * @param password char array.
-     * @return String array with [0] encoded salt [1] hashed password.
+     * @return String array with [0] encoded salt [1] hashed password in the self-describing format.
      */
     public String[] encrypt(final String password) {
         byte[] salt = generateSaltBytes();
-        byte[] hashedPassword = hashPassword(password.toCharArray(), salt);
-        return new String[]{getBase64EncodedBytesAsString(salt), bytesToHex(hashedPassword)};
+        return new String[]{getBase64EncodedBytesAsString(salt), encode(password, salt, hashingIterations, hashingKeyLength)};
     }
 
     /**
-     * This method re-generates hashed Password from raw-password and salt.
-     * This will be used during authentication.
+     * This method checks the raw password against the stored password of the user, in either the current or the legacy format.
+     * A stored password which cannot be parsed, e.g. a legacy salt which is not base64, never matches.
      *
-     * @param password char array.
-     * @param salt     byte array.
-     * @return byte array of hashed password.
+     * @param password       - raw password received on sign in
+     * @param storedPassword - USERS.PASSWORD of the user
+     * @param storedSalt     - USERS.SALT of the user, only used by the legacy format
+     * @return - FAILED if the password does not match, MATCHED_NEEDS_REHASH if it matches but should be stored again, MATCHED otherwise
      */
-    public static String encrypt(final String password, String salt) {
-        return bytesToHex(hashPassword(password.toCharArray(), getBase64DecodedStringAsBytes(salt)));
+    public PasswordVerification verify(final String password, final String storedPassword, final String storedSalt) {
+        if (storedPassword == null || (isLegacyFormat(storedPassword) && storedSalt == null)) {
+            return PasswordVerification.FAILED;
+        }
+        final String computed;
+        final boolean needsRehash;
+        try {
+            if (isLegacyFormat(storedPassword)) {
+                computed = bytesToHex(hashPassword(password.toCharArray(), getBase64DecodedStringAsBytes(storedSalt),
+                        LEGACY_HASHING_ITERATIONS, LEGACY_HASHING_KEY_LENGTH));
+                needsRehash = true;
+            } else {
+                final String[] parts = storedPassword.split("\\$");
+                if (parts.length != 6 || !HASH_FORMAT_ID.equals(parts[1])) {
+                    return PasswordVerification.FAILED;
+                }
+                final int iterations = Integer.parseInt(parts[2]);
+                final int keyLength = Integer.parseInt(parts[3]);
+                computed = encode(password, getBase64DecodedStringAsBytes(parts[4]), iterations, keyLength);
+                needsRehash = iterations < hashingIterations || keyLength < hashingKeyLength;
+            }
+        } catch (IllegalArgumentException e) {
+            return PasswordVerification.FAILED;
+        }
+        if (!MessageDigest.isEqual(computed.getBytes(StandardCharsets.US_ASCII), storedPassword.getBytes(StandardCharsets.US_ASCII))) {
+            return PasswordVerification.FAILED;
+        }
+        return needsRehash ? PasswordVerification.MATCHED_NEEDS_REHASH : PasswordVerification.MATCHED;
+    }
+
+    public int getHashingIterations() {
+        return hashingIterations;
+    }
+
+    private static boolean isLegacyFormat(final String storedPassword) {
+        return !storedPassword.startsWith(HASH_FORMAT_SEPARATOR);
+    }
+
+    private static String encode(final String password, final byte[] salt, final int iterations, final int keyLength) {
+        return HASH_FORMAT_SEPARATOR + HASH_FORMAT_ID
+                + HASH_FORMAT_SEPARATOR + iterations
+                + HASH_FORMAT_SEPARATOR + keyLength
+                + HASH_FORMAT_SEPARATOR + getBase64EncodedBytesAsString(salt)
+                + HASH_FORMAT_SEPARATOR + bytesToHex(hashPassword(password.toCharArray(), salt, iterations, keyLength));
     }
 
     /**
@@ -51,7 +163,7 @@ public class PasswordCryptographyProvider {
      * @return 32 bytes long array
      */
     private static byte[] generateSaltBytes() {
-        final Random random = new SecureRandom();
+        final Random random = SECURE_RANDOM.get();
         byte[] saltBytes = new byte[32];
         random.nextBytes(saltBytes);
         return saltBytes;
@@ -59,24 +171,31 @@ public class PasswordCryptographyProvider {
 
     /**
      * This method generates hashed Password
+     * The SecretKeyFactory is cached per thread, as getInstance() walks the security providers on every call.
      *
-     * @param password char array.
-     * @param salt     byte array.
+     * @param password   char array.
+     * @param salt       byte array.
+     * @param iterations number of PBKDF2 iterations.
+     * @param keyLength  length of the derived key in bits.
      * @return byte array of hashed password.
      */
-    private static byte[] hashPassword(final char[] password, final byte[] salt) {
+    private static byte[] hashPassword(final char[] password, final byte[] salt, final int iterations, final int keyLength) {
         try {
-            SecretKeyFactory skf = SecretKeyFactory.getInstance(SECRET_KEY_ALGORITHM);
-            PBEKeySpec spec = new PBEKeySpec(password, salt, HASHING_ITERATIONS, HASHING_KEY_LENGTH);
+            SecretKeyFactory skf = SECRET_KEY_FACTORY.get();
+            PBEKeySpec spec = new PBEKeySpec(password, salt, iterations, keyLength);
             SecretKey key = skf.generateSecret(spec);
             byte[] res = key.getEncoded();
+            spec.clearPassword();
             return res;
-        } catch (NoSuchAlgorithmException | InvalidKeySpecException e) {
+        } catch (InvalidKeySpecException e) {
             throw new RuntimeException(e);
         }
     }
 
-    private static String bytesToHex(byte[] bytes) {
+    /**
+     * This method encodes the bytes as upper case hex. It is public for the PasswordCryptographyBenchmark of quora-bench.
+     */
+    public static String bytesToHex(byte[] bytes) {
         char[] hexChars = new char[bytes.length * 2];
         for (int j = 0; j < bytes.length; j++) {
             int v = bytes[j] & 0xFF;
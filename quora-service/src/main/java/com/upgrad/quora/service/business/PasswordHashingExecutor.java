@@ -0,0 +1,145 @@
+package com.upgrad.quora.service.business;
+
+import com.upgrad.quora.service.common.ExceptionStackTraces;
+import com.upgrad.quora.service.common.GenericErrorCode;
+import com.upgrad.quora.service.common.UnexpectedException;
+import com.upgrad.quora.service.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class runs the PBKDF2 password hashing of signup and signin on a dedicated, bounded thread pool.
+ * A burst of sign ins can then only use as many cores as the pool has threads, leaving the request threads free for cheap endpoints.
+ * When all the threads are busy and the queue is full the request is rejected at once with a ServiceUnavailableException (HTTP 503).
+ */
+@Component
+public class PasswordHashingExecutor implements MeterBinder {
+
+    private static final ServiceUnavailableException SATURATED =
+            new ServiceUnavailableException(GenericErrorCode.GEN_002.getCode(), GenericErrorCode.GEN_002.getDefaultMessage());
+
+    private final ThreadPoolExecutor executor;
+
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong hashCount = new AtomicLong();
+    private final AtomicLong hashNanos = new AtomicLong();
+
+    @Autowired
+    private PasswordCryptographyProvider passwordCryptographyProvider;
+
+    public PasswordHashingExecutor(@Value("${quora.password.hashing.pool-size:0}") final int poolSize,
+                                   @Value("${quora.password.hashing.queue-capacity:64}") final int queueCapacity) {
+        final int threads = poolSize > 0 ? poolSize : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        final AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+            final Thread thread = new Thread(runnable, "password-hashing-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * This method generates the salt and hashed password of a new user on the hashing pool.
+     *
+     * @param password - raw password of the user
+     * @return - String array with [0] encoded salt [1] hashed password
+     * @throws ServiceUnavailableException - if the hashing pool is saturated
+     */
+    public String[] encrypt(final String password) throws ServiceUnavailableException {
+        return execute(() -> passwordCryptographyProvider.encrypt(password));
+    }
+
+    /**
+     * This method checks the raw password against the stored password of the user on the hashing pool.
+     * When the outcome is MATCHED_NEEDS_REHASH the caller should store encrypt(password) in place of the stored password.
+     *
+     * @param password       - raw password received on sign in
+     * @param storedPassword - USERS.PASSWORD of the user
+     * @param storedSalt     - USERS.SALT of the user
+     * @return - outcome of PasswordCryptographyProvider.verify()
+     * @throws ServiceUnavailableException - if the hashing pool is saturated
+     */
+    public PasswordVerification verify(final String password, final String storedPassword, final String storedSalt) throws ServiceUnavailableException {
+        return execute(() -> passwordCryptographyProvider.verify(password, storedPassword, storedSalt));
+    }
+
+    private <T> T execute(final Callable<T> hashing) throws ServiceUnavailableException {
+        final Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                final long start = System.nanoTime();
+                try {
+                    return hashing.call();
+                } finally {
+                    hashNanos.addAndGet(System.nanoTime() - start);
+                    hashCount.incrementAndGet();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            throw ExceptionStackTraces.reuse(SATURATED,
+                    () -> new ServiceUnavailableException(GenericErrorCode.GEN_002.getCode(), GenericErrorCode.GEN_002.getDefaultMessage()));
+        }
+
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new UnexpectedException(GenericErrorCode.GEN_001, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new UnexpectedException(GenericErrorCode.GEN_001, e.getCause());
+        }
+    }
+
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    @Override
+    public void bindTo(final MeterRegistry registry) {
+        Gauge.builder("quora.password.hashing.queue.depth", this, PasswordHashingExecutor::getQueueDepth)
+                .description("Hashing tasks waiting for a thread").register(registry);
+        Gauge.builder("quora.password.hashing.active", this, PasswordHashingExecutor::getActiveCount)
+                .description("Hashing threads currently busy").register(registry);
+        FunctionCounter.builder("quora.password.hashing.rejected", this, PasswordHashingExecutor::getRejectedCount)
+                .description("Hashing tasks rejected because the pool was saturated").register(registry);
+        FunctionTimer.builder("quora.password.hashing.latency", this,
+                executor -> executor.hashCount.get(), executor -> executor.hashNanos.get(), TimeUnit.NANOSECONDS)
+                .description("Time spent hashing passwords on the pool").register(registry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
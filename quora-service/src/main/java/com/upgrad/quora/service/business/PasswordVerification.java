@@ -0,0 +1,27 @@
+package com.upgrad.quora.service.business;
+
+/**
+ * This enum is the outcome of checking a raw password against the stored password of a user.
+ */
+public enum PasswordVerification {
+
+    /**
+     * The password does not match, or the stored password cannot be read.
+     */
+    FAILED,
+
+    /**
+     * The password matches and the stored password uses the current work factor.
+     */
+    MATCHED,
+
+    /**
+     * The password matches, but the stored password is in the legacy format or uses a lower work factor than the current one,
+     * so it should be hashed again and stored.
+     */
+    MATCHED_NEEDS_REHASH;
+
+    public boolean isMatched() {
+        return this != FAILED;
+    }
+}
@@ -0,0 +1,239 @@
+package com.upgrad.quora.service.business;
+
+import com.upgrad.quora.service.dao.QuestionDao;
+import com.upgrad.quora.service.dao.QuestionSearchDao;
+import com.upgrad.quora.service.dao.ResourceVersionDao;
+import com.upgrad.quora.service.dao.StreamingDao;
+import com.upgrad.quora.service.dao.UserDao;
+import com.upgrad.quora.service.entity.QuestionEntity;
+import com.upgrad.quora.service.entity.UserEntity;
+import com.upgrad.quora.service.exception.AuthorizationFailedException;
+import com.upgrad.quora.service.exception.InvalidCursorException;
+import com.upgrad.quora.service.exception.UserNotFoundException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class contains the business logic of the question endpoints.
+ */
+@Service
+public class QuestionBusinessService {
+
+    @Autowired
+    private QuestionDao questionDao;
+
+    @Autowired
+    private UserDao userDao;
+
+    @Autowired
+    private StreamingDao streamingDao;
+
+    @Autowired
+    private QuestionSearchDao questionSearchDao;
+
+    @Autowired
+    private ResourceVersionDao resourceVersionDao;
+
+    @Autowired(required = false)
+    private QuestionSearchIndex questionSearchIndex;
+
+    @Autowired
+    private UserAuthBusinessService userAuthBusinessService;
+
+    @Value("${quora.pagination.default-limit:20}")
+    private int defaultLimit;
+
+    @Value("${quora.pagination.max-limit:100}")
+    private int maxLimit;
+
+    /**
+     * This method returns one page of all the questions, newest first.
+     *
+     * @param accessToken - access token received in the authorization header
+     * @param cursor      - cursor of the page received from the client, null for the first page
+     * @param limit       - requested page size, null for the default
+     * @return - page of questions with the cursor of the next page
+     * @throws AuthorizationFailedException - ATHR-001 if the token does not exist, ATHR-002 if the user has signed out
+     * @throws InvalidCursorException       - CUR-001 if the cursor cannot be decoded
+     */
+    @Transactional(readOnly = true)
+    public Page<QuestionEntity> getAllQuestions(final String accessToken, final String cursor, final Integer limit)
+            throws AuthorizationFailedException, InvalidCursorException {
+        userAuthBusinessService.authorizeStateless(accessToken, "User is signed out.Sign in first to get all questions");
+        final PageCursor after = PageCursor.decode(cursor);
+        final int pageSize = pageSize(limit);
+        final List<QuestionEntity> questions = after == null
+                ? questionDao.getQuestionsPage(null, null, pageSize + 1)
+                : questionDao.getQuestionsPage(after.getDate(), after.getId(), pageSize + 1);
+        return toPage(questions, pageSize);
+    }
+
+    /**
+     * This method returns the version of all the questions, which the ETag of /question/all is derived from.
+     * It must be read before the page, so that an ETag never claims a newer version than the body it is sent with.
+     *
+     * @param accessToken - access token received in the authorization header
+     * @return - version of the QUESTION table
+     * @throws AuthorizationFailedException - ATHR-001 if the token does not exist, ATHR-002 if the user has signed out
+     */
+    @Transactional(readOnly = true)
+    public long getAllQuestionsVersion(final String accessToken) throws AuthorizationFailedException {
+        userAuthBusinessService.authorizeStateless(accessToken, "User is signed out.Sign in first to get all questions");
+        return resourceVersionDao.getQuestionCollectionVersion();
+    }
+
+    /**
+     * This method streams all the questions to the handler straight from a database cursor, for the bulk export mode of /question/all.
+     * The access token is checked before the first row is read.
+     *
+     * @param accessToken - access token received in the authorization header
+     * @param handler     - receives the uuid and content of every question
+     * @throws AuthorizationFailedException - ATHR-001 if the token does not exist, ATHR-002 if the user has signed out
+     */
+    @Transactional(readOnly = true)
+    public void streamAllQuestions(final String accessToken, final StreamingDao.QuestionRowHandler handler) throws AuthorizationFailedException {
+        userAuthBusinessService.authorizeStateless(accessToken, "User is signed out.Sign in first to get all questions");
+        streamingDao.streamAllQuestions(handler);
+    }
+
+    /**
+     * This method returns one page of the questions posted by the user, newest first.
+     *
+     * @param accessToken - access token received in the authorization header
+     * @param userUuid    - uuid of the user whose questions are to be fetched
+     * @param cursor      - cursor of the page received from the client, null for the first page
+     * @param limit       - requested page size, null for the default
+     * @return - page of questions with the cursor of the next page
+     * @throws AuthorizationFailedException - ATHR-001 if the token does not exist, ATHR-002 if the user has signed out
+     * @throws UserNotFoundException        - USR-001 if the user does not exist
+     * @throws InvalidCursorException       - CUR-001 if the cursor cannot be decoded
+     */
+    @Transactional(readOnly = true)
+    public Page<QuestionEntity> getAllQuestionsByUser(final String accessToken, final String userUuid, final String cursor, final Integer limit)
+            throws AuthorizationFailedException, UserNotFoundException, InvalidCursorException {
+        userAuthBusinessService.authorizeStateless(accessToken, "User is signed out.Sign in first to get all questions posted by a specific user");
+        final UserEntity user = userDao.getUserByUuid(userUuid);
+        if (user == null) {
+            throw new UserNotFoundException("USR-001", "User with entered uuid whose question details are to be seen does not exist");
+        }
+        final PageCursor after = PageCursor.decode(cursor);
+        final int pageSize = pageSize(limit);
+        final List<QuestionEntity> questions = after == null
+                ? questionDao.getQuestionsPageByUser(user.getId(), null, null, pageSize + 1)
+                : questionDao.getQuestionsPageByUser(user.getId(), after.getDate(), after.getId(), pageSize + 1);
+        return toPage(questions, pageSize);
+    }
+
+    /**
+     * This method returns the version of the questions posted by the user, which the ETag of /question/all/{userId} is derived from.
+     *
+     * @param accessToken - access token received in the authorization header
+     * @param userUuid    - uuid of the user whose questions are to be fetched
+     * @return - version of the QUESTION table
+     * @throws AuthorizationFailedException - ATHR-001 if the token does not exist, ATHR-002 if the user has signed out
+     * @throws UserNotFoundException        - USR-001 if the user does not exist
+     */
+    @Transactional(readOnly = true)
+    public long getAllQuestionsByUserVersion(final String accessToken, final String userUuid)
+            throws AuthorizationFailedException, UserNotFoundException {
+        userAuthBusinessService.authorizeStateless(accessToken, "User is signed out.Sign in first to get all questions posted by a specific user");
+        if (resourceVersionDao.getUserVersion(userUuid) == null) {
+            throw new UserNotFoundException("USR-001", "User with entered uuid whose question details are to be seen does not exist");
+        }
+        return resourceVersionDao.getQuestionCollectionVersion();
+    }
+
+    /**
+     * This method returns one page of the questions whose content matches the search text, best match first.
+     *
+     * @param accessToken - access token received in the authorization header
+     * @param text        - search text
+     * @param cursor      - cursor of the page received from the client, null for the first page
+     * @param limit       - requested page size, null for the default
+     * @return - page of matching questions with the cursor of the next page, flagged as truncated if the search text has
+     * more matches than the database search ranks
+     * @throws AuthorizationFailedException - ATHR-001 if the token does not exist, ATHR-002 if the user has signed out
+     * @throws InvalidCursorException       - CUR-001 if the cursor cannot be decoded, or was produced by the other search
+     */
+    @Transactional(readOnly = true)
+    public Page<QuestionEntity> searchQuestions(final String accessToken, final String text, final String cursor, final Integer limit)
+            throws AuthorizationFailedException, InvalidCursorException {
+        userAuthBusinessService.authorizeStateless(accessToken, "User is signed out.Sign in first to search questions");
+        final boolean inMemory = questionSearchIndex != null && questionSearchIndex.isReady();
+        final SearchCursor after = SearchCursor.decode(cursor, inMemory ? SearchCursor.Source.IN_MEMORY : SearchCursor.Source.DATABASE);
+        if (text == null || text.trim().isEmpty()) {
+            return new Page<>(Collections.<QuestionEntity>emptyList(), null);
+        }
+        final int pageSize = pageSize(limit);
+        if (inMemory) {
+            return searchQuestionsInMemory(text, after, pageSize);
+        }
+        final List<Object[]> hits = after == null
+                ? questionSearchDao.search(text, null, null, pageSize + 1)
+                : questionSearchDao.search(text, after.getRank(), after.getId(), pageSize + 1);
+
+        final List<QuestionEntity> items = new ArrayList<>(Math.min(hits.size(), pageSize));
+        for (int i = 0; i < hits.size() && i < pageSize; i++) {
+            items.add((QuestionEntity) hits.get(i)[0]);
+        }
+        final boolean truncated = !hits.isEmpty() && Boolean.TRUE.equals(hits.get(0)[2]);
+        if (hits.size() <= pageSize) {
+            return new Page<>(items, null, truncated);
+        }
+        final Object[] last = hits.get(pageSize - 1);
+        return new Page<>(items, new SearchCursor(SearchCursor.Source.DATABASE, (Float) last[1], ((QuestionEntity) last[0]).getId()).encode(), truncated);
+    }
+
+    /**
+     * This method matches and ranks the questions with the in-memory search index, and only loads the questions of the page.
+     */
+    private Page<QuestionEntity> searchQuestionsInMemory(final String text, final SearchCursor after, final int pageSize) {
+        final List<SearchCursor> hits = questionSearchIndex.search(text, after, pageSize + 1);
+        final List<Integer> ids = new ArrayList<>(Math.min(hits.size(), pageSize));
+        for (int i = 0; i < hits.size() && i < pageSize; i++) {
+            ids.add(hits.get(i).getId());
+        }
+        final Map<Integer, QuestionEntity> questionsById = new HashMap<>();
+        for (final QuestionEntity question : questionDao.getQuestionsByIds(ids)) {
+            questionsById.put(question.getId(), question);
+        }
+        final List<QuestionEntity> items = new ArrayList<>(ids.size());
+        for (final Integer id : ids) {
+            final QuestionEntity question = questionsById.get(id);
+            if (question != null) {
+                items.add(question);
+            }
+        }
+        if (hits.size() <= pageSize) {
+            return new Page<>(items, null);
+        }
+        return new Page<>(items, hits.get(pageSize - 1).encode());
+    }
+
+    private int pageSize(final Integer limit) {
+        if (limit == null || limit <= 0) {
+            return defaultLimit;
+        }
+        return Math.min(limit, maxLimit);
+    }
+
+    /**
+     * One row more than the page size is fetched, so that the next cursor is only handed out when there really is a next page.
+     */
+    private static Page<QuestionEntity> toPage(final List<QuestionEntity> questions, final int pageSize) {
+        if (questions.size() <= pageSize) {
+            return new Page<>(questions, null);
+        }
+        final List<QuestionEntity> items = questions.subList(0, pageSize);
+        final QuestionEntity last = items.get(pageSize - 1);
+        return new Page<>(items, new PageCursor(last.getDate(), last.getId()).encode());
+    }
+}
@@ -0,0 +1,206 @@
+package com.upgrad.quora.service.business;
+
+import com.upgrad.quora.service.dao.StreamingDao;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class is the optional in-memory search index over QUESTION.CONTENT and ANSWER.ANS, for deployments which cannot
+ * rely on the Postgres full-text search. It is enabled with quora.search.in-memory.enabled.
+ * The index is built by streaming both tables once the application has started, and is then kept up to date by
+ * SearchIndexEventListener as questions and answers are created, edited and deleted. Updates which arrive while the
+ * index is being rebuilt are applied to the live index and replayed on the new one before it replaces the live one.
+ * A question matches when its content or the content of one of its answers contains every term of the search text.
+ */
+@Component
+@ConditionalOnProperty(prefix = "quora.search.in-memory", name = "enabled", havingValue = "true")
+public class QuestionSearchIndex implements MeterBinder {
+
+    private static final Logger LOG = LoggerFactory.getLogger(QuestionSearchIndex.class);
+
+    private static final Comparator<SearchCursor> BEST_FIRST =
+            Comparator.comparing(SearchCursor::getRank).thenComparing(SearchCursor::getId).reversed();
+
+    private final Object updateLock = new Object();
+
+    private volatile InvertedIndex questions = new InvertedIndex();
+    private volatile InvertedIndex answers = new InvertedIndex();
+    private volatile boolean ready;
+
+    private List<Update> pendingUpdates;
+
+    private volatile long rebuildMillis;
+    private volatile long bytesPerMillionDocuments;
+
+    @Autowired
+    private StreamingDao streamingDao;
+
+    /**
+     * This method rebuilds the index from the QUESTION and ANSWER tables, and swaps it in once it is complete.
+     * Searches keep using the previous index, or the database before the first build, while the rebuild runs.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        synchronized (updateLock) {
+            if (pendingUpdates != null) {
+                return;
+            }
+            pendingUpdates = new ArrayList<>();
+        }
+        final long start = System.nanoTime();
+        final InvertedIndex newQuestions = new InvertedIndex();
+        final InvertedIndex newAnswers = new InvertedIndex();
+        try {
+            streamingDao.streamQuestionContents((id, content) -> newQuestions.put(id, id, content));
+            streamingDao.streamAnswerContents((id, questionId, content) -> newAnswers.put(id, questionId, content));
+        } catch (RuntimeException e) {
+            synchronized (updateLock) {
+                pendingUpdates = null;
+            }
+            throw e;
+        }
+        synchronized (updateLock) {
+            for (final Update update : pendingUpdates) {
+                update.apply(newQuestions, newAnswers);
+            }
+            pendingUpdates = null;
+            questions = newQuestions;
+            answers = newAnswers;
+            ready = true;
+        }
+
+        rebuildMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        final long documents = newQuestions.size() + newAnswers.size();
+        final long bytes = newQuestions.estimateBytes() + newAnswers.estimateBytes();
+        bytesPerMillionDocuments = documents == 0 ? 0 : bytes * 1_000_000 / documents;
+        LOG.info("Built in-memory search index of {} questions and {} answers in {} ms, using about {} MB ({} MB per million documents)",
+                newQuestions.size(), newAnswers.size(), rebuildMillis, bytes >> 20, bytesPerMillionDocuments >> 20);
+    }
+
+    /**
+     * @return - true once the index has been built and can serve searches
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * This method returns one page of the ids of the questions matching the search text, best match first.
+     *
+     * @param text  - search text
+     * @param after - position of the last hit of the previous page, null for the first page
+     * @param limit - maximum number of hits in the page
+     * @return - (rank, question id) of the hits, ordered by rank and id descending
+     */
+    public List<SearchCursor> search(final String text, final SearchCursor after, final int limit) {
+        final String[] terms = InvertedIndex.tokenize(text);
+        if (terms.length == 0 || limit <= 0) {
+            return Collections.emptyList();
+        }
+        final InvertedIndex questions = this.questions;
+        final InvertedIndex answers = this.answers;
+
+        final Map<Integer, Float> answerRanks = new HashMap<>();
+        answers.search(terms, (questionId, rank) -> answerRanks.merge(questionId, rank, Math::max));
+
+        final PriorityQueue<SearchCursor> top = new PriorityQueue<>(limit + 1, BEST_FIRST.reversed());
+        questions.search(terms, (questionId, rank) -> {
+            final Float answerRank = answerRanks.remove(questionId);
+            offer(top, new SearchCursor(SearchCursor.Source.IN_MEMORY, answerRank == null ? rank : Math.max(rank, answerRank), questionId), after, limit);
+        });
+        for (final Map.Entry<Integer, Float> answerRank : answerRanks.entrySet()) {
+            // answers of deleted questions are removed by the database cascade without an event, so skip them here
+            if (questions.contains(answerRank.getKey())) {
+                offer(top, new SearchCursor(SearchCursor.Source.IN_MEMORY, answerRank.getValue(), answerRank.getKey()), after, limit);
+            }
+        }
+
+        final List<SearchCursor> hits = new ArrayList<>(top);
+        hits.sort(BEST_FIRST);
+        return hits;
+    }
+
+    public void indexQuestion(final int id, final String content) {
+        update((questions, answers) -> questions.put(id, id, content));
+    }
+
+    public void removeQuestion(final int id) {
+        update((questions, answers) -> questions.remove(id));
+    }
+
+    public void indexAnswer(final int id, final int questionId, final String content) {
+        update((questions, answers) -> answers.put(id, questionId, content));
+    }
+
+    public void removeAnswer(final int id) {
+        update((questions, answers) -> answers.remove(id));
+    }
+
+    @Override
+    public void bindTo(final MeterRegistry registry) {
+        Gauge.builder("quora.search.index.documents", this, index -> index.questions.size())
+                .tag("type", "question")
+                .description("Number of questions in the in-memory search index")
+                .register(registry);
+        Gauge.builder("quora.search.index.documents", this, index -> index.answers.size())
+                .tag("type", "answer")
+                .description("Number of answers in the in-memory search index")
+                .register(registry);
+        Gauge.builder("quora.search.index.memory.per.million.documents", this, index -> index.bytesPerMillionDocuments)
+                .baseUnit("bytes")
+                .description("Estimated heap used by the in-memory search index per million documents, as of the last rebuild")
+                .register(registry);
+        TimeGauge.builder("quora.search.index.rebuild", this, TimeUnit.MILLISECONDS, index -> index.rebuildMillis)
+                .description("Duration of the last rebuild of the in-memory search index")
+                .register(registry);
+    }
+
+    private void update(final Update update) {
+        synchronized (updateLock) {
+            update.apply(questions, answers);
+            if (pendingUpdates != null) {
+                pendingUpdates.add(update);
+            }
+        }
+    }
+
+    private static void offer(final PriorityQueue<SearchCursor> top, final SearchCursor hit, final SearchCursor after, final int limit) {
+        if (after != null && BEST_FIRST.compare(hit, after) <= 0) {
+            return;
+        }
+        if (top.size() < limit) {
+            top.add(hit);
+        } else if (BEST_FIRST.compare(hit, top.peek()) < 0) {
+            top.poll();
+            top.add(hit);
+        }
+    }
+
+    /**
+     * Update is a change to the question and answer indexes.
+     */
+    @FunctionalInterface
+    private interface Update {
+        void apply(InvertedIndex questions, InvertedIndex answers);
+    }
+}
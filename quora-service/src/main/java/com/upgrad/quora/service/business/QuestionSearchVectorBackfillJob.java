@@ -0,0 +1,58 @@
+package com.upgrad.quora.service.business;
+
+import com.upgrad.quora.service.dao.QuestionSearchDao;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * This class fills the full-text search vector of the questions which were created before the migration which added it.
+ * New and edited questions get their vector from a database trigger, so the job only has work to do once, after the migration.
+ * Each batch runs in its own short transaction, so the job never holds locks on the whole table; on every later startup it
+ * finds no question left in the partial index of the missing vectors and returns right away.
+ */
+@Component
+public class QuestionSearchVectorBackfillJob {
+
+    private static final Logger LOG = LoggerFactory.getLogger(QuestionSearchVectorBackfillJob.class);
+
+    @Autowired
+    private QuestionSearchDao questionSearchDao;
+
+    @Value("${quora.search.backfill.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${quora.search.backfill.on-startup:true}")
+    private boolean backfillOnStartup;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        if (backfillOnStartup) {
+            backfill();
+        }
+    }
+
+    /**
+     * This method fills the search vector of every question which has none yet.
+     *
+     * @return - number of questions filled
+     */
+    public long backfill() {
+        long filled = 0;
+        List<Integer> batch;
+        do {
+            batch = questionSearchDao.backfillBatch(batchSize);
+            filled += batch.size();
+        } while (batch.size() == batchSize);
+        if (filled > 0) {
+            LOG.info("Filled the search vector of {} questions", filled);
+        }
+        return filled;
+    }
+}
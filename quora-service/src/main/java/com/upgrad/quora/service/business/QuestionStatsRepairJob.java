@@ -0,0 +1,80 @@
+package com.upgrad.quora.service.business;
+
+import com.upgrad.quora.service.dao.QuestionStatsDao;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * This class recomputes the answer count and last answer date of every question from the ANSWER table, in batches of questions.
+ * The columns are normally kept up to date by a database trigger; the job backfills them after the migration which added them
+ * and repairs any drift. Each batch runs in its own short transaction, so the job never holds locks on the whole table.
+ */
+@Component
+public class QuestionStatsRepairJob {
+
+    private static final Logger LOG = LoggerFactory.getLogger(QuestionStatsRepairJob.class);
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Autowired
+    private QuestionStatsDao questionStatsDao;
+
+    @Autowired
+    private SecondLevelCacheEvictionListener secondLevelCacheEvictionListener;
+
+    @Value("${quora.question.stats.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${quora.question.stats.repair-on-startup:false}")
+    private boolean repairOnStartup;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void repairOnStartup() {
+        if (repairOnStartup) {
+            repair();
+        }
+    }
+
+    @Scheduled(cron = "${quora.question.stats.repair-cron:-}")
+    public void scheduledRepair() {
+        repair();
+    }
+
+    /**
+     * This method repairs the statistics of all the questions, unless a repair is already running.
+     *
+     * @return - number of questions repaired
+     */
+    public long repair() {
+        if (!running.compareAndSet(false, true)) {
+            return 0;
+        }
+        try {
+            long repaired = 0;
+            int afterId = 0;
+            List<Integer> batch;
+            do {
+                batch = questionStatsDao.repairBatch(afterId, batchSize);
+                if (!batch.isEmpty()) {
+                    secondLevelCacheEvictionListener.evictQuestions(batch);
+                    afterId = Collections.max(batch);
+                    repaired += batch.size();
+                }
+            } while (batch.size() == batchSize);
+            LOG.info("Repaired the answer statistics of {} questions", repaired);
+            return repaired;
+        } finally {
+            running.set(false);
+        }
+    }
+}
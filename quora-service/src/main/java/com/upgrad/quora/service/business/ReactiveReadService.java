@@ -0,0 +1,226 @@
+package com.upgrad.quora.service.business;
+
+import com.upgrad.quora.service.dao.ReactiveReadDao;
+import com.upgrad.quora.service.entity.AnswerEntity;
+import com.upgrad.quora.service.entity.QuestionEntity;
+import com.upgrad.quora.service.entity.UserEntity;
+import com.upgrad.quora.service.exception.AuthorizationFailedException;
+import com.upgrad.quora.service.exception.InvalidCursorException;
+import com.upgrad.quora.service.exception.InvalidQuestionException;
+import com.upgrad.quora.service.exception.UserNotFoundException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * This class contains the business logic of the reactive read API, the non-blocking counterpart of the read methods of
+ * QuestionBusinessService, AnswerBusinessService and CommonBusinessService. It is enabled with quora.reactive.enabled.
+ * The checks, error codes and messages are the same as the ones of the servlet endpoints; the errors are signalled through
+ * the returned publishers instead of being thrown.
+ */
+@Service
+@ConditionalOnProperty(prefix = "quora.reactive", name = "enabled", havingValue = "true")
+public class ReactiveReadService {
+
+    private static final String GET_QUESTIONS_SIGNED_OUT_MESSAGE = "User is signed out.Sign in first to get all questions";
+
+    private static final String GET_USER_QUESTIONS_SIGNED_OUT_MESSAGE = "User is signed out.Sign in first to get all questions posted by a specific user";
+
+    private static final String GET_ANSWERS_SIGNED_OUT_MESSAGE = "User is signed out.Sign in first to get the answers";
+
+    private static final String GET_USER_SIGNED_OUT_MESSAGE = "User is signed out.Sign in first to get user details";
+
+    @Autowired
+    private ReactiveReadDao reactiveReadDao;
+
+    @Autowired
+    private AccessTokenVerifier accessTokenVerifier;
+
+    @Autowired
+    private UserAuthTokenCache userAuthTokenCache;
+
+    @Value("${quora.pagination.default-limit:20}")
+    private int defaultLimit;
+
+    @Value("${quora.pagination.max-limit:100}")
+    private int maxLimit;
+
+    /**
+     * This method checks the access token like UserAuthBusinessService.authorizeStateless(): a valid server-signed token is
+     * accepted without any database access, and any other token is looked up in the UserAuthTokenCache before USER_AUTH.
+     *
+     * @param accessToken      - access token received in the authorization header
+     * @param signedOutMessage - endpoint specific message of the ATHR-002 error
+     * @return - uuid of the signed in user, or an AuthorizationFailedException with ATHR-001 if the access token does not exist
+     * and ATHR-002 if the user has signed out
+     */
+    public Mono<String> authorize(final String accessToken, final String signedOutMessage) {
+        final String userUuid = accessTokenVerifier.verify(accessToken);
+        if (userUuid != null) {
+            return Mono.just(userUuid);
+        }
+        final long generation = userAuthTokenCache.getGeneration();
+        final UserAuthSession cached = userAuthTokenCache.getIfPresent(accessToken);
+        final Mono<UserAuthSession> session = cached != null ? Mono.just(cached)
+                : reactiveReadDao.getUserAuthByAccessToken(accessToken).map(UserAuthSession::of)
+                .doOnNext(s -> userAuthTokenCache.put(s, generation));
+        return session
+                .switchIfEmpty(Mono.error(UserAuthBusinessService::notSignedIn))
+                .flatMap(s -> s.isSignedOut()
+                        ? Mono.<String>error(new AuthorizationFailedException("ATHR-002", signedOutMessage))
+                        : Mono.just(s.getUserUuid()));
+    }
+
+    /**
+     * This method returns the version of all the questions, which the ETag of /question/all is derived from.
+     */
+    public Mono<Long> getAllQuestionsVersion(final String accessToken) {
+        return authorize(accessToken, GET_QUESTIONS_SIGNED_OUT_MESSAGE).then(reactiveReadDao.getQuestionCollectionVersion());
+    }
+
+    /**
+     * This method returns one page of all the questions, newest first.
+     *
+     * @param accessToken - access token received in the authorization header
+     * @param cursor      - cursor of the page received from the client, null for the first page
+     * @param limit       - requested page size, null for the default
+     * @return - page of questions with the cursor of the next page, or an InvalidCursorException with CUR-001
+     */
+    public Mono<Page<QuestionEntity>> getAllQuestions(final String accessToken, final String cursor, final Integer limit) {
+        final int pageSize = pageSize(limit);
+        return authorize(accessToken, GET_QUESTIONS_SIGNED_OUT_MESSAGE)
+                .then(decode(cursor))
+                .flatMapMany(after -> reactiveReadDao.getQuestionsPage(after.getDate(), after.getId(), pageSize + 1))
+                .collectList()
+                .map(questions -> toPage(questions, pageSize));
+    }
+
+    /**
+     * This method streams all the questions, for the bulk export mode of /question/all.
+     * The access token is checked before the first row is read.
+     */
+    public Flux<QuestionEntity> streamAllQuestions(final String accessToken) {
+        return authorize(accessToken, GET_QUESTIONS_SIGNED_OUT_MESSAGE).thenMany(reactiveReadDao.streamAllQuestions());
+    }
+
+    /**
+     * This method returns the version of the questions posted by the user, which the ETag of /question/all/{userId} is derived from.
+     */
+    public Mono<Long> getAllQuestionsByUserVersion(final String accessToken, final String userUuid) {
+        return authorize(accessToken, GET_USER_QUESTIONS_SIGNED_OUT_MESSAGE)
+                .then(reactiveReadDao.getUserVersion(userUuid))
+                .switchIfEmpty(Mono.error(ReactiveReadService::questionOwnerNotFound))
+                .then(reactiveReadDao.getQuestionCollectionVersion());
+    }
+
+    /**
+     * This method returns one page of the questions posted by the user, newest first.
+     *
+     * @param accessToken - access token received in the authorization header
+     * @param userUuid    - uuid of the user whose questions are to be fetched
+     * @param cursor      - cursor of the page received from the client, null for the first page
+     * @param limit       - requested page size, null for the default
+     * @return - page of questions with the cursor of the next page, or a UserNotFoundException with USR-001 if the user does not exist
+     */
+    public Mono<Page<QuestionEntity>> getAllQuestionsByUser(final String accessToken, final String userUuid, final String cursor,
+                                                            final Integer limit) {
+        final int pageSize = pageSize(limit);
+        return authorize(accessToken, GET_USER_QUESTIONS_SIGNED_OUT_MESSAGE)
+                .then(reactiveReadDao.getUserIdByUuid(userUuid))
+                .switchIfEmpty(Mono.error(ReactiveReadService::questionOwnerNotFound))
+                .flatMap(userId -> decode(cursor).flatMap(after ->
+                        reactiveReadDao.getQuestionsPageByUser(userId, after.getDate(), after.getId(), pageSize + 1).collectList()))
+                .map(questions -> toPage(questions, pageSize));
+    }
+
+    /**
+     * This method returns the version of the answers to the question, which the ETag of /answer/all/{questionId} is derived from.
+     */
+    public Mono<Long> getAllAnswersToQuestionVersion(final String accessToken, final String questionUuid) {
+        return authorize(accessToken, GET_ANSWERS_SIGNED_OUT_MESSAGE)
+                .then(reactiveReadDao.getQuestionVersion(questionUuid))
+                .switchIfEmpty(Mono.error(ReactiveReadService::questionNotFound));
+    }
+
+    /**
+     * This method streams all the answers posted to the question, oldest first.
+     *
+     * @param accessToken  - access token received in the authorization header
+     * @param questionUuid - uuid of the question
+     * @return - answers to the question, or an InvalidQuestionException with QUES-001 if the question does not exist
+     */
+    public Flux<AnswerEntity> getAllAnswersToQuestion(final String accessToken, final String questionUuid) {
+        return authorize(accessToken, GET_ANSWERS_SIGNED_OUT_MESSAGE)
+                .then(reactiveReadDao.getQuestionIdByUuid(questionUuid))
+                .switchIfEmpty(Mono.error(ReactiveReadService::questionNotFound))
+                .flatMapMany(reactiveReadDao::streamAllAnswersToQuestion);
+    }
+
+    /**
+     * This method returns the version of the user, which the ETag of /userprofile/{userId} is derived from.
+     */
+    public Mono<Long> getUserVersion(final String accessToken, final String userUuid) {
+        return authorize(accessToken, GET_USER_SIGNED_OUT_MESSAGE)
+                .then(reactiveReadDao.getUserVersion(userUuid))
+                .switchIfEmpty(Mono.error(ReactiveReadService::userNotFound));
+    }
+
+    /**
+     * This method returns the details of the user.
+     *
+     * @return - UserEntity of the user, or a UserNotFoundException with USR-001 if the user does not exist
+     */
+    public Mono<UserEntity> getUser(final String accessToken, final String userUuid) {
+        return authorize(accessToken, GET_USER_SIGNED_OUT_MESSAGE)
+                .then(reactiveReadDao.getUserByUuid(userUuid))
+                .switchIfEmpty(Mono.error(ReactiveReadService::userNotFound));
+    }
+
+    /**
+     * This method decodes the page cursor, returning a cursor without date and id for the first page.
+     */
+    private static Mono<PageCursor> decode(final String cursor) {
+        try {
+            final PageCursor after = PageCursor.decode(cursor);
+            return Mono.just(after == null ? new PageCursor(null, null) : after);
+        } catch (InvalidCursorException e) {
+            return Mono.error(e);
+        }
+    }
+
+    private int pageSize(final Integer limit) {
+        if (limit == null || limit <= 0) {
+            return defaultLimit;
+        }
+        return Math.min(limit, maxLimit);
+    }
+
+    /**
+     * One row more than the page size is fetched, so that the next cursor is only handed out when there really is a next page.
+     */
+    private static Page<QuestionEntity> toPage(final List<QuestionEntity> questions, final int pageSize) {
+        if (questions.size() <= pageSize) {
+            return new Page<>(questions, null);
+        }
+        final List<QuestionEntity> items = questions.subList(0, pageSize);
+        final QuestionEntity last = items.get(pageSize - 1);
+        return new Page<>(items, new PageCursor(last.getDate(), last.getId()).encode());
+    }
+
+    private static UserNotFoundException questionOwnerNotFound() {
+        return new UserNotFoundException("USR-001", "User with entered uuid whose question details are to be seen does not exist");
+    }
+
+    private static InvalidQuestionException questionNotFound() {
+        return new InvalidQuestionException("QUES-001", "The question with entered uuid whose details are to be seen does not exist");
+    }
+
+    private static UserNotFoundException userNotFound() {
+        return new UserNotFoundException("USR-001", "User with entered uuid does not exist");
+    }
+}
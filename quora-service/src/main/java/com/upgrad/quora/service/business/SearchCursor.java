@@ -0,0 +1,92 @@
+package com.upgrad.quora.service.business;
+
+import com.upgrad.quora.service.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * SearchCursor is the position of the last hit of a search page in a result list ordered by (rank, id) descending.
+ * The rank is kept as its exact float bits, so that the next page continues right after the last hit.
+ * The cursor also records the search which ranked it: the QUESTION_CONTENT_TSV ranks and the in-memory index ranks are on
+ * different scales, so a cursor is only accepted by the search which produced it.
+ */
+public final class SearchCursor {
+
+    private static final String SEPARATOR = ":";
+
+    /**
+     * Source is the search which ranked the hits of a cursor.
+     */
+    public enum Source {
+        DATABASE("d"), IN_MEMORY("m");
+
+        private final String code;
+
+        Source(final String code) {
+            this.code = code;
+        }
+
+        private static Source of(final String code) {
+            for (final Source source : values()) {
+                if (source.code.equals(code)) {
+                    return source;
+                }
+            }
+            return null;
+        }
+    }
+
+    private final Source source;
+    private final float rank;
+    private final Integer id;
+
+    public SearchCursor(final Source source, final float rank, final Integer id) {
+        this.source = source;
+        this.rank = rank;
+        this.id = id;
+    }
+
+    public Source getSource() {
+        return source;
+    }
+
+    public float getRank() {
+        return rank;
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    /**
+     * @return - opaque string form of the cursor
+     */
+    public String encode() {
+        final String raw = source.code + SEPARATOR + Float.floatToIntBits(rank) + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * This method decodes the cursor received from the client.
+     *
+     * @param cursor - opaque string form of the cursor, null or empty for the first page
+     * @param source - search which is going to serve the page
+     * @return - decoded cursor, or null for the first page
+     * @throws InvalidCursorException - CUR-001 if the cursor was not produced by encode(), or was produced by another search
+     */
+    public static SearchCursor decode(final String cursor, final Source source) throws InvalidCursorException {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        try {
+            final String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII).split(SEPARATOR);
+            if (parts.length != 3 || Source.of(parts[0]) != source) {
+                throw PageCursor.invalidCursor();
+            }
+            return new SearchCursor(source, Float.intBitsToFloat(Integer.parseInt(parts[1])), Integer.valueOf(parts[2]));
+        } catch (IllegalArgumentException e) {
+            throw PageCursor.invalidCursor();
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.upgrad.quora.service.business;
+
+import com.upgrad.quora.service.entity.AnswerEntity;
+import com.upgrad.quora.service.entity.QuestionEntity;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.proxy.HibernateProxy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * This class keeps the in-memory QuestionSearchIndex in step with the QUESTION and ANSWER tables.
+ * It listens to the Hibernate post-commit events, so every create, edit and delete of a question or an answer which goes
+ * through JPA is indexed once its transaction has committed, and rolled back changes never reach the index.
+ */
+@Component
+@ConditionalOnProperty(prefix = "quora.search.in-memory", name = "enabled", havingValue = "true")
+public class SearchIndexEventListener implements PostCommitInsertEventListener, PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private QuestionSearchIndex questionSearchIndex;
+
+    @PostConstruct
+    public void register() {
+        final EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(final PostInsertEvent event) {
+        index(event.getEntity());
+    }
+
+    @Override
+    public void onPostUpdate(final PostUpdateEvent event) {
+        index(event.getEntity());
+    }
+
+    @Override
+    public void onPostDelete(final PostDeleteEvent event) {
+        if (event.getEntity() instanceof QuestionEntity) {
+            questionSearchIndex.removeQuestion(((QuestionEntity) event.getEntity()).getId());
+        } else if (event.getEntity() instanceof AnswerEntity) {
+            questionSearchIndex.removeAnswer(((AnswerEntity) event.getEntity()).getId());
+        }
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(final PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(final PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(final PostDeleteEvent event) {
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(final EntityPersister persister) {
+        final Class<?> entityClass = persister.getMappedClass();
+        return entityClass == QuestionEntity.class || entityClass == AnswerEntity.class;
+    }
+
+    /**
+     * This method is still abstract in Hibernate 5, which only calls requiresPostCommitHandling().
+     */
+    @Deprecated
+    @Override
+    public boolean requiresPostCommitHanding(final EntityPersister persister) {
+        return requiresPostCommitHandling(persister);
+    }
+
+    private void index(final Object entity) {
+        if (entity instanceof QuestionEntity) {
+            final QuestionEntity question = (QuestionEntity) entity;
+            questionSearchIndex.indexQuestion(question.getId(), question.getContent());
+        } else if (entity instanceof AnswerEntity) {
+            final AnswerEntity answer = (AnswerEntity) entity;
+            questionSearchIndex.indexAnswer(answer.getId(), questionId(answer.getQuestion()), answer.getAns());
+        }
+    }
+
+    /**
+     * This method reads the id of the question of an answer without loading the lazy question.
+     */
+    private static int questionId(final QuestionEntity question) {
+        if (question instanceof HibernateProxy) {
+            return (Integer) ((HibernateProxy) question).getHibernateLazyInitializer().getIdentifier();
+        }
+        return question.getId();
+    }
+}
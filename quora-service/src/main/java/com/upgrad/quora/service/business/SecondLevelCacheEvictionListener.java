@@ -0,0 +1,109 @@
+package com.upgrad.quora.service.business;
+
+import com.upgrad.quora.service.entity.AnswerEntity;
+import com.upgrad.quora.service.entity.QuestionEntity;
+import org.hibernate.SessionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.proxy.HibernateProxy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * This class evicts the second-level cache entries which the database changes behind Hibernate's back.
+ * Hibernate keeps the cached entities and query results of its own inserts, updates and deletes consistent, but the
+ * answer statistics of a question are written by a trigger on ANSWER, and the answers of a deleted question are removed
+ * by the ON DELETE CASCADE of the foreign key. The purge of a deleted user removes rows with plain SQL as well.
+ */
+@Component
+public class SecondLevelCacheEvictionListener implements PostCommitInsertEventListener, PostCommitDeleteEventListener {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @PostConstruct
+    public void register() {
+        final EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(final PostInsertEvent event) {
+        if (event.getEntity() instanceof AnswerEntity) {
+            evictQuestion(((AnswerEntity) event.getEntity()).getQuestion());
+        }
+    }
+
+    @Override
+    public void onPostDelete(final PostDeleteEvent event) {
+        if (event.getEntity() instanceof AnswerEntity) {
+            evictQuestion(((AnswerEntity) event.getEntity()).getQuestion());
+        } else if (event.getEntity() instanceof QuestionEntity) {
+            entityManagerFactory.getCache().evict(AnswerEntity.class);
+        }
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(final PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(final PostDeleteEvent event) {
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(final EntityPersister persister) {
+        final Class<?> entityClass = persister.getMappedClass();
+        return entityClass == QuestionEntity.class || entityClass == AnswerEntity.class;
+    }
+
+    /**
+     * This method is still abstract in Hibernate 5, which only calls requiresPostCommitHandling().
+     */
+    @Deprecated
+    @Override
+    public boolean requiresPostCommitHanding(final EntityPersister persister) {
+        return requiresPostCommitHandling(persister);
+    }
+
+    /**
+     * This method evicts the cached questions whose answer statistics have been recomputed in the database.
+     */
+    public void evictQuestions(final Iterable<Integer> questionIds) {
+        for (final Integer questionId : questionIds) {
+            entityManagerFactory.getCache().evict(QuestionEntity.class, questionId);
+        }
+    }
+
+    /**
+     * This method evicts the cached entities which have been deleted with SQL, together with every cached query result,
+     * since the query cache is only invalidated by the changes which go through Hibernate.
+     *
+     * @param entityClass - class of the deleted entities
+     * @param ids         - ids of the deleted entities
+     */
+    public void evictDeleted(final Class<?> entityClass, final Iterable<Integer> ids) {
+        for (final Integer id : ids) {
+            entityManagerFactory.getCache().evict(entityClass, id);
+        }
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegions();
+    }
+
+    private void evictQuestion(final QuestionEntity question) {
+        final Object questionId = question instanceof HibernateProxy
+                ? ((HibernateProxy) question).getHibernateLazyInitializer().getIdentifier()
+                : question.getId();
+        entityManagerFactory.getCache().evict(QuestionEntity.class, questionId);
+    }
+}
@@ -0,0 +1,93 @@
+package com.upgrad.quora.service.business;
+
+import com.upgrad.quora.service.dao.UserAuthPartitionDao;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * This class keeps the daily partitions of USER_AUTH in shape in the background.
+ * It creates the partitions of the coming days ahead of time, at startup and on every run, as USER_AUTH has no default partition
+ * a sign in could fall back to, and, when enabled, drops or archives in batches the partitions whose every session expired
+ * longer than the retention ago. A partition which could not be detached within the lock timeout is retried on the next run.
+ * The number of partitions an access token lookup probes then stays bounded by the premade days plus the retention.
+ */
+@Component
+public class SessionReaper {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SessionReaper.class);
+
+    @Autowired
+    private UserAuthPartitionDao userAuthPartitionDao;
+
+    @Value("${quora.auth.reaper.enabled:true}")
+    private boolean enabled;
+
+    @Value("${quora.auth.reaper.archive:false}")
+    private boolean archive;
+
+    @Value("${quora.auth.reaper.premake-days:7}")
+    private int premakeDays;
+
+    @Value("${quora.auth.reaper.retention-days:1}")
+    private int retentionDays;
+
+    @Value("${quora.auth.reaper.batch-size:4}")
+    private int batchSize;
+
+    @Scheduled(initialDelayString = "${quora.auth.reaper.initial-delay-millis:60000}", fixedDelayString = "${quora.auth.reaper.interval-millis:3600000}")
+    public void run() {
+        premakePartitions();
+        if (enabled) {
+            reapExpiredPartitions();
+        }
+    }
+
+    /**
+     * This method creates the missing partitions of today and of the premade days ahead.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void premakePartitions() {
+        final LocalDate today = LocalDate.now();
+        for (final LocalDate day : userAuthPartitionDao.getUncoveredDays(today, today.plusDays(premakeDays))) {
+            userAuthPartitionDao.createPartition(day);
+        }
+    }
+
+    /**
+     * This method drops or archives at most one batch of expired partitions, oldest first.
+     *
+     * @return - number of partitions reaped
+     */
+    public int reapExpiredPartitions() {
+        final List<String> expired = userAuthPartitionDao.getExpiredPartitions(LocalDateTime.now().minusDays(retentionDays));
+        final List<String> batch = expired.subList(0, Math.min(batchSize, expired.size()));
+        int reaped = 0;
+        for (final String partition : batch) {
+            try {
+                if (archive) {
+                    userAuthPartitionDao.archivePartition(partition);
+                } else {
+                    userAuthPartitionDao.dropPartition(partition);
+                }
+            } catch (DataAccessException e) {
+                // a detach left pending blocks the detach of any other partition until it is finalized on the next run
+                LOG.warn("Could not reap expired session partition {}, retrying on the next run", partition, e);
+                break;
+            }
+            LOG.info("{} expired session partition {}", archive ? "Archived" : "Dropped", partition);
+            reaped++;
+        }
+        return reaped;
+    }
+}
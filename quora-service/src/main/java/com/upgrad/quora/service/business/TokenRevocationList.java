@@ -0,0 +1,168 @@
+package com.upgrad.quora.service.business;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.exceptions.JWTDecodeException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This class keeps the signed out JWT tokens which have not expired yet, so that the stateless verification can still reject them.
+ * Tokens are identified by their key id (a random uuid per token) instead of the whole token, which keeps every entry small.
+ * The list is rebuilt from USER_AUTH.LOGOUT_AT and USER_DELETION on startup and entries are dropped once the token would have expired anyway.
+ * The sign outs and user deletions of the other nodes are read from the same tables every quora.jwt.revocation.refresh-interval-millis,
+ * which bounds how long another node keeps accepting a revoked token; the sessions cached by this node for them are dropped as well.
+ * Each refresh reads back overlap-millis before the previous one, so that a sign out which committed late is not missed.
+ */
+@Component
+public class TokenRevocationList {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TokenRevocationList.class);
+
+    private static final int PURGE_INTERVAL = 1024;
+
+    private static final String REVOKED_TOKENS_QUERY =
+            "select access_token, expires_at from user_auth where logout_at > ? and expires_at > ?";
+
+    private static final String DELETED_USERS_QUERY = "select user_uuid, requested_at from user_deletion where requested_at > ?";
+
+    private final Map<String, Long> revokedKeyIds = new ConcurrentHashMap<>();
+
+    private final Map<String, Long> revokedUsers = new ConcurrentHashMap<>();
+
+    private final AtomicInteger revocations = new AtomicInteger();
+
+    // time of the previous read of the revocations, 0 until the list has been rebuilt
+    private volatile long refreshedAtMillis;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserAuthTokenCache userAuthTokenCache;
+
+    @Value("${quora.jwt.max-lifetime-hours:8}")
+    private long maxTokenLifetimeHours;
+
+    @Value("${quora.jwt.revocation.overlap-millis:60000}")
+    private long overlapMillis;
+
+    /**
+     * This method rebuilds the revocation list from the signed out sessions and the deleted users once the application has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        purgeExpired();
+        final long now = System.currentTimeMillis();
+        load(now - TimeUnit.HOURS.toMillis(maxTokenLifetimeHours), now);
+        refreshedAtMillis = now;
+        LOG.info("Rebuilt token revocation list with {} signed out tokens and {} deleted users", revokedKeyIds.size(), revokedUsers.size());
+    }
+
+    /**
+     * This method reads the tokens signed out and the users deleted on any node since the previous refresh.
+     */
+    @Scheduled(fixedDelayString = "${quora.jwt.revocation.refresh-interval-millis:5000}",
+            initialDelayString = "${quora.jwt.revocation.refresh-interval-millis:5000}")
+    @Transactional(readOnly = true)
+    public void refresh() {
+        final long previous = refreshedAtMillis;
+        if (previous == 0) {
+            return;
+        }
+        final long now = System.currentTimeMillis();
+        load(previous - overlapMillis, now);
+        refreshedAtMillis = now;
+    }
+
+    private void load(final long sinceMillis, final long now) {
+        jdbcTemplate.query(REVOKED_TOKENS_QUERY, rs -> {
+            final String accessToken = rs.getString(1);
+            if (revoke(accessToken, rs.getTimestamp(2).getTime())) {
+                userAuthTokenCache.invalidate(accessToken);
+            }
+        }, new Timestamp(sinceMillis), new Timestamp(now));
+        jdbcTemplate.query(DELETED_USERS_QUERY, rs -> {
+            final String userUuid = rs.getString(1);
+            if (revokeUser(userUuid, rs.getTimestamp(2).getTime() + TimeUnit.HOURS.toMillis(maxTokenLifetimeHours))) {
+                userAuthTokenCache.invalidateUser(userUuid);
+            }
+        }, new Timestamp(sinceMillis));
+    }
+
+    /**
+     * This method revokes the access token until its expiry. It is called when the user signs out.
+     *
+     * @param accessToken     - access token of the signed out session
+     * @param expiresAtMillis - expiry time of the access token
+     * @return - true if the token was not revoked yet
+     */
+    public boolean revoke(final String accessToken, final long expiresAtMillis) {
+        final String keyId = keyId(accessToken);
+        final boolean added = keyId != null && revokedKeyIds.put(keyId, expiresAtMillis) == null;
+        if (revocations.incrementAndGet() % PURGE_INTERVAL == 0) {
+            purgeExpired();
+        }
+        return added;
+    }
+
+    /**
+     * This method revokes every token issued to the user until the given time. It is called when the admin deletes the user.
+     *
+     * @return - true if the user was not revoked yet
+     */
+    public boolean revokeUser(final String userUuid, final long untilMillis) {
+        return revokedUsers.put(userUuid, untilMillis) == null;
+    }
+
+    /**
+     * @return - true if the token has been signed out or its user has been deleted
+     */
+    public boolean isRevoked(final DecodedJWT decodedJWT) {
+        if (decodedJWT.getKeyId() != null && revokedKeyIds.containsKey(decodedJWT.getKeyId())) {
+            return true;
+        }
+        for (final String audience : decodedJWT.getAudience()) {
+            if (revokedUsers.containsKey(audience)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * This method drops the entries of tokens which have expired, as the signature verification rejects them anyway.
+     */
+    public void purgeExpired() {
+        final long now = System.currentTimeMillis();
+        revokedKeyIds.values().removeIf(expiresAt -> expiresAt <= now);
+        revokedUsers.values().removeIf(until -> until <= now);
+    }
+
+    public int size() {
+        return revokedKeyIds.size() + revokedUsers.size();
+    }
+
+    private static String keyId(final String accessToken) {
+        try {
+            return JWT.decode(accessToken).getKeyId();
+        } catch (JWTDecodeException e) {
+            return null;
+        }
+    }
+}
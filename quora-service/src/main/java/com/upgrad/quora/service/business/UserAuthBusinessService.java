@@ -0,0 +1,152 @@
+package com.upgrad.quora.service.business;
+
+import com.upgrad.quora.service.common.ExceptionStackTraces;
+import com.upgrad.quora.service.common.RequestTimings;
+import com.upgrad.quora.service.dao.UserAuthDao;
+import com.upgrad.quora.service.entity.UserAuthEntity;
+import com.upgrad.quora.service.entity.UserEntity;
+import com.upgrad.quora.service.exception.AuthorizationFailedException;
+import com.upgrad.quora.service.exception.SignOutRestrictedException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.ZonedDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class resolves the access token received in the authorization header of every authorized endpoint.
+ * The USER_AUTH lookup goes through the UserAuthTokenCache, so repeated requests with the same token do not hit the database.
+ * The time spent checking the token is added to the auth phase of the RequestTimings of the request.
+ */
+@Service
+public class UserAuthBusinessService {
+
+    private static final AuthorizationFailedException NOT_SIGNED_IN = new AuthorizationFailedException("ATHR-001", "User has not signed in");
+
+    @Autowired
+    private UserAuthDao userAuthDao;
+
+    @Autowired
+    private UserAuthTokenCache userAuthTokenCache;
+
+    @Autowired
+    private AccessTokenVerifier accessTokenVerifier;
+
+    @Autowired
+    private TokenRevocationList tokenRevocationList;
+
+    @Value("${quora.jwt.max-lifetime-hours:8}")
+    private long maxTokenLifetimeHours;
+
+    /**
+     * This method returns the session of the access token.
+     *
+     * @param accessToken - access token received in the authorization header
+     * @return - UserAuthSession of the access token, or null if the access token does not exist in the database
+     */
+    public UserAuthSession getUserAuth(final String accessToken) {
+        return userAuthTokenCache.get(accessToken, this::loadUserAuth);
+    }
+
+    /**
+     * This method checks that the access token exists and that the user has not signed out.
+     *
+     * @param accessToken       - access token received in the authorization header
+     * @param signedOutMessage  - endpoint specific message of the ATHR-002 error
+     * @return - UserAuthSession of the signed in user
+     * @throws AuthorizationFailedException - ATHR-001 if the access token does not exist, ATHR-002 if the user has signed out
+     */
+    public UserAuthSession authorize(final String accessToken, final String signedOutMessage) throws AuthorizationFailedException {
+        final long start = System.nanoTime();
+        try {
+            return checkSession(accessToken, signedOutMessage);
+        } finally {
+            RequestTimings.addAuth(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * This method checks the access token like authorize(), but accepts valid tokens signed with the server-wide key without any database access.
+     * It is meant for the endpoints which only need the uuid of the signed in user.
+     *
+     * @param accessToken      - access token received in the authorization header
+     * @param signedOutMessage - endpoint specific message of the ATHR-002 error
+     * @return - uuid of the signed in user
+     * @throws AuthorizationFailedException - ATHR-001 if the access token does not exist, ATHR-002 if the user has signed out
+     */
+    public String authorizeStateless(final String accessToken, final String signedOutMessage) throws AuthorizationFailedException {
+        final long start = System.nanoTime();
+        try {
+            final String userUuid = accessTokenVerifier.verify(accessToken);
+            if (userUuid != null) {
+                return userUuid;
+            }
+            return checkSession(accessToken, signedOutMessage).getUserUuid();
+        } finally {
+            RequestTimings.addAuth(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * This method signs the user out by recording the logout time. The cached session is dropped and the token revoked as soon
+     * as the logout has committed, so that no concurrent request can cache the session as it was before the logout.
+     *
+     * @param accessToken - access token received in the authorization header
+     * @return - UserEntity of the signed out user
+     * @throws SignOutRestrictedException - SGR-001 if the access token does not exist in the database
+     */
+    @Transactional(propagation = Propagation.REQUIRED)
+    public UserEntity signout(final String accessToken) throws SignOutRestrictedException {
+        final UserAuthEntity userAuthEntity = userAuthDao.getUserAuthByAccessToken(accessToken);
+        if (userAuthEntity == null) {
+            throw new SignOutRestrictedException("SGR-001", "User is not Signed in");
+        }
+        userAuthEntity.setLogoutAt(ZonedDateTime.now());
+        userAuthDao.updateUserAuth(userAuthEntity);
+        final long expiresAtMillis = userAuthEntity.getExpiresAt().toInstant().toEpochMilli();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                userAuthTokenCache.invalidate(accessToken);
+                tokenRevocationList.revoke(accessToken, expiresAtMillis);
+            }
+        });
+        return userAuthEntity.getUser();
+    }
+
+    /**
+     * This method drops every cached session of the user and revokes the tokens issued to the user. It is called once the deletion of the user has committed.
+     */
+    public void invalidateUser(final String userUuid) {
+        userAuthTokenCache.invalidateUser(userUuid);
+        tokenRevocationList.revokeUser(userUuid, System.currentTimeMillis() + TimeUnit.HOURS.toMillis(maxTokenLifetimeHours));
+    }
+
+    private UserAuthSession checkSession(final String accessToken, final String signedOutMessage) throws AuthorizationFailedException {
+        final UserAuthSession session = getUserAuth(accessToken);
+        if (session == null) {
+            throw notSignedIn();
+        }
+        if (session.isSignedOut()) {
+            throw new AuthorizationFailedException("ATHR-002", signedOutMessage);
+        }
+        return session;
+    }
+
+    /**
+     * @return - the ATHR-001 rejection of an unknown access token, preallocated as it is the most frequent one
+     */
+    static AuthorizationFailedException notSignedIn() {
+        return ExceptionStackTraces.reuse(NOT_SIGNED_IN, () -> new AuthorizationFailedException("ATHR-001", "User has not signed in"));
+    }
+
+    private UserAuthSession loadUserAuth(final String accessToken) {
+        final UserAuthEntity userAuthEntity = userAuthDao.getUserAuthByAccessToken(accessToken);
+        return userAuthEntity == null ? null : UserAuthSession.of(userAuthEntity);
+    }
+}
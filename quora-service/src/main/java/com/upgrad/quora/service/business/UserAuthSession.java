@@ -0,0 +1,69 @@
+package com.upgrad.quora.service.business;
+
+import com.upgrad.quora.service.entity.UserAuthEntity;
+
+import java.time.ZonedDateTime;
+
+/**
+ * UserAuthSession is an immutable snapshot of a USER_AUTH row together with the id, uuid and role of its user.
+ * It is detached from any persistence context so that it can be safely shared between requests by the UserAuthTokenCache.
+ */
+public final class UserAuthSession {
+
+    private final String accessToken;
+    private final Integer userId;
+    private final String userUuid;
+    private final String role;
+    private final ZonedDateTime expiresAt;
+    private final ZonedDateTime logoutAt;
+
+    public UserAuthSession(final String accessToken, final Integer userId, final String userUuid, final String role,
+                           final ZonedDateTime expiresAt, final ZonedDateTime logoutAt) {
+        this.accessToken = accessToken;
+        this.userId = userId;
+        this.userUuid = userUuid;
+        this.role = role;
+        this.expiresAt = expiresAt;
+        this.logoutAt = logoutAt;
+    }
+
+    /**
+     * This method builds the snapshot from a managed UserAuthEntity whose user has already been fetched.
+     */
+    public static UserAuthSession of(final UserAuthEntity userAuthEntity) {
+        return new UserAuthSession(userAuthEntity.getAccessToken(), userAuthEntity.getUser().getId(),
+                userAuthEntity.getUser().getUuid(), userAuthEntity.getUser().getRole(),
+                userAuthEntity.getExpiresAt(), userAuthEntity.getLogoutAt());
+    }
+
+    public String getAccessToken() {
+        return accessToken;
+    }
+
+    public Integer getUserId() {
+        return userId;
+    }
+
+    public String getUserUuid() {
+        return userUuid;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public ZonedDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public ZonedDateTime getLogoutAt() {
+        return logoutAt;
+    }
+
+    /**
+     * @return - true if the user has signed out using this access token
+     */
+    public boolean isSignedOut() {
+        return logoutAt != null;
+    }
+}
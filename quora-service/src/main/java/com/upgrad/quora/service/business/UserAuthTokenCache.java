@@ -0,0 +1,224 @@
+package com.upgrad.quora.service.business;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * This class is a bounded, TTL aware cache of access token to UserAuthSession which sits in front of the USER_AUTH table.
+ * Entries are evicted in least recently used order once the cache is full, and are reloaded from the database once their TTL has passed.
+ * An entry never outlives the EXPIRES_AT of its session, so a session cached shortly before it expires is not served past its expiry.
+ * Sign out and user deletion must invalidate the affected entries through invalidate() and invalidateUser(), once their transaction has committed.
+ * A session loaded while an invalidation ran may predate the sign out, so it is returned but not cached: every invalidation bumps
+ * the generation of the cache, and a load only stores its session if the generation did not change since the load started.
+ * Tokens which do not exist in the database are never cached, so that an unknown token is always re-checked against USER_AUTH.
+ */
+@Component
+public class UserAuthTokenCache implements MeterBinder {
+
+    private final int maxSize;
+    private final long ttlMillis;
+    private final Map<String, Entry> entries;
+
+    // guarded by entries
+    private long generation;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public UserAuthTokenCache(@Value("${quora.auth.cache.max-size:10000}") final int maxSize,
+                              @Value("${quora.auth.cache.ttl-seconds:300}") final long ttlSeconds) {
+        this.maxSize = maxSize;
+        this.ttlMillis = TimeUnit.SECONDS.toMillis(ttlSeconds);
+        this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, Entry> eldest) {
+                if (size() > UserAuthTokenCache.this.maxSize) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * This method returns the session of the access token from the cache, or loads it with the given loader on a miss.
+     *
+     * @param accessToken - access token received in the authorization header
+     * @param loader      - function which reads the session from USER_AUTH, returning null if the token does not exist
+     * @return - UserAuthSession of the access token, or null if the loader did not find it
+     */
+    public UserAuthSession get(final String accessToken, final Function<String, UserAuthSession> loader) {
+        final long now = System.currentTimeMillis();
+        final long loadGeneration;
+        synchronized (entries) {
+            final Entry entry = entries.get(accessToken);
+            if (entry != null) {
+                if (entry.expiresAtMillis > now) {
+                    hits.incrementAndGet();
+                    return entry.session;
+                }
+                entries.remove(accessToken);
+                evictions.incrementAndGet();
+            }
+            loadGeneration = generation;
+        }
+        misses.incrementAndGet();
+
+        final UserAuthSession session = loader.apply(accessToken);
+        if (session != null) {
+            put(session, loadGeneration);
+        }
+        return session;
+    }
+
+    /**
+     * This method returns the session of the access token from the cache without loading it on a miss,
+     * for callers which must not block on the database, such as the reactive read API.
+     *
+     * @param accessToken - access token received in the authorization header
+     * @return - UserAuthSession of the access token, or null if it is not cached or its TTL has passed
+     */
+    public UserAuthSession getIfPresent(final String accessToken) {
+        final long now = System.currentTimeMillis();
+        synchronized (entries) {
+            final Entry entry = entries.get(accessToken);
+            if (entry != null) {
+                if (entry.expiresAtMillis > now) {
+                    hits.incrementAndGet();
+                    return entry.session;
+                }
+                entries.remove(accessToken);
+                evictions.incrementAndGet();
+            }
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * This method stores the session, e.g. right after sign in, so that the first authorized request does not miss.
+     */
+    public void put(final UserAuthSession session) {
+        final long now = System.currentTimeMillis();
+        final long expiresAtMillis = expiresAtMillis(session, now);
+        if (expiresAtMillis <= now) {
+            return;
+        }
+        synchronized (entries) {
+            entries.put(session.getAccessToken(), new Entry(session, expiresAtMillis));
+        }
+    }
+
+    /**
+     * This method stores a session which was loaded outside of get(), unless the cache was invalidated since the load started.
+     *
+     * @param session    - session read from USER_AUTH
+     * @param generation - getGeneration() taken before the session was read
+     * @return - true if the session was stored, false if the cache was invalidated or the session has already expired
+     */
+    public boolean put(final UserAuthSession session, final long generation) {
+        final long now = System.currentTimeMillis();
+        final long expiresAtMillis = expiresAtMillis(session, now);
+        if (expiresAtMillis <= now) {
+            return false;
+        }
+        synchronized (entries) {
+            if (this.generation != generation) {
+                return false;
+            }
+            entries.put(session.getAccessToken(), new Entry(session, expiresAtMillis));
+            return true;
+        }
+    }
+
+    private long expiresAtMillis(final UserAuthSession session, final long now) {
+        return Math.min(now + ttlMillis, session.getExpiresAt().toInstant().toEpochMilli());
+    }
+
+    /**
+     * @return - generation to pass to put() when a session is loaded outside of get()
+     */
+    public long getGeneration() {
+        synchronized (entries) {
+            return generation;
+        }
+    }
+
+    /**
+     * This method removes the session of the access token. It must be called after the sign out has committed.
+     */
+    public void invalidate(final String accessToken) {
+        synchronized (entries) {
+            generation++;
+            entries.remove(accessToken);
+        }
+    }
+
+    /**
+     * This method removes every session of the user. It must be called after the deletion of the user has committed.
+     */
+    public void invalidateUser(final String userUuid) {
+        synchronized (entries) {
+            generation++;
+            final Iterator<Entry> iterator = entries.values().iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().session.getUserUuid().equals(userUuid)) {
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    @Override
+    public void bindTo(final MeterRegistry registry) {
+        FunctionCounter.builder("quora.auth.cache.hits", this, UserAuthTokenCache::getHitCount)
+                .description("Access token lookups served from the cache").register(registry);
+        FunctionCounter.builder("quora.auth.cache.misses", this, UserAuthTokenCache::getMissCount)
+                .description("Access token lookups which went to USER_AUTH").register(registry);
+        FunctionCounter.builder("quora.auth.cache.evictions", this, UserAuthTokenCache::getEvictionCount)
+                .description("Sessions evicted because the cache was full or the TTL passed").register(registry);
+        Gauge.builder("quora.auth.cache.size", this, UserAuthTokenCache::size)
+                .description("Number of sessions in the cache").register(registry);
+    }
+
+    private static final class Entry {
+        private final UserAuthSession session;
+        private final long expiresAtMillis;
+
+        private Entry(final UserAuthSession session, final long expiresAtMillis) {
+            this.session = session;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.upgrad.quora.service.business;
+
+import com.upgrad.quora.service.dao.UserAuthDao;
+import com.upgrad.quora.service.dao.UserDao;
+import com.upgrad.quora.service.entity.UserAuthEntity;
+import com.upgrad.quora.service.entity.UserEntity;
+import com.upgrad.quora.service.exception.AuthenticationFailedException;
+import com.upgrad.quora.service.exception.ServiceUnavailableException;
+import com.upgrad.quora.service.exception.SignUpRestrictedException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+/**
+ * This class contains the business logic of the sign up and sign in endpoints.
+ * A successful sign in stores the password again when it is in the legacy format or hashed with fewer iterations than the current work factor.
+ * The password hashing runs on the bounded PasswordHashingExecutor and outside of any transaction, so that a request waiting
+ * for the hashing pool never holds a database connection; the writes around it are short transactions of their own.
+ */
+@Service
+public class UserBusinessService {
+
+    private static final String NON_ADMIN_ROLE = "nonadmin";
+
+    @Autowired
+    private UserDao userDao;
+
+    @Autowired
+    private UserAuthDao userAuthDao;
+
+    @Autowired
+    private PasswordHashingExecutor passwordHashingExecutor;
+
+    @Autowired
+    private JwtTokenProviderRegistry jwtTokenProviderRegistry;
+
+    @Autowired
+    private UserAuthTokenCache userAuthTokenCache;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${quora.jwt.max-lifetime-hours:8}")
+    private long tokenLifetimeHours;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * This method registers a new user with the hashed password.
+     *
+     * @param userEntity - user to register, holding the raw password
+     * @return - UserEntity of the registered user
+     * @throws SignUpRestrictedException   - SGR-001 if the username is taken, SGR-002 if the email address is already registered
+     * @throws ServiceUnavailableException - GEN-002 if the hashing pool is saturated
+     */
+    public UserEntity signup(final UserEntity userEntity) throws SignUpRestrictedException, ServiceUnavailableException {
+        checkSignupRestrictions(userEntity);
+        final String[] saltAndHash = passwordHashingExecutor.encrypt(userEntity.getPassword());
+        userEntity.setUuid(UUID.randomUUID().toString());
+        userEntity.setSalt(saltAndHash[0]);
+        userEntity.setPassword(saltAndHash[1]);
+        userEntity.setRole(NON_ADMIN_ROLE);
+        try {
+            return transactionTemplate.execute(status -> userDao.createUser(userEntity));
+        } catch (DataIntegrityViolationException e) {
+            // a concurrent sign up took the username or the email address after the check
+            checkSignupRestrictions(userEntity);
+            throw e;
+        }
+    }
+
+    /**
+     * This method checks the credentials of the user and opens a new session.
+     *
+     * @param userName - username received in the authorization header
+     * @param password - raw password received in the authorization header
+     * @return - UserAuthEntity of the new session
+     * @throws AuthenticationFailedException - ATH-001 if the username does not exist, ATH-002 if the password is wrong
+     * @throws ServiceUnavailableException   - GEN-002 if the hashing pool is saturated
+     */
+    public UserAuthEntity signin(final String userName, final String password) throws AuthenticationFailedException, ServiceUnavailableException {
+        final UserEntity user = userDao.getUserByUserName(userName);
+        if (user == null || user.getDeletedAt() != null) {
+            throw new AuthenticationFailedException("ATH-001", "This username does not exist");
+        }
+        final PasswordVerification verification = passwordHashingExecutor.verify(password, user.getPassword(), user.getSalt());
+        if (!verification.isMatched()) {
+            throw new AuthenticationFailedException("ATH-002", "Password failed");
+        }
+        if (verification == PasswordVerification.MATCHED_NEEDS_REHASH) {
+            rehashPassword(user, password);
+        }
+
+        final ZonedDateTime now = ZonedDateTime.now();
+        final ZonedDateTime expiresAt = now.plusHours(tokenLifetimeHours);
+        final UserAuthEntity userAuthEntity = new UserAuthEntity();
+        userAuthEntity.setUuid(UUID.randomUUID().toString());
+        userAuthEntity.setUser(user);
+        userAuthEntity.setAccessToken(jwtTokenProviderRegistry.signingProvider(password).generateToken(user.getUuid(), now, expiresAt));
+        userAuthEntity.setLoginAt(now);
+        userAuthEntity.setExpiresAt(expiresAt);
+        transactionTemplate.execute(status -> userAuthDao.createAuthToken(userAuthEntity));
+        userAuthTokenCache.put(UserAuthSession.of(userAuthEntity));
+        return userAuthEntity;
+    }
+
+    /**
+     * This method stores the password of the user with the current work factor. The row is only updated if it still holds the
+     * password which was verified, so that a concurrent sign in or password change wins. When the hashing pool is saturated the
+     * rehash is skipped and happens on a later sign in instead of failing this one.
+     */
+    private void rehashPassword(final UserEntity user, final String password) {
+        final String storedPassword = user.getPassword();
+        final String[] saltAndHash;
+        try {
+            saltAndHash = passwordHashingExecutor.encrypt(password);
+        } catch (ServiceUnavailableException e) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            final UserEntity current = userDao.getUserByUuid(user.getUuid());
+            if (current != null && storedPassword.equals(current.getPassword())) {
+                current.setSalt(saltAndHash[0]);
+                current.setPassword(saltAndHash[1]);
+                userDao.updateUser(current);
+            }
+        });
+    }
+
+    private void checkSignupRestrictions(final UserEntity userEntity) throws SignUpRestrictedException {
+        if (userDao.getUserByUserName(userEntity.getUserName()) != null) {
+            throw new SignUpRestrictedException("SGR-001", "Try any other Username, this Username has already been taken");
+        }
+        if (userDao.getUserByEmail(userEntity.getEmail()) != null) {
+            throw new SignUpRestrictedException("SGR-002", "This user has already been registered, try with any other emailId");
+        }
+    }
+}
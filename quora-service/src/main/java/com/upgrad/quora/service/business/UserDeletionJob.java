@@ -0,0 +1,266 @@
+package com.upgrad.quora.service.business;
+
+import com.upgrad.quora.service.dao.UserDeletionDao;
+import com.upgrad.quora.service.entity.AnswerEntity;
+import com.upgrad.quora.service.entity.QuestionEntity;
+import com.upgrad.quora.service.entity.UserDeletionEntity;
+import com.upgrad.quora.service.entity.UserDeletionPhase;
+import com.upgrad.quora.service.entity.UserEntity;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class purges the rows of the deleted users in the background.
+ * Every batch deletes at most batch-size rows of one phase of one deletion and records the progress in the same short
+ * transaction, so other writers are never blocked for long, and a purge interrupted by a failure or a restart resumes at the
+ * batch where it stopped. Purges run one at a time on a single thread, pausing between batches; deletions requested while
+ * the application was down are picked up on startup and by a periodic resume.
+ */
+@Component
+public class UserDeletionJob implements MeterBinder {
+
+    private static final Logger LOG = LoggerFactory.getLogger(UserDeletionJob.class);
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, "user-deletion");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final AtomicLong answersPurged = new AtomicLong();
+    private final AtomicLong questionsPurged = new AtomicLong();
+    private final AtomicLong sessionsPurged = new AtomicLong();
+    private final AtomicLong usersPurged = new AtomicLong();
+    private final AtomicLong batchCount = new AtomicLong();
+    private final AtomicLong batchNanos = new AtomicLong();
+    private volatile long pendingDeletions;
+
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private UserDeletionDao userDeletionDao;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private SecondLevelCacheEvictionListener secondLevelCacheEvictionListener;
+
+    @Autowired(required = false)
+    private QuestionSearchIndex questionSearchIndex;
+
+    @Value("${quora.user.deletion.batch-size:500}")
+    private int batchSize;
+
+    @Value("${quora.user.deletion.pause-millis:50}")
+    private long pauseMillis;
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeOnStartup() {
+        start();
+    }
+
+    @Scheduled(fixedDelayString = "${quora.user.deletion.resume-interval-millis:60000}", initialDelayString = "${quora.user.deletion.resume-interval-millis:60000}")
+    public void resume() {
+        start();
+    }
+
+    /**
+     * This method queues a purge of every pending deletion on the background thread. A purge queued while another one is
+     * running starts once it is done and finds nothing left, so callers need not check whether a purge is running.
+     */
+    public void start() {
+        executor.execute(this::purge);
+    }
+
+    @Override
+    public void bindTo(final MeterRegistry registry) {
+        FunctionCounter.builder("quora.user.deletion.purged", answersPurged, AtomicLong::get)
+                .tag("type", "answer").description("Rows purged by the deletion of users").register(registry);
+        FunctionCounter.builder("quora.user.deletion.purged", questionsPurged, AtomicLong::get)
+                .tag("type", "question").description("Rows purged by the deletion of users").register(registry);
+        FunctionCounter.builder("quora.user.deletion.purged", sessionsPurged, AtomicLong::get)
+                .tag("type", "session").description("Rows purged by the deletion of users").register(registry);
+        FunctionCounter.builder("quora.user.deletion.purged", usersPurged, AtomicLong::get)
+                .tag("type", "user").description("Rows purged by the deletion of users").register(registry);
+        Gauge.builder("quora.user.deletion.pending", this, job -> job.pendingDeletions)
+                .description("Deleted users whose rows have not all been purged yet, as of the last batch")
+                .register(registry);
+        FunctionTimer.builder("quora.user.deletion.batch", this,
+                job -> job.batchCount.get(), job -> job.batchNanos.get(), TimeUnit.NANOSECONDS)
+                .description("Time spent in the purge batches, each of which is one transaction").register(registry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * This method runs batches until no deletion is pending. A failed batch is rolled back and retried by the next purge.
+     */
+    private void purge() {
+        try {
+            refreshPendingDeletions();
+            Batch batch;
+            while (!Thread.currentThread().isInterrupted() && (batch = runBatch()) != null) {
+                afterCommit(batch);
+                if (batch.completed) {
+                    refreshPendingDeletions();
+                    LOG.info("Purged the rows of deleted user {}", batch.userId);
+                }
+                TimeUnit.MILLISECONDS.sleep(pauseMillis);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            LOG.warn("Purge of the deleted users failed, it will be resumed", e);
+        }
+    }
+
+    /**
+     * This method runs the next batch of the oldest pending deletion in its own transaction.
+     *
+     * @return - rows deleted by the batch, null if no deletion is pending
+     */
+    private Batch runBatch() {
+        final long start = System.nanoTime();
+        final Batch batch = transactionTemplate.execute(status -> {
+            final UserDeletionEntity deletion = userDeletionDao.lockNextPendingUserDeletion();
+            return deletion == null ? null : purgeBatch(deletion);
+        });
+        if (batch != null) {
+            batchCount.incrementAndGet();
+            batchNanos.addAndGet(System.nanoTime() - start);
+        }
+        return batch;
+    }
+
+    private Batch purgeBatch(final UserDeletionEntity deletion) {
+        final int userId = deletion.getUserId();
+        final Batch batch = new Batch(userId);
+        final boolean phaseDone;
+        switch (deletion.getPhase()) {
+            case ANSWERS:
+            case QUESTION_ANSWERS:
+                final int answers = deletion.getPhase() == UserDeletionPhase.ANSWERS
+                        ? userDeletionDao.deleteAnswersByUser(userId, batchSize, batch::answerDeleted)
+                        : userDeletionDao.deleteAnswersToQuestionsOfUser(userId, batchSize, batch::answerDeleted);
+                deletion.setAnswersDeleted(deletion.getAnswersDeleted() + answers);
+                phaseDone = answers < batchSize;
+                break;
+            case QUESTIONS:
+                batch.questionIds.addAll(userDeletionDao.deleteQuestionsByUser(userId, batchSize));
+                deletion.setQuestionsDeleted(deletion.getQuestionsDeleted() + batch.questionIds.size());
+                phaseDone = batch.questionIds.size() < batchSize;
+                break;
+            case SESSIONS:
+                batch.sessions = userDeletionDao.deleteSessionsByUser(userId, batchSize);
+                deletion.setSessionsDeleted(deletion.getSessionsDeleted() + batch.sessions);
+                phaseDone = batch.sessions < batchSize;
+                break;
+            case USER:
+                userDeletionDao.deleteUser(userId);
+                batch.userDeleted = true;
+                phaseDone = true;
+                break;
+            default:
+                phaseDone = true;
+        }
+
+        final ZonedDateTime now = ZonedDateTime.now();
+        if (phaseDone) {
+            deletion.setPhase(deletion.getPhase().next());
+        }
+        if (deletion.getPhase() == UserDeletionPhase.DONE) {
+            deletion.setCompletedAt(now);
+            batch.completed = true;
+        }
+        deletion.setUpdatedAt(now);
+        return batch;
+    }
+
+    /**
+     * This method drops the purged rows from the second-level cache and the in-memory search index, which do not see SQL deletes.
+     */
+    private void afterCommit(final Batch batch) {
+        if (!batch.answerIds.isEmpty()) {
+            secondLevelCacheEvictionListener.evictDeleted(AnswerEntity.class, batch.answerIds);
+            // the answer statistics trigger has updated the questions of the deleted answers
+            secondLevelCacheEvictionListener.evictQuestions(batch.answeredQuestionIds);
+            answersPurged.addAndGet(batch.answerIds.size());
+        }
+        if (!batch.questionIds.isEmpty()) {
+            secondLevelCacheEvictionListener.evictDeleted(QuestionEntity.class, batch.questionIds);
+            questionsPurged.addAndGet(batch.questionIds.size());
+        }
+        if (batch.userDeleted) {
+            secondLevelCacheEvictionListener.evictDeleted(UserEntity.class, Collections.singleton(batch.userId));
+            usersPurged.incrementAndGet();
+        }
+        sessionsPurged.addAndGet(batch.sessions);
+
+        if (questionSearchIndex != null) {
+            batch.answerIds.forEach(questionSearchIndex::removeAnswer);
+            batch.questionIds.forEach(questionSearchIndex::removeQuestion);
+        }
+    }
+
+    private void refreshPendingDeletions() {
+        pendingDeletions = transactionTemplate.execute(status -> userDeletionDao.getPendingUserDeletionCount());
+    }
+
+    /**
+     * Batch holds the rows deleted by one batch, for the cache and index updates once it has committed.
+     */
+    private static final class Batch {
+
+        private final int userId;
+        private final List<Integer> answerIds = new ArrayList<>();
+        private final Set<Integer> answeredQuestionIds = new HashSet<>();
+        private final List<Integer> questionIds = new ArrayList<>();
+        private int sessions;
+        private boolean userDeleted;
+        private boolean completed;
+
+        private Batch(final int userId) {
+            this.userId = userId;
+        }
+
+        private void answerDeleted(final int id, final int questionId) {
+            answerIds.add(id);
+            answeredQuestionIds.add(questionId);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.upgrad.quora.service.common;
+
+import java.util.function.Supplier;
+
+/**
+ * ExceptionStackTraces is the debug switch of the stack traces of the service exceptions (AuthorizationFailedException,
+ * UserNotFoundException and the rest of com.upgrad.quora.service.exception).
+ * Those exceptions are thrown on routine control flow, such as a request with an unknown or expired access token, and are
+ * mapped to an ErrorResponse without ever being logged; walking the stack to fill in a trace nobody reads would be most of
+ * the cost of a rejected request. Stack traces are therefore off unless quora.exceptions.stack-traces is set, and the
+ * rejections whose code and message never change can be thrown as preallocated instances with reuse().
+ * The switch only affects the exceptions created after it is flipped.
+ */
+public final class ExceptionStackTraces {
+
+    private static volatile boolean enabled = Boolean.getBoolean("quora.exceptions.stack-traces");
+
+    private ExceptionStackTraces() {
+    }
+
+    /**
+     * @return - true if the service exceptions capture their stack trace
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(final boolean enabled) {
+        ExceptionStackTraces.enabled = enabled;
+    }
+
+    /**
+     * This method returns the preallocated exception, or a new one with its own stack trace while stack traces are enabled.
+     * The preallocated exception must be stackless and is shared by all the threads, so it carries no per-request state.
+     *
+     * @param preallocated - exception created once, without a stack trace
+     * @param factory      - creates the same exception with a stack trace
+     * @return - exception to throw
+     */
+    public static <T extends Exception> T reuse(final T preallocated, final Supplier<T> factory) {
+        return enabled ? factory.get() : preallocated;
+    }
+}
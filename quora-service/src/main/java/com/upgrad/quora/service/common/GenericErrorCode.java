@@ -10,7 +10,28 @@ public enum GenericErrorCode implements ErrorCode {
      * <b>Cause:</b> This error could have occurred due to undetermined runtime errors.<br>
      * <b>Action: None</b><br>
      */
-    GEN_001("GEN-001", "An unexpected error occurred. Please contact System Administrator");
+    GEN_001("GEN-001", "An unexpected error occurred. Please contact System Administrator"),
+
+    /**
+     * Error message: <b>Server is busy. Please try again later</b><br>
+     * <b>Cause:</b> This error occurs when a bounded pool, e.g. the password hashing pool or the database connection pool, is saturated.<br>
+     * <b>Action: Retry the request after some time</b><br>
+     */
+    GEN_002("GEN-002", "Server is busy. Please try again later"),
+
+    /**
+     * Error message: <b>{0} ran more than its budget of {1} SQL statements</b><br>
+     * <b>Cause:</b> This error only occurs in the fail mode of the SQL statement inspection, typically because of an N+1 lazy load.<br>
+     * <b>Action: Fetch the associations of the listing with a join, or raise the budget of the operation</b><br>
+     */
+    GEN_003("GEN-003", "{0} ran more than its budget of {1} SQL statements"),
+
+    /**
+     * Error message: <b>A SQL statement of {0} took {1} ms, more than the budget of {2} ms</b><br>
+     * <b>Cause:</b> This error only occurs in the fail mode of the SQL statement inspection, when a statement is slow.<br>
+     * <b>Action: Check the plan of the statement, which is logged with the error</b><br>
+     */
+    GEN_004("GEN-004", "A SQL statement of {0} took {1} ms, more than the budget of {2} ms");
 
     private static final Map<String, GenericErrorCode> LOOKUP = new HashMap<String, GenericErrorCode>();
 
@@ -0,0 +1,60 @@
+package com.upgrad.quora.service.common;
+
+/**
+ * RequestTimings accumulates the time the request being served on the current thread spends in each phase, so that the web
+ * layer can split the latency of every operation into authorization, service and serialization time.
+ * The web layer starts it when the request comes in and clears it once the request is done; outside of a request the
+ * recorded times are dropped.
+ */
+public final class RequestTimings {
+
+    private static final ThreadLocal<RequestTimings> CURRENT = new ThreadLocal<>();
+
+    private long authNanos;
+
+    private long serializationNanos;
+
+    private RequestTimings() {
+    }
+
+    /**
+     * This method starts the timings of the request on the current thread.
+     */
+    public static RequestTimings start() {
+        final RequestTimings timings = new RequestTimings();
+        CURRENT.set(timings);
+        return timings;
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    /**
+     * @param nanos - time spent checking the access token of the request
+     */
+    public static void addAuth(final long nanos) {
+        final RequestTimings timings = CURRENT.get();
+        if (timings != null) {
+            timings.authNanos += nanos;
+        }
+    }
+
+    /**
+     * @param nanos - time spent writing the response body
+     */
+    public static void addSerialization(final long nanos) {
+        final RequestTimings timings = CURRENT.get();
+        if (timings != null) {
+            timings.serializationNanos += nanos;
+        }
+    }
+
+    public long getAuthNanos() {
+        return authNanos;
+    }
+
+    public long getSerializationNanos() {
+        return serializationNanos;
+    }
+}
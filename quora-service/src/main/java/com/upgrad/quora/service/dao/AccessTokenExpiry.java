@@ -0,0 +1,33 @@
+package com.upgrad.quora.service.dao;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.exceptions.JWTDecodeException;
+
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Date;
+
+/**
+ * This class reads the EXPIRES_AT of a session from its access token, so that the USER_AUTH lookup can be narrowed down
+ * to the partition of that expiry. Sign in stores the expiry it writes into the "exp" claim of the token, truncated to
+ * the second, so the session of a token always expires within the second of its "exp" claim, whether it has expired or not.
+ * The claim is only decoded, not verified: a token whose claim was tampered with does not match any session anyway.
+ */
+final class AccessTokenExpiry {
+
+    private AccessTokenExpiry() {
+    }
+
+    /**
+     * @param accessToken - access token received in the authorization header
+     * @return - start of the second in which the session of the token expires, or null if the token carries no "exp" claim
+     */
+    static ZonedDateTime of(final String accessToken) {
+        try {
+            final Date expiresAt = JWT.decode(accessToken).getExpiresAt();
+            return expiresAt == null ? null : ZonedDateTime.ofInstant(expiresAt.toInstant(), ZoneId.systemDefault());
+        } catch (JWTDecodeException e) {
+            return null;
+        }
+    }
+}
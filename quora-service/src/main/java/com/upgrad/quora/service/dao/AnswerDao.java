@@ -0,0 +1,29 @@
+package com.upgrad.quora.service.dao;
+
+import com.upgrad.quora.service.entity.AnswerEntity;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.List;
+
+/**
+ * AnswerDao class provides the database access for all the endpoints which need to read or update the ANSWER table.
+ */
+@Repository
+public class AnswerDao {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * This method fetches all the answers posted to the question, oldest first.
+     *
+     * @param questionId - id of the question
+     * @return - list of answers to the question
+     */
+    public List<AnswerEntity> getAllAnswersToQuestion(final Integer questionId) {
+        return entityManager.createNamedQuery("answersByQuestionId", AnswerEntity.class)
+                .setParameter("questionId", questionId).getResultList();
+    }
+}
@@ -0,0 +1,167 @@
+package com.upgrad.quora.service.dao;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ConcurrencyLimitingDataSource caps the number of connections which are checked out of the target data source at once.
+ * With a request per virtual thread, thousands of requests can ask for a connection at the same time; they queue here,
+ * first come first served, on a semaphore which parks the virtual threads, instead of in the pool, which would time them
+ * out after the short connection-timeout meant for saturation. The permit is held until the connection is closed.
+ * A request which does not get a permit within the acquire timeout fails like a pool timeout, with a SQLTransientConnectionException.
+ */
+public class ConcurrencyLimitingDataSource extends DelegatingDataSource implements MeterBinder, Closeable {
+
+    private final Semaphore permits;
+    private final int maxPermits;
+    private final long acquireTimeoutMillis;
+
+    private final AtomicLong acquisitions = new AtomicLong();
+    private final AtomicLong waitNanos = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+
+    /**
+     * @param targetDataSource     - data source to limit
+     * @param maxPermits           - maximum number of connections checked out at once, usually the size of the pool
+     * @param acquireTimeoutMillis - maximum time to wait for a permit
+     */
+    public ConcurrencyLimitingDataSource(final DataSource targetDataSource, final int maxPermits, final long acquireTimeoutMillis) {
+        super(targetDataSource);
+        this.permits = new Semaphore(maxPermits, true);
+        this.maxPermits = maxPermits;
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        try {
+            return limited(super.getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(final String username, final String password) throws SQLException {
+        acquire();
+        try {
+            return limited(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public void bindTo(final MeterRegistry registry) {
+        Gauge.builder("quora.jdbc.limiter.active", this, limiter -> limiter.maxPermits - limiter.permits.availablePermits())
+                .description("Connections checked out through the JDBC concurrency limiter")
+                .register(registry);
+        Gauge.builder("quora.jdbc.limiter.pending", permits, Semaphore::getQueueLength)
+                .description("Threads waiting for a permit of the JDBC concurrency limiter")
+                .register(registry);
+        Gauge.builder("quora.jdbc.limiter.max", this, limiter -> limiter.maxPermits)
+                .register(registry);
+        FunctionCounter.builder("quora.jdbc.limiter.timeouts", timeouts, AtomicLong::get)
+                .description("Requests which gave up waiting for a permit of the JDBC concurrency limiter")
+                .register(registry);
+        FunctionTimer.builder("quora.jdbc.limiter.wait", this,
+                limiter -> limiter.acquisitions.get(), limiter -> limiter.waitNanos.get(), TimeUnit.NANOSECONDS)
+                .description("Time spent waiting for a permit of the JDBC concurrency limiter").register(registry);
+    }
+
+    /**
+     * This method closes the target data source, which the limiter replaces as a bean.
+     */
+    @Override
+    public void close() throws IOException {
+        if (getTargetDataSource() instanceof Closeable) {
+            ((Closeable) getTargetDataSource()).close();
+        }
+    }
+
+    private void acquire() throws SQLException {
+        final long start = System.nanoTime();
+        final boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a JDBC permit", e);
+        }
+        if (!acquired) {
+            timeouts.incrementAndGet();
+            throw new SQLTransientConnectionException("No JDBC permit available after " + acquireTimeoutMillis
+                    + " ms, " + maxPermits + " connections are in use");
+        }
+        acquisitions.incrementAndGet();
+        waitNanos.addAndGet(System.nanoTime() - start);
+    }
+
+    private Connection limited(final Connection connection) {
+        return (Connection) Proxy.newProxyInstance(ConnectionProxy.class.getClassLoader(),
+                new Class<?>[]{ConnectionProxy.class}, new PermitReleasingHandler(connection));
+    }
+
+    /**
+     * PermitReleasingHandler returns the permit of the connection the first time the connection is closed.
+     */
+    private final class PermitReleasingHandler implements InvocationHandler {
+
+        private final Connection target;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private PermitReleasingHandler(final Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "getTargetConnection":
+                    return target;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "close":
+                    try {
+                        target.close();
+                    } finally {
+                        if (closed.compareAndSet(false, true)) {
+                            permits.release();
+                        }
+                    }
+                    return null;
+                default:
+                    try {
+                        return method.invoke(target, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+            }
+        }
+    }
+}
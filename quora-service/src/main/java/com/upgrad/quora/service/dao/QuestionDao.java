@@ -0,0 +1,91 @@
+package com.upgrad.quora.service.dao;
+
+import com.upgrad.quora.service.entity.QuestionEntity;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.NoResultException;
+import javax.persistence.PersistenceContext;
+import java.sql.Timestamp;
+import java.time.ZonedDateTime;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * QuestionDao class provides the database access for all the endpoints which need to read or update the QUESTION table.
+ */
+@Repository
+public class QuestionDao {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * This method fetches the question corresponding to the uuid.
+     *
+     * @param uuid - uuid of the question
+     * @return - QuestionEntity if the question exists in the database, null otherwise
+     */
+    public QuestionEntity getQuestionByUuid(final String uuid) {
+        try {
+            return entityManager.createNamedQuery("questionByUuid", QuestionEntity.class).setParameter("uuid", uuid).getSingleResult();
+        } catch (NoResultException nre) {
+            return null;
+        }
+    }
+
+    /**
+     * This method fetches one page of questions, newest first.
+     *
+     * @param afterDate - date of the last question of the previous page, null for the first page
+     * @param afterId   - id of the last question of the previous page, null for the first page
+     * @param limit     - maximum number of questions in the page
+     * @return - list of questions ordered by date and id descending
+     */
+    @SuppressWarnings("unchecked")
+    public List<QuestionEntity> getQuestionsPage(final ZonedDateTime afterDate, final Integer afterId, final int limit) {
+        if (afterDate == null) {
+            return entityManager.createNamedQuery("firstQuestionsPage").setParameter("limit", limit).getResultList();
+        }
+        return entityManager.createNamedQuery("questionsPageAfter")
+                .setParameter("date", Timestamp.from(afterDate.toInstant()))
+                .setParameter("id", afterId)
+                .setParameter("limit", limit).getResultList();
+    }
+
+    /**
+     * This method fetches one page of the questions posted by the user, newest first.
+     *
+     * @param userId    - id of the user
+     * @param afterDate - date of the last question of the previous page, null for the first page
+     * @param afterId   - id of the last question of the previous page, null for the first page
+     * @param limit     - maximum number of questions in the page
+     * @return - list of questions ordered by date and id descending
+     */
+    @SuppressWarnings("unchecked")
+    public List<QuestionEntity> getQuestionsPageByUser(final Integer userId, final ZonedDateTime afterDate, final Integer afterId, final int limit) {
+        if (afterDate == null) {
+            return entityManager.createNamedQuery("firstQuestionsPageByUser")
+                    .setParameter("userId", userId)
+                    .setParameter("limit", limit).getResultList();
+        }
+        return entityManager.createNamedQuery("questionsPageByUserAfter")
+                .setParameter("userId", userId)
+                .setParameter("date", Timestamp.from(afterDate.toInstant()))
+                .setParameter("id", afterId)
+                .setParameter("limit", limit).getResultList();
+    }
+
+    /**
+     * This method fetches the questions with the given ids, in no particular order.
+     *
+     * @param ids - ids of the questions
+     * @return - list of the questions which exist in the database
+     */
+    public List<QuestionEntity> getQuestionsByIds(final List<Integer> ids) {
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return entityManager.createNamedQuery("questionsByIds", QuestionEntity.class).setParameter("ids", ids).getResultList();
+    }
+}
@@ -0,0 +1,75 @@
+package com.upgrad.quora.service.dao;
+
+import com.upgrad.quora.service.entity.QuestionEntity;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.List;
+
+/**
+ * QuestionSearchDao class runs the full-text search over QUESTION.CONTENT.
+ * The search matches the CONTENT_TSV column, which a trigger keeps up to date, which is covered by the QUESTION_CONTENT_TSV_IDX GIN index,
+ * and orders the hits by ts_rank and id descending so that the pages can be walked with a (rank, id) cursor.
+ * At most quora.search.max-ranked-matches matches are ranked, as ts_rank has to read the vector of every row it ranks and
+ * ranking all the matches of a common term took seconds at 5M questions. The matches are taken in no particular order, so
+ * that a rare term is read from the GIN index and a common one stops scanning QUESTION at the first matches it finds.
+ * Every hit of a search with more matches than are ranked is flagged as truncated, so that the client can ask the user to
+ * narrow the search down instead of silently missing the matches which were not ranked.
+ */
+@Repository
+public class QuestionSearchDao {
+
+    private static final String BACKFILL_BATCH_QUERY =
+            "with batch as (select id from question where content_tsv is null limit ? for update skip locked)" +
+                    " update question q set content_tsv = to_tsvector('english', q.content) from batch where q.id = batch.id returning q.id";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${quora.search.max-ranked-matches:500}")
+    private int maxRankedMatches;
+
+    /**
+     * This method fetches one page of the questions matching the search text, best match first.
+     *
+     * @param text      - search text, parsed with plainto_tsquery
+     * @param afterRank - rank of the last hit of the previous page, null for the first page
+     * @param afterId   - id of the last hit of the previous page, null for the first page
+     * @param limit     - maximum number of hits in the page
+     * @return - list of [QuestionEntity, Float rank, Boolean truncated] triples, truncated being true if the search text
+     * has more matches than were ranked
+     */
+    @SuppressWarnings("unchecked")
+    public List<Object[]> search(final String text, final Float afterRank, final Integer afterId, final int limit) {
+        if (afterRank == null) {
+            return entityManager.createNamedQuery("searchQuestions")
+                    .setParameter("text", text)
+                    .setParameter("maxRanked", maxRankedMatches)
+                    .setParameter("limit", limit).getResultList();
+        }
+        return entityManager.createNamedQuery("searchQuestionsAfter")
+                .setParameter("text", text)
+                .setParameter("maxRanked", maxRankedMatches)
+                .setParameter("rank", afterRank)
+                .setParameter("id", afterId)
+                .setParameter("limit", limit).getResultList();
+    }
+
+    /**
+     * This method fills the CONTENT_TSV of the next batch of questions which have none yet, in its own transaction.
+     * Questions locked by a concurrent backfill on another node are skipped.
+     *
+     * @param batchSize - maximum number of questions in the batch
+     * @return - ids of the filled questions, empty once every question has its vector
+     */
+    public List<Integer> backfillBatch(final int batchSize) {
+        return jdbcTemplate.queryForList(BACKFILL_BATCH_QUERY, Integer.class, batchSize);
+    }
+}
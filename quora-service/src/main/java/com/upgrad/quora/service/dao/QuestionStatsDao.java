@@ -0,0 +1,34 @@
+package com.upgrad.quora.service.dao;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * QuestionStatsDao class recomputes the denormalized ANSWER_COUNT and LAST_ANSWER_AT columns of the QUESTION table.
+ */
+@Repository
+public class QuestionStatsDao {
+
+    private static final String REPAIR_BATCH_QUERY =
+            "with batch as (select id from question where id > ? order by id limit ?)" +
+                    " update question q set answer_count = (select count(*) from answer a where a.question_id = q.id)," +
+                    " last_answer_at = (select max(a.date) from answer a where a.question_id = q.id)" +
+                    " from batch where q.id = batch.id returning q.id";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * This method recomputes the statistics of the next batch of questions, in its own transaction.
+     *
+     * @param afterId   - id of the last question of the previous batch, 0 for the first batch
+     * @param batchSize - maximum number of questions in the batch
+     * @return - ids of the repaired questions, empty once every question has been repaired
+     */
+    public List<Integer> repairBatch(final int afterId, final int batchSize) {
+        return jdbcTemplate.queryForList(REPAIR_BATCH_QUERY, Integer.class, afterId, batchSize);
+    }
+}
@@ -0,0 +1,240 @@
+package com.upgrad.quora.service.dao;
+
+import com.upgrad.quora.service.ReactiveDataSourceProperties;
+import com.upgrad.quora.service.entity.AnswerEntity;
+import com.upgrad.quora.service.entity.QuestionEntity;
+import com.upgrad.quora.service.entity.UserAuthEntity;
+import com.upgrad.quora.service.entity.UserEntity;
+import io.r2dbc.spi.Row;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+/**
+ * ReactiveReadDao class runs the queries of the reactive read API over R2DBC, without blocking the calling thread.
+ * The queries are the SQL equivalents of the JPA queries of QuestionDao, AnswerDao, UserDao and UserAuthDao and use the same indexes.
+ * Rows are mapped to detached entities, which are never attached to a persistence context.
+ * Every method is lazy: nothing is sent to the database until the returned publisher is subscribed to.
+ */
+@Repository
+@ConditionalOnProperty(prefix = "quora.reactive", name = "enabled", havingValue = "true")
+public class ReactiveReadDao {
+
+    private static final String USER_AUTH_QUERY = "select ua.access_token, ua.expires_at, ua.logout_at, u.id, u.uuid, u.role" +
+            " from user_auth ua join users u on u.id = ua.user_id where ua.access_token = $1";
+
+    private static final String USER_AUTH_BY_EXPIRY_QUERY = USER_AUTH_QUERY + " and ua.expires_at >= $2 and ua.expires_at < $3";
+
+    private static final String USER_ID_QUERY = "select id from users where uuid = $1 and deleted_at is null";
+
+    private static final String USER_QUERY = "select id, uuid, firstname, lastname, username, email, country, aboutme, dob, role, contactnumber" +
+            " from users where uuid = $1 and deleted_at is null";
+
+    private static final String QUESTION_COLUMNS = "select id, uuid, content, date, answer_count, last_answer_at from question";
+
+    private static final String FIRST_QUESTIONS_PAGE_QUERY = QUESTION_COLUMNS + " order by date desc, id desc limit $1";
+
+    private static final String QUESTIONS_PAGE_AFTER_QUERY = QUESTION_COLUMNS +
+            " where (date, id) < ($1, $2) order by date desc, id desc limit $3";
+
+    private static final String FIRST_QUESTIONS_PAGE_BY_USER_QUERY = QUESTION_COLUMNS +
+            " where user_id = $1 order by date desc, id desc limit $2";
+
+    private static final String QUESTIONS_PAGE_BY_USER_AFTER_QUERY = QUESTION_COLUMNS +
+            " where user_id = $1 and (date, id) < ($2, $3) order by date desc, id desc limit $4";
+
+    private static final String ALL_QUESTIONS_QUERY = QUESTION_COLUMNS + " order by id";
+
+    private static final String QUESTION_ID_QUERY = "select id from question where uuid = $1";
+
+    private static final String ALL_ANSWERS_TO_QUESTION_QUERY =
+            "select a.uuid, q.content, a.ans from answer a join question q on q.id = a.question_id where a.question_id = $1 order by a.date, a.id";
+
+    private static final String COLLECTION_VERSION_QUERY = "select coalesce(sum(version), 0) as version from resource_version_shard where name = $1";
+
+    private static final String QUESTION_VERSION_QUERY = "select version from question where uuid = $1";
+
+    private static final String USER_VERSION_QUERY = "select version from users where uuid = $1 and deleted_at is null";
+
+    private final DatabaseClient databaseClient;
+    private final int fetchSize;
+
+    public ReactiveReadDao(final DatabaseClient databaseClient, final ReactiveDataSourceProperties properties) {
+        this.databaseClient = databaseClient;
+        this.fetchSize = properties.getFetchSize();
+    }
+
+    /**
+     * This method fetches the session of the access token together with the id, uuid and role of its user.
+     * Like UserAuthDao, it narrows the lookup of a JWT token down to the partition of its expiry.
+     *
+     * @param accessToken - access token received in the authorization header
+     * @return - detached UserAuthEntity, or empty if the access token does not exist
+     */
+    public Mono<UserAuthEntity> getUserAuthByAccessToken(final String accessToken) {
+        final ZonedDateTime expiresAt = AccessTokenExpiry.of(accessToken);
+        final DatabaseClient.GenericExecuteSpec query = expiresAt == null ? databaseClient.sql(USER_AUTH_QUERY).bind(0, accessToken)
+                : databaseClient.sql(USER_AUTH_BY_EXPIRY_QUERY).bind(0, accessToken)
+                        .bind(1, toLocalDateTime(expiresAt)).bind(2, toLocalDateTime(expiresAt.plusSeconds(1)));
+        return query
+                .map((row, metadata) -> {
+                    final UserEntity user = new UserEntity();
+                    user.setId(row.get("id", Integer.class));
+                    user.setUuid(row.get("uuid", String.class));
+                    user.setRole(row.get("role", String.class));
+                    final UserAuthEntity userAuth = new UserAuthEntity();
+                    userAuth.setUser(user);
+                    userAuth.setAccessToken(row.get("access_token", String.class));
+                    userAuth.setExpiresAt(toZonedDateTime(row.get("expires_at", LocalDateTime.class)));
+                    userAuth.setLogoutAt(toZonedDateTime(row.get("logout_at", LocalDateTime.class)));
+                    return userAuth;
+                })
+                .one();
+    }
+
+    /**
+     * @return - id of the user, or empty if the user does not exist
+     */
+    public Mono<Integer> getUserIdByUuid(final String uuid) {
+        return databaseClient.sql(USER_ID_QUERY).bind(0, uuid).map((row, metadata) -> row.get("id", Integer.class)).one();
+    }
+
+    /**
+     * This method fetches the profile of the user, without the password and salt.
+     *
+     * @return - detached UserEntity, or empty if the user does not exist
+     */
+    public Mono<UserEntity> getUserByUuid(final String uuid) {
+        return databaseClient.sql(USER_QUERY).bind(0, uuid)
+                .map((row, metadata) -> {
+                    final UserEntity user = new UserEntity();
+                    user.setId(row.get("id", Integer.class));
+                    user.setUuid(row.get("uuid", String.class));
+                    user.setFirstName(row.get("firstname", String.class));
+                    user.setLastName(row.get("lastname", String.class));
+                    user.setUserName(row.get("username", String.class));
+                    user.setEmail(row.get("email", String.class));
+                    user.setCountry(row.get("country", String.class));
+                    user.setAboutMe(row.get("aboutme", String.class));
+                    user.setDob(row.get("dob", String.class));
+                    user.setRole(row.get("role", String.class));
+                    user.setContactNumber(row.get("contactnumber", String.class));
+                    return user;
+                })
+                .one();
+    }
+
+    /**
+     * This method fetches one page of all the questions, newest first, like QuestionDao.getQuestionsPage().
+     *
+     * @param afterDate - date of the last question of the previous page, null for the first page
+     * @param afterId   - id of the last question of the previous page, null for the first page
+     * @param limit     - maximum number of questions to fetch
+     */
+    public Flux<QuestionEntity> getQuestionsPage(final ZonedDateTime afterDate, final Integer afterId, final int limit) {
+        final DatabaseClient.GenericExecuteSpec query = afterDate == null || afterId == null
+                ? databaseClient.sql(FIRST_QUESTIONS_PAGE_QUERY).bind(0, limit)
+                : databaseClient.sql(QUESTIONS_PAGE_AFTER_QUERY).bind(0, toLocalDateTime(afterDate)).bind(1, afterId).bind(2, limit);
+        return query.map((row, metadata) -> toQuestion(row)).all();
+    }
+
+    /**
+     * This method fetches one page of the questions posted by the user, newest first, like QuestionDao.getQuestionsPageByUser().
+     *
+     * @param userId    - id of the user
+     * @param afterDate - date of the last question of the previous page, null for the first page
+     * @param afterId   - id of the last question of the previous page, null for the first page
+     * @param limit     - maximum number of questions to fetch
+     */
+    public Flux<QuestionEntity> getQuestionsPageByUser(final Integer userId, final ZonedDateTime afterDate, final Integer afterId, final int limit) {
+        final DatabaseClient.GenericExecuteSpec query = afterDate == null || afterId == null
+                ? databaseClient.sql(FIRST_QUESTIONS_PAGE_BY_USER_QUERY).bind(0, userId).bind(1, limit)
+                : databaseClient.sql(QUESTIONS_PAGE_BY_USER_AFTER_QUERY).bind(0, userId).bind(1, toLocalDateTime(afterDate))
+                        .bind(2, afterId).bind(3, limit);
+        return query.map((row, metadata) -> toQuestion(row)).all();
+    }
+
+    /**
+     * This method streams every question. Rows are fetched from a portal in batches of the fetch size, and the next batch is
+     * only requested once the subscriber has asked for more rows, so a slow client holds back the query instead of filling the heap.
+     */
+    public Flux<QuestionEntity> streamAllQuestions() {
+        return databaseClient.sql(ALL_QUESTIONS_QUERY).filter(statement -> statement.fetchSize(fetchSize))
+                .map((row, metadata) -> toQuestion(row)).all();
+    }
+
+    /**
+     * @return - id of the question, or empty if the question does not exist
+     */
+    public Mono<Integer> getQuestionIdByUuid(final String uuid) {
+        return databaseClient.sql(QUESTION_ID_QUERY).bind(0, uuid).map((row, metadata) -> row.get("id", Integer.class)).one();
+    }
+
+    /**
+     * This method streams every answer to the question, oldest first, with the back-pressure of streamAllQuestions().
+     * Every answer carries a question which only holds the content.
+     */
+    public Flux<AnswerEntity> streamAllAnswersToQuestion(final Integer questionId) {
+        return databaseClient.sql(ALL_ANSWERS_TO_QUESTION_QUERY).bind(0, questionId).filter(statement -> statement.fetchSize(fetchSize))
+                .map((row, metadata) -> {
+                    final QuestionEntity question = new QuestionEntity();
+                    question.setContent(row.get("content", String.class));
+                    final AnswerEntity answer = new AnswerEntity();
+                    answer.setUuid(row.get("uuid", String.class));
+                    answer.setAns(row.get("ans", String.class));
+                    answer.setQuestion(question);
+                    return answer;
+                })
+                .all();
+    }
+
+    /**
+     * This method fetches the version of all the questions, like ResourceVersionDao.getQuestionCollectionVersion().
+     */
+    public Mono<Long> getQuestionCollectionVersion() {
+        return databaseClient.sql(COLLECTION_VERSION_QUERY).bind(0, "question").map((row, metadata) -> row.get("version", Long.class))
+                .first().defaultIfEmpty(0L);
+    }
+
+    /**
+     * @return - version of the question, or empty if the question does not exist
+     */
+    public Mono<Long> getQuestionVersion(final String uuid) {
+        return databaseClient.sql(QUESTION_VERSION_QUERY).bind(0, uuid).map((row, metadata) -> row.get("version", Long.class)).first();
+    }
+
+    /**
+     * @return - version of the user, or empty if the user does not exist
+     */
+    public Mono<Long> getUserVersion(final String uuid) {
+        return databaseClient.sql(USER_VERSION_QUERY).bind(0, uuid).map((row, metadata) -> row.get("version", Long.class)).first();
+    }
+
+    private static QuestionEntity toQuestion(final Row row) {
+        final QuestionEntity question = new QuestionEntity();
+        question.setId(row.get("id", Integer.class));
+        question.setUuid(row.get("uuid", String.class));
+        question.setContent(row.get("content", String.class));
+        question.setDate(toZonedDateTime(row.get("date", LocalDateTime.class)));
+        question.setAnswerCount(row.get("answer_count", Integer.class));
+        question.setLastAnswerAt(toZonedDateTime(row.get("last_answer_at", LocalDateTime.class)));
+        return question;
+    }
+
+    /**
+     * The TIMESTAMP columns hold the local time of the application, the same as the JDBC driver assumes.
+     */
+    private static ZonedDateTime toZonedDateTime(final LocalDateTime dateTime) {
+        return dateTime == null ? null : dateTime.atZone(ZoneId.systemDefault());
+    }
+
+    private static LocalDateTime toLocalDateTime(final ZonedDateTime dateTime) {
+        return dateTime.withZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+    }
+}
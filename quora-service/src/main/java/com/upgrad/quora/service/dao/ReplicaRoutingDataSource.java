@@ -0,0 +1,253 @@
+package com.upgrad.quora.service.dao;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ReplicaRoutingDataSource sends the connections of read-only transactions to the read replicas and everything else to the primary.
+ * It must sit behind a LazyConnectionDataSourceProxy, so that the connection is only fetched once the transaction manager has
+ * marked the transaction read-only.
+ * <ul>
+ * <li>Replicas take turns, and a replica is skipped while its replay lag is above the threshold or it cannot be reached;
+ * with no replica left the reads go to the primary.</li>
+ * <li>Once a session has committed a write, its reads go to the primary for the read-your-writes window, which should be at
+ * least the lag threshold so that the write has reached every replica still in use when the window ends.</li>
+ * <li>Every read of a request goes to the database its first read went to, as replicas lag by different amounts: a version read
+ * from one replica could otherwise tag a body read from a replica which is further behind. Should the pinned replica leave the
+ * rotation, the rest of the request reads from the primary, which is never behind what the request has already read.</li>
+ * <li>A connection fetched outside of any transaction goes to the primary, as nothing tells whether it will write, and is counted
+ * apart from the writes; reads should run in a read-only transaction to reach the replicas.</li>
+ * </ul>
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements MeterBinder, Closeable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    private static final String PRIMARY = "primary";
+
+    private static final int PURGE_INTERVAL = 1024;
+
+    /**
+     * Replay lag of the replica in milliseconds, 0 if it has replayed everything it received or is not a standby at all,
+     * and -1 if it is not streaming from the primary.
+     */
+    private static final String LAG_QUERY = "select case" +
+            " when not pg_is_in_recovery() then 0" +
+            " when not exists (select 1 from pg_stat_wal_receiver where status = 'streaming') then -1" +
+            " when pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() then 0" +
+            " else coalesce(extract(epoch from now() - pg_last_xact_replay_timestamp()) * 1000, -1) end";
+
+    private final List<Replica> replicas;
+    private final long maxLagMillis;
+    private final long readYourWritesMillis;
+
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final Map<String, Long> lastWrites = new ConcurrentHashMap<>();
+    private final AtomicInteger writes = new AtomicInteger();
+
+    private final AtomicLong primaryReads = new AtomicLong();
+    private final AtomicLong primaryWrites = new AtomicLong();
+    private final AtomicLong primaryUntracked = new AtomicLong();
+
+    /**
+     * @param primary              - data source of the primary
+     * @param replicas             - data sources of the replicas, by name
+     * @param maxLagMillis         - replay lag above which a replica is skipped
+     * @param readYourWritesMillis - time after a committed write during which the reads of the session go to the primary
+     */
+    public ReplicaRoutingDataSource(final DataSource primary, final Map<String, DataSource> replicas, final long maxLagMillis,
+                                    final long readYourWritesMillis) {
+        this.maxLagMillis = maxLagMillis;
+        this.readYourWritesMillis = readYourWritesMillis;
+        this.replicas = new ArrayList<>(replicas.size());
+        final Map<Object, Object> targetDataSources = new HashMap<>();
+        targetDataSources.put(PRIMARY, primary);
+        for (final Map.Entry<String, DataSource> replica : replicas.entrySet()) {
+            this.replicas.add(new Replica(replica.getKey(), replica.getValue()));
+            targetDataSources.put(replica.getKey(), replica.getValue());
+        }
+        setTargetDataSources(targetDataSources);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        final String session = ReplicaSessionContext.get();
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            primaryUntracked.incrementAndGet();
+            return PRIMARY;
+        }
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            primaryWrites.incrementAndGet();
+            trackWrite(session);
+            ReplicaSessionContext.pin(PRIMARY);
+            return PRIMARY;
+        }
+        final String target = determineReadTarget(session);
+        ReplicaSessionContext.pin(target);
+        return target;
+    }
+
+    private String determineReadTarget(final String session) {
+        final String pinned = ReplicaSessionContext.getPinnedTarget();
+        if (pinned != null && !PRIMARY.equals(pinned)) {
+            for (final Replica replica : replicas) {
+                if (replica.name.equals(pinned) && replica.healthy) {
+                    replica.reads.incrementAndGet();
+                    return replica.name;
+                }
+            }
+        }
+        if (pinned != null || (session != null && recentlyWrote(session))) {
+            primaryReads.incrementAndGet();
+            return PRIMARY;
+        }
+        final int size = replicas.size();
+        if (size == 0) {
+            primaryReads.incrementAndGet();
+            return PRIMARY;
+        }
+        final int start = Math.floorMod(nextReplica.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            final Replica replica = replicas.get((start + i) % size);
+            if (replica.healthy) {
+                replica.reads.incrementAndGet();
+                return replica.name;
+            }
+        }
+        primaryReads.incrementAndGet();
+        return PRIMARY;
+    }
+
+    /**
+     * This method measures the lag of the replicas once on startup, so that they are in rotation before the first check is scheduled.
+     */
+    @Override
+    public void afterPropertiesSet() {
+        super.afterPropertiesSet();
+        checkLag();
+    }
+
+    /**
+     * This method measures the replay lag of every replica and takes the replicas out of rotation, or back in, accordingly.
+     */
+    @Scheduled(fixedDelayString = "${quora.datasource.replica.lag-check-interval-millis:1000}")
+    public void checkLag() {
+        for (final Replica replica : replicas) {
+            long lagMillis;
+            try (Connection connection = replica.dataSource.getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery(LAG_QUERY)) {
+                lagMillis = rs.next() ? (long) rs.getDouble(1) : -1;
+            } catch (SQLException e) {
+                LOG.debug("Could not measure the lag of replica {}", replica.name, e);
+                lagMillis = -1;
+            }
+            final boolean healthy = lagMillis >= 0 && lagMillis <= maxLagMillis;
+            if (healthy != replica.healthy) {
+                LOG.warn("Replica {} is {} with a lag of {} ms", replica.name, healthy ? "back in rotation" : "out of rotation", lagMillis);
+            }
+            replica.lagMillis = lagMillis;
+            replica.healthy = healthy;
+        }
+    }
+
+    @Override
+    public void bindTo(final MeterRegistry registry) {
+        FunctionCounter.builder("quora.datasource.routed", primaryWrites, AtomicLong::get)
+                .tags("target", PRIMARY, "access", "write").register(registry);
+        FunctionCounter.builder("quora.datasource.routed", primaryReads, AtomicLong::get)
+                .tags("target", PRIMARY, "access", "read").register(registry);
+        FunctionCounter.builder("quora.datasource.routed", primaryUntracked, AtomicLong::get)
+                .tags("target", PRIMARY, "access", "none")
+                .description("Connections fetched outside of any transaction").register(registry);
+        for (final Replica replica : replicas) {
+            FunctionCounter.builder("quora.datasource.routed", replica.reads, AtomicLong::get)
+                    .tags("target", replica.name, "access", "read").register(registry);
+            Gauge.builder("quora.datasource.replica.lag", replica, r -> r.lagMillis)
+                    .tag("replica", replica.name)
+                    .baseUnit("milliseconds")
+                    .description("Replay lag of the replica as of the last check, -1 if it could not be measured")
+                    .register(registry);
+        }
+    }
+
+    /**
+     * This method closes the connection pools of the replicas. The primary is closed by its own bean.
+     */
+    @Override
+    public void close() throws IOException {
+        for (final Replica replica : replicas) {
+            if (replica.dataSource instanceof Closeable) {
+                ((Closeable) replica.dataSource).close();
+            }
+        }
+    }
+
+    /**
+     * This method records the time of the write of the session once its transaction has committed.
+     */
+    private void trackWrite(final String session) {
+        if (session == null || !TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(this)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(this, session);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(final int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(ReplicaRoutingDataSource.this);
+                if (status == STATUS_COMMITTED) {
+                    lastWrites.put(session, System.currentTimeMillis());
+                    if (writes.incrementAndGet() % PURGE_INTERVAL == 0) {
+                        final long expired = System.currentTimeMillis() - readYourWritesMillis;
+                        lastWrites.values().removeIf(writtenAt -> writtenAt <= expired);
+                    }
+                }
+            }
+        });
+    }
+
+    private boolean recentlyWrote(final String session) {
+        final Long writtenAt = lastWrites.get(session);
+        return writtenAt != null && System.currentTimeMillis() - writtenAt < readYourWritesMillis;
+    }
+
+    private static final class Replica {
+
+        private final String name;
+        private final DataSource dataSource;
+        private final AtomicLong reads = new AtomicLong();
+
+        private volatile long lagMillis = -1;
+        private volatile boolean healthy;
+
+        private Replica(final String name, final DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.upgrad.quora.service.dao;
+
+/**
+ * ReplicaSessionContext holds the session of the request being served on the current thread, so that the
+ * ReplicaRoutingDataSource can send the reads of a session which has just written to the primary.
+ * It also holds the database the reads of the request were routed to first, so that every later read of the same request,
+ * such as the version behind an ETag and the body it tags, is served by that same database.
+ * The web layer sets it from the authorization header of every request and clears it once the request is done.
+ */
+public final class ReplicaSessionContext {
+
+    private static final ThreadLocal<Request> REQUEST = new ThreadLocal<>();
+
+    private ReplicaSessionContext() {
+    }
+
+    public static void set(final String session) {
+        REQUEST.set(new Request(session));
+    }
+
+    /**
+     * @return - session of the current request, null outside of a request or for anonymous requests
+     */
+    public static String get() {
+        final Request request = REQUEST.get();
+        return request == null ? null : request.session;
+    }
+
+    public static void clear() {
+        REQUEST.remove();
+    }
+
+    /**
+     * @return - lookup key of the database the reads of the current request are pinned to, null if none is yet or outside of a request
+     */
+    static String getPinnedTarget() {
+        final Request request = REQUEST.get();
+        return request == null ? null : request.pinnedTarget;
+    }
+
+    /**
+     * This method pins the reads of the current request to the database. It does nothing outside of a request.
+     */
+    static void pin(final String target) {
+        final Request request = REQUEST.get();
+        if (request != null) {
+            request.pinnedTarget = target;
+        }
+    }
+
+    private static final class Request {
+
+        private final String session;
+        private String pinnedTarget;
+
+        private Request(final String session) {
+            this.session = session;
+        }
+    }
+}
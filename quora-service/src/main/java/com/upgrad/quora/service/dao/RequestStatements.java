@@ -0,0 +1,93 @@
+package com.upgrad.quora.service.dao;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * RequestStatements counts the SQL statements which the request being served on the current thread runs through the
+ * StatementInspectingDataSource, against the statement budget of its operation.
+ * The web layer starts it once the operation of the request is known and clears it once the request is done; statements
+ * run outside of a request, by the scheduled jobs for instance, are not counted.
+ */
+public final class RequestStatements {
+
+    private static final ThreadLocal<RequestStatements> CURRENT = new ThreadLocal<>();
+
+    private final String operation;
+    private final int budget;
+    private final Map<String, Integer> executionsBySql = new HashMap<>();
+    private int count;
+    private long nanos;
+
+    private RequestStatements(final String operation, final int budget) {
+        this.operation = operation;
+        this.budget = budget;
+    }
+
+    /**
+     * @param operation - operationId of the request, used in the log messages and errors
+     * @param budget    - maximum number of statements the request may run
+     */
+    public static RequestStatements start(final String operation, final int budget) {
+        final RequestStatements statements = new RequestStatements(operation, budget);
+        CURRENT.set(statements);
+        return statements;
+    }
+
+    /**
+     * @return - statements of the current request, null outside of a request
+     */
+    public static RequestStatements current() {
+        return CURRENT.get();
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    /**
+     * This method counts a statement before it runs.
+     *
+     * @return - number of statements of the request, including this one
+     */
+    int count(final String sql) {
+        executionsBySql.merge(sql, 1, Integer::sum);
+        return ++count;
+    }
+
+    void addNanos(final long statementNanos) {
+        nanos += statementNanos;
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    public int getBudget() {
+        return budget;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * @return - time spent running the statements of the request
+     */
+    public long getNanos() {
+        return nanos;
+    }
+
+    /**
+     * @return - the statement the request ran most often, which is the lazy load of an N+1 pattern when the budget is exceeded
+     */
+    public Map.Entry<String, Integer> getMostRepeated() {
+        Map.Entry<String, Integer> mostRepeated = null;
+        for (final Map.Entry<String, Integer> entry : executionsBySql.entrySet()) {
+            if (mostRepeated == null || entry.getValue() > mostRepeated.getValue()) {
+                mostRepeated = entry;
+            }
+        }
+        return mostRepeated;
+    }
+}
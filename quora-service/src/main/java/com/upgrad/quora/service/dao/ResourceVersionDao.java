@@ -0,0 +1,60 @@
+package com.upgrad.quora.service.dao;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * ResourceVersionDao class reads the versions which the ETags of the read endpoints are derived from.
+ * The versions are maintained by the triggers of the V8 and V11 migrations; each read is a lookup on a unique index,
+ * so a conditional GET never loads the rows of the response.
+ * The reads are read-only transactions of their own when the caller has none, so that they are routed to the read replicas.
+ */
+@Repository
+@Transactional(readOnly = true)
+public class ResourceVersionDao {
+
+    private static final String COLLECTION_VERSION_QUERY = "select coalesce(sum(version), 0) from resource_version_shard where name = ?";
+
+    private static final String QUESTION_VERSION_QUERY = "select version from question where uuid = ?";
+
+    private static final String USER_VERSION_QUERY = "select version from users where uuid = ? and deleted_at is null";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * This method fetches the version of all the questions, which changes with every change to the QUESTION table.
+     */
+    public long getQuestionCollectionVersion() {
+        final Long version = singleVersion(jdbcTemplate.queryForList(COLLECTION_VERSION_QUERY, Long.class, "question"));
+        return version == null ? 0 : version;
+    }
+
+    /**
+     * This method fetches the version of the question, which changes with the question and with its answers.
+     *
+     * @param uuid - uuid of the question
+     * @return - version of the question, null if the question does not exist
+     */
+    public Long getQuestionVersion(final String uuid) {
+        return singleVersion(jdbcTemplate.queryForList(QUESTION_VERSION_QUERY, Long.class, uuid));
+    }
+
+    /**
+     * This method fetches the version of the user.
+     *
+     * @param uuid - uuid of the user
+     * @return - version of the user, null if the user does not exist
+     */
+    public Long getUserVersion(final String uuid) {
+        return singleVersion(jdbcTemplate.queryForList(USER_VERSION_QUERY, Long.class, uuid));
+    }
+
+    private static Long singleVersion(final List<Long> versions) {
+        return versions.isEmpty() ? null : versions.get(0);
+    }
+}
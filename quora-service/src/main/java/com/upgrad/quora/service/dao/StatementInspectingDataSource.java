@@ -0,0 +1,226 @@
+package com.upgrad.quora.service.dao;
+
+import com.upgrad.quora.service.common.GenericErrorCode;
+import com.upgrad.quora.service.common.UnexpectedException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * StatementInspectingDataSource times every SQL statement run through the connections of the target data source, and
+ * counts the statements of every request against the budget of its operation, see RequestStatements.
+ * <ul>
+ * <li>A statement slower than the slow statement budget is logged with its SQL, or fails the request in fail mode.</li>
+ * <li>In fail mode, the statement which would exceed the budget of the request fails it before running, so that an N+1
+ * listing breaks the controller tests instead of shipping; otherwise the web layer logs the request once it is done.</li>
+ * </ul>
+ * Both failures are UnexpectedExceptions, which pass through Hibernate and JdbcTemplate untouched and roll the transaction back.
+ */
+public class StatementInspectingDataSource extends DelegatingDataSource implements MeterBinder, Closeable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(StatementInspectingDataSource.class);
+
+    private static final String BATCH = "<batch>";
+
+    private final long slowStatementNanos;
+    private final boolean failOnViolation;
+
+    private final LongAdder statements = new LongAdder();
+    private final LongAdder statementNanos = new LongAdder();
+    private final LongAdder slowStatements = new LongAdder();
+
+    /**
+     * @param targetDataSource    - data source to inspect
+     * @param slowStatementMillis - latency budget of a single statement
+     * @param failOnViolation     - true to fail the requests which exceed a budget, false to only log them
+     */
+    public StatementInspectingDataSource(final DataSource targetDataSource, final long slowStatementMillis, final boolean failOnViolation) {
+        super(targetDataSource);
+        this.slowStatementNanos = TimeUnit.MILLISECONDS.toNanos(slowStatementMillis);
+        this.failOnViolation = failOnViolation;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return inspected(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(final String username, final String password) throws SQLException {
+        return inspected(super.getConnection(username, password));
+    }
+
+    @Override
+    public void bindTo(final MeterRegistry registry) {
+        FunctionTimer.builder("quora.jdbc.statements", this,
+                dataSource -> dataSource.statements.sum(), dataSource -> dataSource.statementNanos.sum(), TimeUnit.NANOSECONDS)
+                .description("SQL statements run through the statement inspection").register(registry);
+        FunctionCounter.builder("quora.jdbc.statements.slow", slowStatements, LongAdder::sum)
+                .description("SQL statements slower than the slow statement budget").register(registry);
+    }
+
+    /**
+     * This method closes the target data source, which the inspection replaces as a bean.
+     */
+    @Override
+    public void close() throws IOException {
+        if (getTargetDataSource() instanceof Closeable) {
+            ((Closeable) getTargetDataSource()).close();
+        }
+    }
+
+    private Connection inspected(final Connection connection) {
+        return (Connection) Proxy.newProxyInstance(ConnectionProxy.class.getClassLoader(),
+                new Class<?>[]{ConnectionProxy.class}, new ConnectionHandler(connection));
+    }
+
+    /**
+     * This method runs a statement, counting it against the budget of the request before and timing it.
+     */
+    private Object execute(final String sql, final Object target, final Method method, final Object[] args) throws Throwable {
+        final RequestStatements requestStatements = RequestStatements.current();
+        if (requestStatements != null && requestStatements.count(sql) > requestStatements.getBudget() && failOnViolation) {
+            throw new UnexpectedException(GenericErrorCode.GEN_003, requestStatements.getOperation(),
+                    String.valueOf(requestStatements.getBudget()));
+        }
+        final long start = System.nanoTime();
+        final Object result;
+        try {
+            result = method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            record(sql, System.nanoTime() - start, requestStatements);
+            throw e.getTargetException();
+        }
+        final long nanos = System.nanoTime() - start;
+        if (record(sql, nanos, requestStatements) && failOnViolation && requestStatements != null) {
+            throw new UnexpectedException(GenericErrorCode.GEN_004, requestStatements.getOperation(),
+                    String.valueOf(TimeUnit.NANOSECONDS.toMillis(nanos)), String.valueOf(TimeUnit.NANOSECONDS.toMillis(slowStatementNanos)));
+        }
+        return result;
+    }
+
+    /**
+     * @return - true if the statement was slower than the slow statement budget
+     */
+    private boolean record(final String sql, final long nanos, final RequestStatements requestStatements) {
+        statements.increment();
+        statementNanos.add(nanos);
+        if (requestStatements != null) {
+            requestStatements.addNanos(nanos);
+        }
+        if (nanos <= slowStatementNanos) {
+            return false;
+        }
+        slowStatements.increment();
+        LOG.warn("Slow SQL statement of {}: {} ms, the budget is {} ms: {}",
+                requestStatements == null ? "a background job" : requestStatements.getOperation(),
+                TimeUnit.NANOSECONDS.toMillis(nanos), TimeUnit.NANOSECONDS.toMillis(slowStatementNanos), sql);
+        return true;
+    }
+
+    private static boolean isExecute(final Method method) {
+        return method.getName().startsWith("execute");
+    }
+
+    /**
+     * ConnectionHandler wraps the statements created by the connection, remembering the SQL of the prepared ones.
+     */
+    private final class ConnectionHandler implements InvocationHandler {
+
+        private final Connection target;
+
+        private ConnectionHandler(final Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "getTargetConnection":
+                    return target;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    final Object result;
+                    try {
+                        result = method.invoke(target, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                    switch (method.getName()) {
+                        case "createStatement":
+                            return statement(proxy, method.getReturnType(), result, null);
+                        case "prepareStatement":
+                        case "prepareCall":
+                            return statement(proxy, method.getReturnType(), result, (String) args[0]);
+                        default:
+                            return result;
+                    }
+            }
+        }
+
+        private Object statement(final Object connection, final Class<?> type, final Object statement, final String sql) {
+            return Proxy.newProxyInstance(ConnectionProxy.class.getClassLoader(), new Class<?>[]{type},
+                    new StatementHandler(connection, statement, sql));
+        }
+    }
+
+    /**
+     * StatementHandler runs the execute methods of a statement through execute(); the SQL of a plain statement is the
+     * argument of the execute method.
+     */
+    private final class StatementHandler implements InvocationHandler {
+
+        private final Object connection;
+        private final Object target;
+        private final String sql;
+
+        private StatementHandler(final Object connection, final Object target, final String sql) {
+            this.connection = connection;
+            this.target = target;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+            if (isExecute(method)) {
+                final String executed = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0]
+                        : sql != null ? sql : BATCH;
+                return execute(executed, target, method, args);
+            }
+            switch (method.getName()) {
+                case "getConnection":
+                    return connection;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    try {
+                        return method.invoke(target, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+            }
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.upgrad.quora.service.dao;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+/**
+ * StreamingDao class reads whole tables for the bulk export endpoints without materializing them.
+ * The queries run with a JDBC fetch size, which makes the Postgres driver read the rows through a server-side cursor
+ * in batches of that size. They always run inside a read-only transaction, joining the one of the caller if any, as Postgres
+ * only uses a cursor when auto-commit is off and the routing data source only sends read-only transactions to the replicas.
+ */
+@Repository
+@Transactional(readOnly = true)
+public class StreamingDao {
+
+    private static final String ALL_QUESTIONS_QUERY = "select uuid, content, answer_count, last_answer_at from question order by id";
+
+    private static final String ALL_ANSWERS_TO_QUESTION_QUERY =
+            "select a.uuid, q.content, a.ans from answer a join question q on q.id = a.question_id where a.question_id = ? order by a.date, a.id";
+
+    private static final String QUESTION_CONTENTS_QUERY = "select id, content from question";
+
+    private static final String ANSWER_CONTENTS_QUERY = "select id, question_id, ans from answer";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public StreamingDao(final DataSource dataSource, @Value("${quora.streaming.fetch-size:500}") final int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+    }
+
+    /**
+     * This method hands every question to the handler as (uuid, content, answer count, last answer date), one row at a time.
+     */
+    public void streamAllQuestions(final QuestionRowHandler handler) {
+        jdbcTemplate.query(ALL_QUESTIONS_QUERY, rs -> {
+            final Timestamp lastAnswerAt = rs.getTimestamp(4);
+            handler.handle(rs.getString(1), rs.getString(2), rs.getInt(3),
+                    lastAnswerAt == null ? null : ZonedDateTime.ofInstant(lastAnswerAt.toInstant(), ZoneId.systemDefault()));
+        });
+    }
+
+    /**
+     * This method hands every answer to the question to the handler as (uuid, question content, answer content), one row at a time.
+     */
+    public void streamAllAnswersToQuestion(final Integer questionId, final AnswerRowHandler handler) {
+        jdbcTemplate.query(ALL_ANSWERS_TO_QUESTION_QUERY, rs -> {
+            handler.handle(rs.getString(1), rs.getString(2), rs.getString(3));
+        }, questionId);
+    }
+
+    /**
+     * This method hands the id and content of every question to the handler, one row at a time.
+     */
+    public void streamQuestionContents(final QuestionContentHandler handler) {
+        jdbcTemplate.query(QUESTION_CONTENTS_QUERY, rs -> {
+            handler.handle(rs.getInt(1), rs.getString(2));
+        });
+    }
+
+    /**
+     * This method hands the id, question id and content of every answer to the handler, one row at a time.
+     */
+    public void streamAnswerContents(final AnswerContentHandler handler) {
+        jdbcTemplate.query(ANSWER_CONTENTS_QUERY, rs -> {
+            handler.handle(rs.getInt(1), rs.getInt(2), rs.getString(3));
+        });
+    }
+
+    /**
+     * QuestionRowHandler receives the columns of one streamed question.
+     */
+    @FunctionalInterface
+    public interface QuestionRowHandler {
+        void handle(String uuid, String content, int answerCount, ZonedDateTime lastAnswerAt);
+    }
+
+    /**
+     * AnswerRowHandler receives the columns of one streamed answer.
+     */
+    @FunctionalInterface
+    public interface AnswerRowHandler {
+        void handle(String uuid, String questionContent, String answerContent);
+    }
+
+    /**
+     * QuestionContentHandler receives the id and content of one streamed question.
+     */
+    @FunctionalInterface
+    public interface QuestionContentHandler {
+        void handle(int id, String content);
+    }
+
+    /**
+     * AnswerContentHandler receives the id, question id and content of one streamed answer.
+     */
+    @FunctionalInterface
+    public interface AnswerContentHandler {
+        void handle(int id, int questionId, String content);
+    }
+}
@@ -0,0 +1,69 @@
+package com.upgrad.quora.service.dao;
+
+import com.upgrad.quora.service.entity.UserAuthEntity;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.NoResultException;
+import javax.persistence.PersistenceContext;
+import java.time.ZonedDateTime;
+
+/**
+ * UserAuthDao class provides the database access for all the endpoints which need to read or update the USER_AUTH table.
+ */
+@Repository
+public class UserAuthDao {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * This method fetches the login information of the user corresponding to the access token, whether it has expired or not.
+     * The lookup of a JWT token is narrowed down to the second of its expiry, which lets the database skip every USER_AUTH
+     * partition but the one of that expiry.
+     *
+     * @param accessToken - access token of the signed in user
+     * @return - UserAuthEntity if the access token exists in the database, null otherwise
+     */
+    public UserAuthEntity getUserAuthByAccessToken(final String accessToken) {
+        final ZonedDateTime expiresAt = AccessTokenExpiry.of(accessToken);
+        try {
+            if (expiresAt == null) {
+                return entityManager.createNamedQuery("userAuthByAccessToken", UserAuthEntity.class)
+                        .setParameter("accessToken", accessToken).getSingleResult();
+            }
+            return entityManager.createNamedQuery("userAuthByAccessTokenAndExpiry", UserAuthEntity.class)
+                    .setParameter("accessToken", accessToken).setParameter("expiresFrom", expiresAt)
+                    .setParameter("expiresTo", expiresAt.plusSeconds(1)).getSingleResult();
+        } catch (NoResultException nre) {
+            return null;
+        }
+    }
+
+    /**
+     * This method persists the login information of the user after successful sign in.
+     */
+    public UserAuthEntity createAuthToken(final UserAuthEntity userAuthEntity) {
+        entityManager.persist(userAuthEntity);
+        return userAuthEntity;
+    }
+
+    /**
+     * This method updates the login information of the user, e.g. the logout time on sign out.
+     */
+    public UserAuthEntity updateUserAuth(final UserAuthEntity userAuthEntity) {
+        return entityManager.merge(userAuthEntity);
+    }
+
+    /**
+     * This method signs out every session of the user which is still signed in.
+     *
+     * @param userId   - id of the user
+     * @param logoutAt - logout time to record
+     * @return - number of sessions signed out
+     */
+    public int signOutUser(final Integer userId, final ZonedDateTime logoutAt) {
+        return entityManager.createNamedQuery("signOutUserAuthByUserId")
+                .setParameter("userId", userId).setParameter("logoutAt", logoutAt).executeUpdate();
+    }
+}
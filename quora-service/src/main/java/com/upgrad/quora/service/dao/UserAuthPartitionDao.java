@@ -0,0 +1,165 @@
+package com.upgrad.quora.service.dao;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.temporal.ChronoField;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * UserAuthPartitionDao class maintains the daily EXPIRES_AT partitions of the USER_AUTH table.
+ * Partitions are detached with DETACH PARTITION CONCURRENTLY (PostgreSQL 14 or later), which does not block the token
+ * lookups on USER_AUTH. It cannot run inside a transaction, so the methods of this class must be called outside of one.
+ */
+@Repository
+public class UserAuthPartitionDao {
+
+    private static final String PARTITIONS_QUERY =
+            "select c.relname, pg_get_expr(c.relpartbound, c.oid), i.inhdetachpending from pg_inherits i" +
+                    " join pg_class c on c.oid = i.inhrelid join pg_class p on p.oid = i.inhparent" +
+                    " where p.relname = 'user_auth'";
+
+    private static final Pattern LOWER_BOUND = Pattern.compile("FROM \\('([^']+)'\\)");
+
+    private static final Pattern UPPER_BOUND = Pattern.compile("TO \\('([^']+)'\\)");
+
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    private static final DateTimeFormatter BOUND_FORMAT = new DateTimeFormatterBuilder().appendPattern("yyyy-MM-dd HH:mm:ss")
+            .optionalStart().appendFraction(ChronoField.NANO_OF_SECOND, 0, 9, true).optionalEnd().toFormatter();
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${quora.auth.reaper.lock-timeout-millis:5000}")
+    private long lockTimeoutMillis;
+
+    /**
+     * This method creates the partition of the day. The day must not be covered by an existing range partition yet.
+     *
+     * @param day - day of EXPIRES_AT the partition holds
+     */
+    public void createPartition(final LocalDate day) {
+        jdbcTemplate.execute("create table if not exists user_auth_p" + day.format(PARTITION_SUFFIX)
+                + " partition of user_auth for values from ('" + day.atStartOfDay() + "') to ('" + day.plusDays(1).atStartOfDay() + "')");
+    }
+
+    /**
+     * This method lists the partitions whose every session expired before the given time, oldest first.
+     * The default partition has no upper bound and is never listed.
+     *
+     * @param before - time before which all the sessions of a listed partition have expired
+     * @return - names of the expired partitions
+     */
+    public List<String> getExpiredPartitions(final LocalDateTime before) {
+        final List<String> expired = new ArrayList<>();
+        for (final Map.Entry<LocalDateTime, String> partition : getPartitionsByUpperBound().entrySet()) {
+            if (partition.getKey().isAfter(before)) {
+                break;
+            }
+            expired.add(partition.getValue());
+        }
+        return expired;
+    }
+
+    /**
+     * This method lists the days which no range partition covers yet, among the given days.
+     *
+     * @param from - first day to check
+     * @param to   - last day to check
+     * @return - days from the given ones which need a partition, in order
+     */
+    public List<LocalDate> getUncoveredDays(final LocalDate from, final LocalDate to) {
+        final List<LocalDateTime[]> ranges = new ArrayList<>();
+        jdbcTemplate.query(PARTITIONS_QUERY, rs -> {
+            final Matcher upper = UPPER_BOUND.matcher(rs.getString(2));
+            if (upper.find()) {
+                final Matcher lower = LOWER_BOUND.matcher(rs.getString(2));
+                ranges.add(new LocalDateTime[]{lower.find() ? LocalDateTime.parse(lower.group(1), BOUND_FORMAT) : LocalDateTime.MIN,
+                        LocalDateTime.parse(upper.group(1), BOUND_FORMAT)});
+            }
+        });
+        final List<LocalDate> uncovered = new ArrayList<>();
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            final LocalDateTime start = day.atStartOfDay();
+            final LocalDateTime end = day.plusDays(1).atStartOfDay();
+            if (ranges.stream().noneMatch(range -> range[0].isBefore(end) && range[1].isAfter(start))) {
+                uncovered.add(day);
+            }
+        }
+        return uncovered;
+    }
+
+    private TreeMap<LocalDateTime, String> getPartitionsByUpperBound() {
+        final TreeMap<LocalDateTime, String> partitions = new TreeMap<>();
+        jdbcTemplate.query(PARTITIONS_QUERY, rs -> {
+            final Matcher matcher = UPPER_BOUND.matcher(rs.getString(2));
+            if (matcher.find()) {
+                partitions.put(LocalDateTime.parse(matcher.group(1), BOUND_FORMAT), rs.getString(1));
+            }
+        });
+        return partitions;
+    }
+
+    /**
+     * This method detaches the partition from USER_AUTH and drops it.
+     */
+    public void dropPartition(final String partition) {
+        detachPartition(partition);
+        jdbcTemplate.execute("drop table " + partition);
+    }
+
+    /**
+     * This method detaches the partition from USER_AUTH and keeps it as a standalone archive table.
+     */
+    public void archivePartition(final String partition) {
+        detachPartition(partition);
+        jdbcTemplate.execute("alter table " + partition + " rename to " + partition.replaceFirst("^user_auth", "user_auth_archive"));
+    }
+
+    /**
+     * This method detaches the partition without blocking the token lookups. The detach waits for the transactions which
+     * still use the partition, or fails once it waited for a lock longer than the lock timeout. A detach which failed after
+     * its first step leaves the partition pending, and the next call finalizes it instead of starting over.
+     */
+    private void detachPartition(final String partition) {
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("set lock_timeout = " + lockTimeoutMillis);
+                try {
+                    statement.execute("alter table user_auth detach partition " + partition
+                            + (isDetachPending(connection, partition) ? " finalize" : " concurrently"));
+                } finally {
+                    statement.execute("reset lock_timeout");
+                }
+            }
+            return null;
+        });
+    }
+
+    private static boolean isDetachPending(final Connection connection, final String partition) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(PARTITIONS_QUERY + " and c.relname = ?")) {
+            statement.setString(1, partition);
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() && rs.getBoolean(3);
+            }
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.upgrad.quora.service.dao;
+
+import com.upgrad.quora.service.entity.UserEntity;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.NoResultException;
+import javax.persistence.PersistenceContext;
+
+/**
+ * UserDao class provides the database access for all the endpoints which need to read or update the USERS table.
+ */
+@Repository
+public class UserDao {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * This method fetches the user corresponding to the uuid.
+     *
+     * @param uuid - uuid of the user
+     * @return - UserEntity if the user exists in the database, null otherwise
+     */
+    public UserEntity getUserByUuid(final String uuid) {
+        try {
+            return entityManager.createNamedQuery("userByUuid", UserEntity.class).setParameter("uuid", uuid).getSingleResult();
+        } catch (NoResultException nre) {
+            return null;
+        }
+    }
+
+    /**
+     * This method fetches the user corresponding to the username, including a deleted user whose row has not been purged yet.
+     *
+     * @param userName - username of the user
+     * @return - UserEntity if the username exists in the database, null otherwise
+     */
+    public UserEntity getUserByUserName(final String userName) {
+        try {
+            return entityManager.createNamedQuery("userByUserName", UserEntity.class).setParameter("userName", userName).getSingleResult();
+        } catch (NoResultException nre) {
+            return null;
+        }
+    }
+
+    /**
+     * This method fetches the user corresponding to the email address, including a deleted user whose row has not been purged yet.
+     *
+     * @param email - email address of the user
+     * @return - UserEntity if the email address exists in the database, null otherwise
+     */
+    public UserEntity getUserByEmail(final String email) {
+        try {
+            return entityManager.createNamedQuery("userByEmail", UserEntity.class).setParameter("email", email).getSingleResult();
+        } catch (NoResultException nre) {
+            return null;
+        }
+    }
+
+    /**
+     * This method persists the user after a successful sign up.
+     */
+    public UserEntity createUser(final UserEntity userEntity) {
+        entityManager.persist(userEntity);
+        return userEntity;
+    }
+
+    /**
+     * This method updates the user in the database.
+     */
+    public UserEntity updateUser(final UserEntity userEntity) {
+        return entityManager.merge(userEntity);
+    }
+}
@@ -0,0 +1,142 @@
+package com.upgrad.quora.service.dao;
+
+import com.upgrad.quora.service.entity.UserDeletionEntity;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.NoResultException;
+import javax.persistence.PersistenceContext;
+import java.util.List;
+
+/**
+ * UserDeletionDao class provides the database access for the deletion of users: the USER_DELETION progress rows, and the
+ * batched deletes which purge the rows of a deleted user. Every delete is bounded by the batch size and is meant to run in
+ * the transaction which also records its progress.
+ */
+@Repository
+public class UserDeletionDao {
+
+    private static final String DELETE_ANSWERS_BY_USER_QUERY =
+            "delete from answer where id in (select id from answer where user_id = ? limit ?) returning id, question_id";
+
+    private static final String DELETE_ANSWERS_TO_QUESTIONS_OF_USER_QUERY =
+            "delete from answer where id in (select a.id from question q join answer a on a.question_id = q.id" +
+                    " where q.user_id = ? limit ?) returning id, question_id";
+
+    private static final String DELETE_QUESTIONS_BY_USER_QUERY =
+            "delete from question where id in (select id from question where user_id = ? limit ?) returning id";
+
+    private static final String DELETE_SESSIONS_BY_USER_QUERY =
+            "delete from user_auth where (id, expires_at) in (select id, expires_at from user_auth where user_id = ? limit ?)";
+
+    private static final String DELETE_USER_QUERY = "delete from users where id = ?";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * This method persists the progress row of a newly deleted user.
+     */
+    public UserDeletionEntity createUserDeletion(final UserDeletionEntity userDeletionEntity) {
+        entityManager.persist(userDeletionEntity);
+        return userDeletionEntity;
+    }
+
+    /**
+     * This method fetches the progress of the deletion of the user.
+     *
+     * @param userUuid - uuid of the deleted user
+     * @return - UserDeletionEntity if the user has been deleted, null otherwise
+     */
+    public UserDeletionEntity getUserDeletionByUserUuid(final String userUuid) {
+        try {
+            return entityManager.createNamedQuery("userDeletionByUserUuid", UserDeletionEntity.class)
+                    .setParameter("userUuid", userUuid).getSingleResult();
+        } catch (NoResultException nre) {
+            return null;
+        }
+    }
+
+    /**
+     * This method locks the oldest deletion which has not completed yet, skipping the ones locked by other instances.
+     *
+     * @return - UserDeletionEntity locked until the end of the transaction, null if there is no deletion left to work on
+     */
+    public UserDeletionEntity lockNextPendingUserDeletion() {
+        @SuppressWarnings("unchecked") final List<UserDeletionEntity> deletions =
+                entityManager.createNamedQuery("nextPendingUserDeletion").getResultList();
+        return deletions.isEmpty() ? null : deletions.get(0);
+    }
+
+    /**
+     * @return - number of deletions which have not completed yet
+     */
+    public long getPendingUserDeletionCount() {
+        return entityManager.createNamedQuery("pendingUserDeletionCount", Long.class).getSingleResult();
+    }
+
+    /**
+     * This method deletes a batch of the answers posted by the user.
+     *
+     * @return - number of deleted answers, less than the batch size once none is left
+     */
+    public int deleteAnswersByUser(final int userId, final int batchSize, final DeletedAnswerHandler handler) {
+        return deleteAnswers(DELETE_ANSWERS_BY_USER_QUERY, userId, batchSize, handler);
+    }
+
+    /**
+     * This method deletes a batch of the answers posted by anyone to the questions of the user.
+     *
+     * @return - number of deleted answers, less than the batch size once none is left
+     */
+    public int deleteAnswersToQuestionsOfUser(final int userId, final int batchSize, final DeletedAnswerHandler handler) {
+        return deleteAnswers(DELETE_ANSWERS_TO_QUESTIONS_OF_USER_QUERY, userId, batchSize, handler);
+    }
+
+    /**
+     * This method deletes a batch of the questions posted by the user. Their answers must have been deleted before.
+     *
+     * @return - ids of the deleted questions, fewer than the batch size once none is left
+     */
+    public List<Integer> deleteQuestionsByUser(final int userId, final int batchSize) {
+        return jdbcTemplate.queryForList(DELETE_QUESTIONS_BY_USER_QUERY, Integer.class, userId, batchSize);
+    }
+
+    /**
+     * This method deletes a batch of the sessions of the user from USER_AUTH.
+     *
+     * @return - number of deleted sessions, less than the batch size once none is left
+     */
+    public int deleteSessionsByUser(final int userId, final int batchSize) {
+        return jdbcTemplate.update(DELETE_SESSIONS_BY_USER_QUERY, userId, batchSize);
+    }
+
+    /**
+     * This method deletes the user row, once nothing else refers to it.
+     */
+    public void deleteUser(final int userId) {
+        jdbcTemplate.update(DELETE_USER_QUERY, userId);
+    }
+
+    private int deleteAnswers(final String query, final int userId, final int batchSize, final DeletedAnswerHandler handler) {
+        final int[] deleted = new int[1];
+        jdbcTemplate.query(query, rs -> {
+            handler.handle(rs.getInt(1), rs.getInt(2));
+            deleted[0]++;
+        }, userId, batchSize);
+        return deleted[0];
+    }
+
+    /**
+     * DeletedAnswerHandler receives the id and question id of one deleted answer.
+     */
+    @FunctionalInterface
+    public interface DeletedAnswerHandler {
+        void handle(int id, int questionId);
+    }
+}
@@ -0,0 +1,175 @@
+package com.upgrad.quora.service.entity;
+
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import javax.persistence.*;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.io.Serializable;
+import java.time.ZonedDateTime;
+
+/**
+ * QuestionEntity class maps to the QUESTION table in the database.
+ * The page queries use keyset pagination on (date, id) with a row value comparison, so that Postgres can seek straight to the
+ * cursor in the question_date_id_idx / question_user_date_id_idx indexes no matter how deep the page is.
+ * ANSWER_COUNT and LAST_ANSWER_AT are written by a database trigger, so SecondLevelCacheEvictionListener evicts the cached
+ * question whenever one of its answers is created or deleted.
+ */
+@Entity
+@Table(name = "question", schema = "public")
+@NamedQueries(
+        {
+                @NamedQuery(name = "questionByUuid", query = "select q from QuestionEntity q where q.uuid = :uuid",
+                        hints = {@QueryHint(name = "org.hibernate.cacheable", value = "true"),
+                                @QueryHint(name = "org.hibernate.cacheRegion", value = "question-by-uuid")}),
+                @NamedQuery(name = "questionsByIds", query = "select q from QuestionEntity q where q.id in :ids")
+        }
+)
+@NamedNativeQueries(
+        {
+                @NamedNativeQuery(name = "firstQuestionsPage", resultClass = QuestionEntity.class,
+                        query = "select * from question order by date desc, id desc limit :limit"),
+                @NamedNativeQuery(name = "questionsPageAfter", resultClass = QuestionEntity.class,
+                        query = "select * from question where (date, id) < (:date, :id) order by date desc, id desc limit :limit"),
+                @NamedNativeQuery(name = "firstQuestionsPageByUser", resultClass = QuestionEntity.class,
+                        query = "select * from question where user_id = :userId order by date desc, id desc limit :limit"),
+                @NamedNativeQuery(name = "questionsPageByUserAfter", resultClass = QuestionEntity.class,
+                        query = "select * from question where user_id = :userId and (date, id) < (:date, :id) order by date desc, id desc limit :limit"),
+                @NamedNativeQuery(name = "searchQuestions", resultSetMapping = "questionSearchHit",
+                        query = "select c.*, ts_rank(c.content_tsv, query) as rank, count(*) over () > :maxRanked as truncated" +
+                                " from (select q.* from question q where q.content_tsv @@ plainto_tsquery('english', :text) limit :maxRanked + 1) c," +
+                                " plainto_tsquery('english', :text) query order by rank desc, c.id desc limit :limit"),
+                @NamedNativeQuery(name = "searchQuestionsAfter", resultSetMapping = "questionSearchHit",
+                        query = "select * from (select c.*, ts_rank(c.content_tsv, query) as rank, count(*) over () > :maxRanked as truncated" +
+                                " from (select q.* from question q where q.content_tsv @@ plainto_tsquery('english', :text) limit :maxRanked + 1) c," +
+                                " plainto_tsquery('english', :text) query) hits where (rank, id) < (cast(:rank as real), :id)" +
+                                " order by rank desc, id desc limit :limit")
+        }
+)
+@SqlResultSetMapping(name = "questionSearchHit",
+        entities = @EntityResult(entityClass = QuestionEntity.class),
+        columns = {@ColumnResult(name = "rank", type = Float.class), @ColumnResult(name = "truncated", type = Boolean.class)})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "question")
+public class QuestionEntity implements Serializable {
+
+    @Id
+    @Column(name = "ID")
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Column(name = "UUID")
+    @Size(max = 200)
+    @NotNull
+    private String uuid;
+
+    @Column(name = "CONTENT")
+    @Size(max = 500)
+    @NotNull
+    private String content;
+
+    @Column(name = "DATE")
+    @NotNull
+    private ZonedDateTime date;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @JoinColumn(name = "USER_ID")
+    private UserEntity user;
+
+    /**
+     * Number of answers to the question, maintained by the ANSWER_QUESTION_STATS_TRG trigger of the database.
+     */
+    @Column(name = "ANSWER_COUNT", insertable = false, updatable = false)
+    private Integer answerCount;
+
+    /**
+     * Date of the latest answer to the question, maintained by the ANSWER_QUESTION_STATS_TRG trigger of the database.
+     */
+    @Column(name = "LAST_ANSWER_AT", insertable = false, updatable = false)
+    private ZonedDateTime lastAnswerAt;
+
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public String getUuid() {
+        return uuid;
+    }
+
+    public void setUuid(String uuid) {
+        this.uuid = uuid;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public void setContent(String content) {
+        this.content = content;
+    }
+
+    public ZonedDateTime getDate() {
+        return date;
+    }
+
+    public void setDate(ZonedDateTime date) {
+        this.date = date;
+    }
+
+    public UserEntity getUser() {
+        return user;
+    }
+
+    public void setUser(UserEntity user) {
+        this.user = user;
+    }
+
+    public Integer getAnswerCount() {
+        return answerCount;
+    }
+
+    /**
+     * This method is only meant for questions read outside of JPA, e.g. by the ReactiveReadDao; Hibernate never writes the column.
+     */
+    public void setAnswerCount(Integer answerCount) {
+        this.answerCount = answerCount;
+    }
+
+    public ZonedDateTime getLastAnswerAt() {
+        return lastAnswerAt;
+    }
+
+    /**
+     * This method is only meant for questions read outside of JPA, e.g. by the ReactiveReadDao; Hibernate never writes the column.
+     */
+    public void setLastAnswerAt(ZonedDateTime lastAnswerAt) {
+        this.lastAnswerAt = lastAnswerAt;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return new EqualsBuilder().append(this, obj).isEquals();
+    }
+
+    @Override
+    public int hashCode() {
+        return new HashCodeBuilder().append(this).hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return ToStringBuilder.reflectionToString(this, ToStringStyle.SHORT_PREFIX_STYLE);
+    }
+}
@@ -0,0 +1,167 @@
+package com.upgrad.quora.service.entity;
+
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+
+import javax.persistence.*;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.io.Serializable;
+import java.time.ZonedDateTime;
+
+/**
+ * UserDeletionEntity class maps to the USER_DELETION table in the database, which records the progress of the purge of every deleted user.
+ */
+@Entity
+@Table(name = "user_deletion", schema = "public")
+@NamedQueries(
+        {
+                @NamedQuery(name = "userDeletionByUserUuid", query = "select ud from UserDeletionEntity ud where ud.userUuid = :userUuid"),
+                @NamedQuery(name = "pendingUserDeletionCount", query = "select count(ud) from UserDeletionEntity ud where ud.completedAt is null")
+        }
+)
+@NamedNativeQueries(
+        {
+                // skip locked, so that several instances of the application share the pending deletions instead of queueing on one
+                @NamedNativeQuery(name = "nextPendingUserDeletion", resultClass = UserDeletionEntity.class,
+                        query = "select * from user_deletion where completed_at is null order by id limit 1 for update skip locked")
+        }
+)
+public class UserDeletionEntity implements Serializable {
+
+    @Id
+    @Column(name = "ID")
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Column(name = "USER_ID")
+    @NotNull
+    private Integer userId;
+
+    @Column(name = "USER_UUID")
+    @Size(max = 200)
+    @NotNull
+    private String userUuid;
+
+    @Column(name = "PHASE")
+    @Enumerated(EnumType.STRING)
+    @NotNull
+    private UserDeletionPhase phase;
+
+    @Column(name = "ANSWERS_DELETED")
+    private long answersDeleted;
+
+    @Column(name = "QUESTIONS_DELETED")
+    private long questionsDeleted;
+
+    @Column(name = "SESSIONS_DELETED")
+    private long sessionsDeleted;
+
+    @Column(name = "REQUESTED_AT")
+    @NotNull
+    private ZonedDateTime requestedAt;
+
+    @Column(name = "UPDATED_AT")
+    @NotNull
+    private ZonedDateTime updatedAt;
+
+    @Column(name = "COMPLETED_AT")
+    private ZonedDateTime completedAt;
+
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public Integer getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Integer userId) {
+        this.userId = userId;
+    }
+
+    public String getUserUuid() {
+        return userUuid;
+    }
+
+    public void setUserUuid(String userUuid) {
+        this.userUuid = userUuid;
+    }
+
+    public UserDeletionPhase getPhase() {
+        return phase;
+    }
+
+    public void setPhase(UserDeletionPhase phase) {
+        this.phase = phase;
+    }
+
+    public long getAnswersDeleted() {
+        return answersDeleted;
+    }
+
+    public void setAnswersDeleted(long answersDeleted) {
+        this.answersDeleted = answersDeleted;
+    }
+
+    public long getQuestionsDeleted() {
+        return questionsDeleted;
+    }
+
+    public void setQuestionsDeleted(long questionsDeleted) {
+        this.questionsDeleted = questionsDeleted;
+    }
+
+    public long getSessionsDeleted() {
+        return sessionsDeleted;
+    }
+
+    public void setSessionsDeleted(long sessionsDeleted) {
+        this.sessionsDeleted = sessionsDeleted;
+    }
+
+    public ZonedDateTime getRequestedAt() {
+        return requestedAt;
+    }
+
+    public void setRequestedAt(ZonedDateTime requestedAt) {
+        this.requestedAt = requestedAt;
+    }
+
+    public ZonedDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(ZonedDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public ZonedDateTime getCompletedAt() {
+        return completedAt;
+    }
+
+    public void setCompletedAt(ZonedDateTime completedAt) {
+        this.completedAt = completedAt;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return new EqualsBuilder().append(this, obj).isEquals();
+    }
+
+    @Override
+    public int hashCode() {
+        return new HashCodeBuilder().append(this).hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return ToStringBuilder.reflectionToString(this, ToStringStyle.SHORT_PREFIX_STYLE);
+    }
+}
@@ -0,0 +1,41 @@
+package com.upgrad.quora.service.entity;
+
+/**
+ * UserDeletionPhase lists the steps of the purge of a deleted user, in the order they run.
+ */
+public enum UserDeletionPhase {
+
+    /**
+     * Deleting the answers posted by the user.
+     */
+    ANSWERS,
+
+    /**
+     * Deleting the answers which other users posted to the questions of the user.
+     */
+    QUESTION_ANSWERS,
+
+    /**
+     * Deleting the questions posted by the user.
+     */
+    QUESTIONS,
+
+    /**
+     * Deleting the sessions of the user from USER_AUTH.
+     */
+    SESSIONS,
+
+    /**
+     * Deleting the user row itself.
+     */
+    USER,
+
+    /**
+     * Nothing of the user is left.
+     */
+    DONE;
+
+    public UserDeletionPhase next() {
+        return this == DONE ? DONE : values()[ordinal() + 1];
+    }
+}
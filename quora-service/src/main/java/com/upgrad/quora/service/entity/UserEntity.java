@@ -0,0 +1,223 @@
+package com.upgrad.quora.service.entity;
+
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import javax.persistence.*;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.io.Serializable;
+import java.time.ZonedDateTime;
+
+/**
+ * UserEntity class maps to the USERS table in the database.
+ */
+@Entity
+@Table(name = "users", schema = "public")
+@NamedQueries(
+        {
+                @NamedQuery(name = "userByUuid", query = "select u from UserEntity u where u.uuid = :uuid and u.deletedAt is null",
+                        hints = {@QueryHint(name = "org.hibernate.cacheable", value = "true"),
+                                @QueryHint(name = "org.hibernate.cacheRegion", value = "user-by-uuid")}),
+                @NamedQuery(name = "userByUserName", query = "select u from UserEntity u where u.userName = :userName"),
+                @NamedQuery(name = "userByEmail", query = "select u from UserEntity u where u.email = :email")
+        }
+)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "user")
+public class UserEntity implements Serializable {
+
+    @Id
+    @Column(name = "ID")
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Column(name = "UUID")
+    @Size(max = 200)
+    @NotNull
+    private String uuid;
+
+    @Column(name = "FIRSTNAME")
+    @Size(max = 30)
+    @NotNull
+    private String firstName;
+
+    @Column(name = "LASTNAME")
+    @Size(max = 30)
+    @NotNull
+    private String lastName;
+
+    @Column(name = "USERNAME")
+    @Size(max = 30)
+    @NotNull
+    private String userName;
+
+    @Column(name = "EMAIL")
+    @Size(max = 50)
+    @NotNull
+    private String email;
+
+    @Column(name = "PASSWORD")
+    @Size(max = 255)
+    @NotNull
+    private String password;
+
+    @Column(name = "SALT")
+    @Size(max = 200)
+    @NotNull
+    private String salt;
+
+    @Column(name = "COUNTRY")
+    @Size(max = 30)
+    private String country;
+
+    @Column(name = "ABOUTME")
+    @Size(max = 50)
+    private String aboutMe;
+
+    @Column(name = "DOB")
+    @Size(max = 30)
+    private String dob;
+
+    @Column(name = "ROLE")
+    @Size(max = 30)
+    private String role;
+
+    @Column(name = "CONTACTNUMBER")
+    @Size(max = 30)
+    private String contactNumber;
+
+    @Column(name = "DELETED_AT")
+    private ZonedDateTime deletedAt;
+
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public String getUuid() {
+        return uuid;
+    }
+
+    public void setUuid(String uuid) {
+        this.uuid = uuid;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public void setFirstName(String firstName) {
+        this.firstName = firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public void setLastName(String lastName) {
+        this.lastName = lastName;
+    }
+
+    public String getUserName() {
+        return userName;
+    }
+
+    public void setUserName(String userName) {
+        this.userName = userName;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public void setPassword(String password) {
+        this.password = password;
+    }
+
+    public String getSalt() {
+        return salt;
+    }
+
+    public void setSalt(String salt) {
+        this.salt = salt;
+    }
+
+    public String getCountry() {
+        return country;
+    }
+
+    public void setCountry(String country) {
+        this.country = country;
+    }
+
+    public String getAboutMe() {
+        return aboutMe;
+    }
+
+    public void setAboutMe(String aboutMe) {
+        this.aboutMe = aboutMe;
+    }
+
+    public String getDob() {
+        return dob;
+    }
+
+    public void setDob(String dob) {
+        this.dob = dob;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public void setRole(String role) {
+        this.role = role;
+    }
+
+    public String getContactNumber() {
+        return contactNumber;
+    }
+
+    public void setContactNumber(String contactNumber) {
+        this.contactNumber = contactNumber;
+    }
+
+    public ZonedDateTime getDeletedAt() {
+        return deletedAt;
+    }
+
+    public void setDeletedAt(ZonedDateTime deletedAt) {
+        this.deletedAt = deletedAt;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return new EqualsBuilder().append(this, obj).isEquals();
+    }
+
+    @Override
+    public int hashCode() {
+        return new HashCodeBuilder().append(this).hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return ToStringBuilder.reflectionToString(this, ToStringStyle.SHORT_PREFIX_STYLE);
+    }
+}
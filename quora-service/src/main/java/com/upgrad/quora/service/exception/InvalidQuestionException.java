@@ -1,5 +1,7 @@
 package com.upgrad.quora.service.exception;
 
+import com.upgrad.quora.service.common.ExceptionStackTraces;
+
 import java.io.PrintStream;
 import java.io.PrintWriter;
 
@@ -11,6 +13,7 @@ public class InvalidQuestionException extends Exception {
     private final String errorMessage;
 
     public InvalidQuestionException(final String code, final String errorMessage) {
+        super(errorMessage, null, false, ExceptionStackTraces.isEnabled());
         this.code = code;
         this.errorMessage = errorMessage;
     }
@@ -0,0 +1,118 @@
+package com.upgrad.quora.service.business;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class InvertedIndexTest {
+
+    private final InvertedIndex index = new InvertedIndex();
+
+    //This test case passes when the text is split into distinct lower cased terms without stop words and single characters.
+    @Test
+    public void tokenizeDropsStopWordsAndDuplicates() {
+        assertEquals(new HashSet<>(Arrays.asList("java", "gc", "pause", "g1")),
+                new HashSet<>(Arrays.asList(InvertedIndex.tokenize("How does the Java GC pause? java-G1 x"))));
+        assertEquals(0, InvertedIndex.tokenize(null).length);
+        assertEquals(0, InvertedIndex.tokenize("the of a").length);
+    }
+
+    //This test case passes when only the documents which contain every term of the query are hits, in ascending id order.
+    @Test
+    public void searchMatchesEveryQueryTerm() {
+        index.put(3, 3, "java thread pool");
+        index.put(1, 1, "java garbage collection");
+        index.put(2, 2, "thread pool sizing");
+
+        assertEquals(Arrays.asList(2, 3), hits("thread pool"));
+        assertEquals(Arrays.asList(3), hits("java pool"));
+        assertEquals(Arrays.asList(1, 3), hits("Java"));
+        assertTrue(hits("java kafka").isEmpty());
+        assertTrue(hits("the").isEmpty());
+    }
+
+    //This test case passes when the hits are reported with the owner id of the document, e.g. the question of an answer.
+    @Test
+    public void searchReportsOwnerId() {
+        index.put(10, 1, "index only scan");
+        index.put(11, 1, "partial index");
+        index.put(12, 2, "index bloat");
+
+        assertEquals(Arrays.asList(1, 1, 2), hits("index"));
+    }
+
+    //This test case passes when a rare term and a short document rank above a frequent term and a long document.
+    @Test
+    public void searchRanksRareTermsAndShortDocumentsFirst() {
+        index.put(1, 1, "postgres vacuum");
+        index.put(2, 2, "postgres vacuum autovacuum tuning thresholds");
+        index.put(3, 3, "postgres replication");
+
+        final Map<Integer, Float> ranks = ranks("postgres vacuum");
+        assertTrue(ranks.get(1) > ranks.get(2));
+        assertTrue(ranks("vacuum").get(1) > ranks("postgres").get(1));
+    }
+
+    //This test case passes when putting an indexed document again replaces its previous terms.
+    @Test
+    public void putReplacesPreviousText() {
+        index.put(1, 1, "spring boot");
+        index.put(1, 1, "micronaut");
+
+        assertTrue(hits("spring").isEmpty());
+        assertEquals(Arrays.asList(1), hits("micronaut"));
+        assertEquals(1, index.size());
+    }
+
+    //This test case passes when a removed document is no longer a hit and removing an unknown document is ignored.
+    @Test
+    public void removeDropsDocument() {
+        index.put(1, 1, "heap dump");
+        index.put(2, 2, "heap histogram");
+        index.remove(1);
+        index.remove(99);
+
+        assertFalse(index.contains(1));
+        assertEquals(Arrays.asList(2), hits("heap"));
+        assertEquals(1, index.size());
+    }
+
+    //This test case passes when documents put out of id order, as incremental updates may be, are intersected correctly.
+    @Test
+    public void searchIntersectsPostingsPutOutOfOrder() {
+        for (int id = 100; id >= 1; id--) {
+            index.put(id, id, id % 2 == 0 ? "even latency" : "odd latency");
+            if (id % 3 == 0) {
+                index.put(id, id, (id % 2 == 0 ? "even" : "odd") + " latency third");
+            }
+        }
+
+        final List<Integer> expected = new ArrayList<>();
+        for (int id = 6; id <= 100; id += 6) {
+            expected.add(id);
+        }
+        assertEquals(expected, hits("even latency third"));
+        assertEquals(50, hits("odd latency").size());
+    }
+
+    private List<Integer> hits(final String query) {
+        final List<Integer> ownerIds = new ArrayList<>();
+        index.search(InvertedIndex.tokenize(query), (ownerId, rank) -> ownerIds.add(ownerId));
+        return ownerIds;
+    }
+
+    private Map<Integer, Float> ranks(final String query) {
+        final Map<Integer, Float> ranks = new HashMap<>();
+        index.search(InvertedIndex.tokenize(query), ranks::put);
+        return ranks;
+    }
+}
@@ -0,0 +1,56 @@
+package com.upgrad.quora.service.business;
+
+import com.upgrad.quora.service.exception.InvalidCursorException;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Base64;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+public class PageCursorTest {
+
+    //This test case passes when an encoded cursor decodes to the same instant, down to the nanosecond, and id.
+    @Test
+    public void decodeReturnsEncodedPosition() throws InvalidCursorException {
+        final ZonedDateTime date = ZonedDateTime.of(2018, 6, 30, 12, 15, 30, 123456789, ZoneId.of("Asia/Kolkata"));
+
+        final PageCursor decoded = PageCursor.decode(new PageCursor(date, 42).encode());
+
+        assertEquals(date.toInstant(), decoded.getDate().toInstant());
+        assertEquals(Integer.valueOf(42), decoded.getId());
+    }
+
+    //This test case passes when a missing cursor stands for the first page.
+    @Test
+    public void decodeOfMissingCursorIsFirstPage() throws InvalidCursorException {
+        assertNull(PageCursor.decode(null));
+        assertNull(PageCursor.decode(""));
+    }
+
+    //This test case passes when a cursor which was not produced by encode() is rejected with CUR-001.
+    @Test
+    public void decodeRejectsMalformedCursor() {
+        assertInvalid("not base64!");
+        assertInvalid(encode("1530340530:0"));
+        assertInvalid(encode("1530340530:x:1"));
+        assertInvalid(encode("99999999999999999:0:1"));
+    }
+
+    private static String encode(final String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static void assertInvalid(final String cursor) {
+        try {
+            PageCursor.decode(cursor);
+            fail("Expected CUR-001 for " + cursor);
+        } catch (InvalidCursorException e) {
+            assertEquals("CUR-001", e.getCode());
+        }
+    }
+}
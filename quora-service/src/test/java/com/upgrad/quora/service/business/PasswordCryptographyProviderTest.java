@@ -0,0 +1,63 @@
+package com.upgrad.quora.service.business;
+
+import org.junit.Test;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.util.Base64;
+
+import static org.junit.Assert.assertEquals;
+
+public class PasswordCryptographyProviderTest {
+
+    private static final String PASSWORD = "database_password";
+
+    private final PasswordCryptographyProvider provider = new PasswordCryptographyProvider(10000, 512, 0);
+
+    //This test case passes when a password hashed with the current work factor matches without a rehash.
+    @Test
+    public void verifyMatchesCurrentFormat() {
+        final String[] saltAndHash = provider.encrypt(PASSWORD);
+
+        assertEquals(PasswordVerification.MATCHED, provider.verify(PASSWORD, saltAndHash[1], saltAndHash[0]));
+        assertEquals(PasswordVerification.FAILED, provider.verify("wrong_password", saltAndHash[1], saltAndHash[0]));
+    }
+
+    //This test case passes when a password hashed with fewer iterations than the current work factor asks for a rehash.
+    @Test
+    public void verifyAsksRehashOfLowerWorkFactor() {
+        final String[] saltAndHash = provider.encrypt(PASSWORD);
+        final PasswordCryptographyProvider stronger = new PasswordCryptographyProvider(20000, 512, 0);
+
+        assertEquals(PasswordVerification.MATCHED_NEEDS_REHASH, stronger.verify(PASSWORD, saltAndHash[1], saltAndHash[0]));
+    }
+
+    //This test case passes when a password hashed with more iterations than the current work factor is not downgraded.
+    @Test
+    public void verifyKeepsHigherWorkFactor() {
+        final String[] saltAndHash = new PasswordCryptographyProvider(20000, 512, 0).encrypt(PASSWORD);
+
+        assertEquals(PasswordVerification.MATCHED, provider.verify(PASSWORD, saltAndHash[1], saltAndHash[0]));
+    }
+
+    //This test case passes when a password in the legacy hex format matches and asks for a rehash.
+    @Test
+    public void verifyAsksRehashOfLegacyFormat() throws Exception {
+        final String salt = Base64.getEncoder().encodeToString("legacy_salt_bytes".getBytes("UTF-8"));
+        final PBEKeySpec spec = new PBEKeySpec(PASSWORD.toCharArray(), Base64.getDecoder().decode(salt), 1000, 64);
+        final String legacyPassword = PasswordCryptographyProvider.bytesToHex(
+                SecretKeyFactory.getInstance("PBKDF2WithHmacSHA512").generateSecret(spec).getEncoded());
+
+        assertEquals(PasswordVerification.MATCHED_NEEDS_REHASH, provider.verify(PASSWORD, legacyPassword, salt));
+        assertEquals(PasswordVerification.FAILED, provider.verify("wrong_password", legacyPassword, salt));
+    }
+
+    //This test case passes when a stored password which cannot be parsed never matches instead of failing the sign in.
+    @Test
+    public void verifyFailsUnreadableStoredPassword() {
+        assertEquals(PasswordVerification.FAILED, provider.verify(PASSWORD, "database_password", "database_salt"));
+        assertEquals(PasswordVerification.FAILED, provider.verify(PASSWORD, "database_password", null));
+        assertEquals(PasswordVerification.FAILED, provider.verify(PASSWORD, "$pbkdf2-sha512$x$512$c2FsdA==$00", "salt"));
+        assertEquals(PasswordVerification.FAILED, provider.verify(PASSWORD, null, "salt"));
+    }
+}
@@ -0,0 +1,64 @@
+package com.upgrad.quora.service.business;
+
+import com.upgrad.quora.service.exception.InvalidCursorException;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+public class SearchCursorTest {
+
+    //This test case passes when an encoded cursor decodes to the same rank bits, id and source.
+    @Test
+    public void decodeReturnsEncodedPosition() throws InvalidCursorException {
+        final SearchCursor cursor = new SearchCursor(SearchCursor.Source.IN_MEMORY, 0.1f + 0.2f, 42);
+
+        final SearchCursor decoded = SearchCursor.decode(cursor.encode(), SearchCursor.Source.IN_MEMORY);
+
+        assertEquals(SearchCursor.Source.IN_MEMORY, decoded.getSource());
+        assertEquals(Float.floatToIntBits(cursor.getRank()), Float.floatToIntBits(decoded.getRank()));
+        assertEquals(Integer.valueOf(42), decoded.getId());
+    }
+
+    //This test case passes when a missing cursor stands for the first page.
+    @Test
+    public void decodeOfMissingCursorIsFirstPage() throws InvalidCursorException {
+        assertNull(SearchCursor.decode(null, SearchCursor.Source.DATABASE));
+        assertNull(SearchCursor.decode("", SearchCursor.Source.DATABASE));
+    }
+
+    //This test case passes when a cursor ranked by the database search is rejected by the in-memory search, and vice versa.
+    @Test
+    public void decodeRejectsCursorOfOtherSource() {
+        assertInvalid(new SearchCursor(SearchCursor.Source.DATABASE, 0.5f, 7).encode(), SearchCursor.Source.IN_MEMORY);
+        assertInvalid(new SearchCursor(SearchCursor.Source.IN_MEMORY, 0.5f, 7).encode(), SearchCursor.Source.DATABASE);
+    }
+
+    //This test case passes when a cursor which was not produced by encode() is rejected with CUR-001.
+    @Test
+    public void decodeRejectsMalformedCursor() {
+        assertInvalid("not base64!", SearchCursor.Source.DATABASE);
+        assertInvalid(encode("d:1"), SearchCursor.Source.DATABASE);
+        assertInvalid(encode("d:x:1"), SearchCursor.Source.DATABASE);
+        assertInvalid(encode("x:1:1"), SearchCursor.Source.DATABASE);
+        // the cursors handed out before the source was recorded
+        assertInvalid(encode(Float.floatToIntBits(0.5f) + ":7"), SearchCursor.Source.DATABASE);
+    }
+
+    private static String encode(final String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static void assertInvalid(final String cursor, final SearchCursor.Source source) {
+        try {
+            SearchCursor.decode(cursor, source);
+            fail("Expected CUR-001 for " + cursor);
+        } catch (InvalidCursorException e) {
+            assertEquals("CUR-001", e.getCode());
+        }
+    }
+}
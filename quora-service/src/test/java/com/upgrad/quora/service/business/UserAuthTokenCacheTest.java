@@ -0,0 +1,189 @@
+package com.upgrad.quora.service.business;
+
+import org.junit.Test;
+
+import java.time.ZonedDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class UserAuthTokenCacheTest {
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    //This test case passes when a session is served from the cache until its TTL has passed.
+    @Test
+    public void getServesCachedSessionWithinTtl() {
+        final UserAuthTokenCache cache = new UserAuthTokenCache(10, 300);
+        final UserAuthSession session = session("token1", "user1", null);
+
+        assertSame(session, cache.get("token1", loader(session)));
+        assertSame(session, cache.get("token1", loader(session)));
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    //This test case passes when a session whose TTL has passed is reloaded from the database.
+    @Test
+    public void getReloadsSessionOnceTtlHasPassed() {
+        final UserAuthTokenCache cache = new UserAuthTokenCache(10, 0);
+        final UserAuthSession session = session("token1", "user1", null);
+
+        cache.get("token1", loader(session));
+        cache.get("token1", loader(session));
+        assertEquals(2, loads.get());
+        assertNull(cache.getIfPresent("token1"));
+    }
+
+    //This test case passes when a session which expires within the TTL is served until its expiry only, and then reloaded.
+    @Test
+    public void getReloadsSessionOnceItExpiresWithinTtl() throws InterruptedException {
+        final UserAuthTokenCache cache = new UserAuthTokenCache(10, 300);
+        final UserAuthSession session = new UserAuthSession("token1", 1, "user1", "nonadmin", ZonedDateTime.now().plusNanos(200_000_000L), null);
+
+        assertSame(session, cache.get("token1", loader(session)));
+        assertSame(session, cache.getIfPresent("token1"));
+        Thread.sleep(300);
+
+        assertNull(cache.getIfPresent("token1"));
+        cache.get("token1", loader(session));
+        assertEquals(2, loads.get());
+    }
+
+    //This test case passes when a session which has already expired is not cached.
+    @Test
+    public void putDoesNotCacheExpiredSession() {
+        final UserAuthTokenCache cache = new UserAuthTokenCache(10, 300);
+        final UserAuthSession expired = new UserAuthSession("token1", 1, "user1", "nonadmin", ZonedDateTime.now().minusMinutes(1), null);
+
+        cache.put(expired);
+        assertFalse(cache.put(expired, cache.getGeneration()));
+        assertEquals(0, cache.size());
+    }
+
+    //This test case passes when an unknown access token is never cached.
+    @Test
+    public void getDoesNotCacheUnknownToken() {
+        final UserAuthTokenCache cache = new UserAuthTokenCache(10, 300);
+
+        assertNull(cache.get("unknown", loader(null)));
+        assertNull(cache.get("unknown", loader(null)));
+        assertEquals(2, loads.get());
+        assertEquals(0, cache.size());
+    }
+
+    //This test case passes when the least recently used session is evicted once the cache is full.
+    @Test
+    public void putEvictsLeastRecentlyUsedSessionOnceFull() {
+        final UserAuthTokenCache cache = new UserAuthTokenCache(2, 300);
+        cache.put(session("token1", "user1", null));
+        cache.put(session("token2", "user2", null));
+        cache.getIfPresent("token1");
+        cache.put(session("token3", "user3", null));
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+        assertNull(cache.getIfPresent("token2"));
+        assertEquals("token1", cache.getIfPresent("token1").getAccessToken());
+        assertEquals("token3", cache.getIfPresent("token3").getAccessToken());
+    }
+
+    //This test case passes when invalidate() drops the session, so that the next lookup reads the logout from the database.
+    @Test
+    public void invalidateDropsSession() {
+        final UserAuthTokenCache cache = new UserAuthTokenCache(10, 300);
+        cache.get("token1", loader(session("token1", "user1", null)));
+
+        cache.invalidate("token1");
+
+        final UserAuthSession signedOut = cache.get("token1", loader(session("token1", "user1", ZonedDateTime.now())));
+        assertTrue(signedOut.isSignedOut());
+        assertEquals(2, loads.get());
+    }
+
+    //This test case passes when a session read before a sign out committed, but returned after it, is not cached.
+    @Test
+    public void getDoesNotCacheSessionLoadedDuringInvalidate() {
+        final UserAuthTokenCache cache = new UserAuthTokenCache(10, 300);
+        final UserAuthSession beforeLogout = session("token1", "user1", null);
+
+        final UserAuthSession loaded = cache.get("token1", token -> {
+            loads.incrementAndGet();
+            cache.invalidate(token);
+            return beforeLogout;
+        });
+
+        assertSame(beforeLogout, loaded);
+        assertNull(cache.getIfPresent("token1"));
+        assertEquals(0, cache.size());
+    }
+
+    //This test case passes when a session read before the deletion of its user committed, but returned after it, is not cached.
+    @Test
+    public void getDoesNotCacheSessionLoadedDuringInvalidateUser() {
+        final UserAuthTokenCache cache = new UserAuthTokenCache(10, 300);
+        final UserAuthSession beforeDeletion = session("token1", "user1", null);
+
+        cache.get("token1", token -> {
+            loads.incrementAndGet();
+            cache.invalidateUser("user1");
+            return beforeDeletion;
+        });
+
+        assertNull(cache.getIfPresent("token1"));
+    }
+
+    //This test case passes when a session loaded after the invalidation is cached again.
+    @Test
+    public void getCachesSessionLoadedAfterInvalidate() {
+        final UserAuthTokenCache cache = new UserAuthTokenCache(10, 300);
+        cache.invalidate("token1");
+
+        cache.get("token1", loader(session("token1", "user1", ZonedDateTime.now())));
+
+        assertTrue(cache.getIfPresent("token1").isSignedOut());
+    }
+
+    //This test case passes when put() refuses a session loaded outside of get() with a generation taken before an invalidation.
+    @Test
+    public void putRefusesSessionOfStaleGeneration() {
+        final UserAuthTokenCache cache = new UserAuthTokenCache(10, 300);
+        final long generation = cache.getGeneration();
+        cache.invalidateUser("user1");
+
+        assertFalse(cache.put(session("token1", "user1", null), generation));
+        assertTrue(cache.put(session("token1", "user1", null), cache.getGeneration()));
+        assertEquals(1, cache.size());
+    }
+
+    //This test case passes when invalidateUser() drops every session of the user and only those.
+    @Test
+    public void invalidateUserDropsEverySessionOfUser() {
+        final UserAuthTokenCache cache = new UserAuthTokenCache(10, 300);
+        cache.put(session("token1", "user1", null));
+        cache.put(session("token2", "user1", null));
+        cache.put(session("token3", "user2", null));
+
+        cache.invalidateUser("user1");
+
+        assertEquals(1, cache.size());
+        assertEquals("token3", cache.getIfPresent("token3").getAccessToken());
+    }
+
+    private Function<String, UserAuthSession> loader(final UserAuthSession session) {
+        return token -> {
+            loads.incrementAndGet();
+            return session;
+        };
+    }
+
+    private static UserAuthSession session(final String accessToken, final String userUuid, final ZonedDateTime logoutAt) {
+        return new UserAuthSession(accessToken, 1, userUuid, "nonadmin", ZonedDateTime.now().plusHours(8), logoutAt);
+    }
+}
@@ -0,0 +1,108 @@
+package com.upgrad.quora.service.dao;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * These tests route the reads of a request between a primary at version 9 and two replicas which have replayed up to
+ * versions 7 and 5. Every database answers the lag query with 0, i.e. in rotation, and any other query with its version.
+ */
+public class ReplicaRoutingDataSourceTest {
+
+    private final Map<String, ResultSet> results = new LinkedHashMap<>();
+
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @Before
+    public void setUp() throws SQLException {
+        final Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica-0", database("replica-0", 7));
+        replicas.put("replica-1", database("replica-1", 5));
+        routingDataSource = new ReplicaRoutingDataSource(database("primary", 9), replicas, 1000, 1000);
+        routingDataSource.afterPropertiesSet();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+    }
+
+    @After
+    public void tearDown() {
+        TransactionSynchronizationManager.clear();
+        ReplicaSessionContext.clear();
+    }
+
+    //This test case passes when the version behind the ETag and the body of a request are read from the same replica, however far apart the replicas are.
+    @Test
+    public void versionAndBodyOfRequestAreReadFromSameReplica() throws SQLException {
+        ReplicaSessionContext.set("token1");
+
+        final long version = readVersion();
+        final long body = readVersion();
+
+        assertEquals(7, version);
+        assertEquals(version, body);
+    }
+
+    //This test case passes when the next request is routed to the next replica, so that requests still take turns.
+    @Test
+    public void nextRequestIsRoutedToNextReplica() throws SQLException {
+        ReplicaSessionContext.set("token1");
+        assertEquals(7, readVersion());
+        ReplicaSessionContext.clear();
+
+        ReplicaSessionContext.set("token1");
+        assertEquals(5, readVersion());
+        assertEquals(5, readVersion());
+    }
+
+    //This test case passes when a request whose replica leaves the rotation goes on reading from the primary, never from a replica further behind.
+    @Test
+    public void requestOfReplicaOutOfRotationReadsFromPrimary() throws SQLException {
+        ReplicaSessionContext.set("token1");
+        assertEquals(7, readVersion());
+
+        when(results.get("replica-0").getDouble(1)).thenReturn(-1d);
+        routingDataSource.checkLag();
+
+        assertEquals(9, readVersion());
+        assertEquals(9, readVersion());
+    }
+
+    private long readVersion() throws SQLException {
+        try (Connection connection = routingDataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("select version")) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    private DataSource database(final String name, final long version) throws SQLException {
+        final ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getDouble(1)).thenReturn(0d);
+        when(resultSet.getLong(1)).thenReturn(version);
+        results.put(name, resultSet);
+        final Statement statement = mock(Statement.class);
+        when(statement.executeQuery(anyString())).thenReturn(resultSet);
+        final Connection connection = mock(Connection.class);
+        when(connection.createStatement()).thenReturn(statement);
+        final DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        return dataSource;
+    }
+}